@@ -0,0 +1,33 @@
+plugins {
+    java
+    alias(libs.plugins.jmh)
+}
+
+dependencies {
+    implementation(project(":core"))
+    implementation(libs.configurate.yaml)
+    implementation(libs.configurate.core)
+}
+
+// ./gradlew -Pbenchmarks :benchmarks:jmh                              runs everything
+// ./gradlew -Pbenchmarks :benchmarks:jmh -Pjmh.includes=RateLimiter   runs benchmarks whose name matches the regex
+jmh {
+    jmhVersion.set(libs.versions.jmh.get())
+    // Allocation rate and bytes/op next to the timings, so allocation regressions show up
+    profilers.add("gc")
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    resultFormat.set("JSON")
+    providers.gradleProperty("jmh.includes").orNull?.let { includes.add(it) }
+}
+
+// ./gradlew -Pbenchmarks :benchmarks:loadTest -PloadTest.args="--rate=500 --duration=60"
+// Pass --help for every option
+tasks.register<JavaExec>("loadTest") {
+    group = "verification"
+    description = "Runs the end-to-end load test against an in-process stub webhook server"
+    classpath = sourceSets.main.get().runtimeClasspath
+    mainClass.set("dev.valhal.minecraft.plugin.EventNotifications.benchmarks.loadtest.LoadTest")
+    args(providers.gradleProperty("loadTest.args").orNull?.trim()?.split(Regex("\\s+"))?.filter { it.isNotEmpty() } ?: emptyList())
+}
@@ -0,0 +1,92 @@
+package dev.valhal.minecraft.plugin.EventNotifications.benchmarks;
+
+import dev.valhal.minecraft.plugin.EventNotifications.core.event.EventBus;
+import dev.valhal.minecraft.plugin.EventNotifications.core.event.GameEvent;
+import dev.valhal.minecraft.plugin.EventNotifications.core.event.PlayerConnectEvent;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link EventBus#publish} as the server thread sees it, with N handlers on the consumer thread.
+ * Each publish is preceded by a fixed amount of simulated server work, since events arrive
+ * between ticks rather than back to back; a tight publish loop would only fill the ring and
+ * measure the drop path. The cost of publishing is {@code publish} minus {@code baseline}.
+ * Handler calls and drops are reported next to the timings; drops should stay near 0.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EventBusBenchmark {
+    // Roughly 200-300ns of work between events
+    private static final long SERVER_WORK_TOKENS = 100;
+
+    @Param({"1", "4", "16"})
+    public int handlers;
+
+    private EventBus eventBus;
+    private GameEvent event;
+    private final LongAdder handled = new LongAdder();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        eventBus = new EventBus(message -> {});
+        for (int i = 0; i < handlers; i++) {
+            eventBus.subscribe(e -> handled.increment());
+        }
+        event = new PlayerConnectEvent(UUID.randomUUID(), "Steve");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        eventBus.close();
+    }
+
+    /**
+     * Handler calls and dropped events during an iteration, reported next to the timings.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Counters {
+        public long handlerCalls;
+        public long dropped;
+        private long handledAtStart;
+        private long droppedAtStart;
+
+        @Setup(Level.Iteration)
+        public void start(EventBusBenchmark benchmark) {
+            handledAtStart = benchmark.handled.sum();
+            droppedAtStart = benchmark.eventBus.getDroppedCount();
+        }
+
+        @TearDown(Level.Iteration)
+        public void stop(EventBusBenchmark benchmark) {
+            handlerCalls = benchmark.handled.sum() - handledAtStart;
+            dropped = benchmark.eventBus.getDroppedCount() - droppedAtStart;
+        }
+    }
+
+    @Benchmark
+    public void baseline() {
+        Blackhole.consumeCPU(SERVER_WORK_TOKENS);
+    }
+
+    @Benchmark
+    public void publish(Counters counters) {
+        Blackhole.consumeCPU(SERVER_WORK_TOKENS);
+        eventBus.publish(event);
+    }
+}
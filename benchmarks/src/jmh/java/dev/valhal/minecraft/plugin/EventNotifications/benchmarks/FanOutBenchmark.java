@@ -0,0 +1,139 @@
+package dev.valhal.minecraft.plugin.EventNotifications.benchmarks;
+
+import dev.valhal.minecraft.plugin.EventNotifications.benchmarks.loadtest.StubWebhookServer;
+import dev.valhal.minecraft.plugin.EventNotifications.core.config.DeliveryConfig;
+import dev.valhal.minecraft.plugin.EventNotifications.core.config.GeneralConfig;
+import dev.valhal.minecraft.plugin.EventNotifications.core.config.PluginConfig;
+import dev.valhal.minecraft.plugin.EventNotifications.core.config.TargetConfig;
+import dev.valhal.minecraft.plugin.EventNotifications.core.config.TemplateLoader;
+import dev.valhal.minecraft.plugin.EventNotifications.core.delivery.CircuitBreakerPolicy;
+import dev.valhal.minecraft.plugin.EventNotifications.core.delivery.DeliveryDispatcher;
+import dev.valhal.minecraft.plugin.EventNotifications.core.delivery.DeliveryExecutor;
+import dev.valhal.minecraft.plugin.EventNotifications.core.delivery.OverflowPolicy;
+import dev.valhal.minecraft.plugin.EventNotifications.core.delivery.RetryPolicy;
+import dev.valhal.minecraft.plugin.EventNotifications.core.event.PlayerDeathEvent;
+import dev.valhal.minecraft.plugin.EventNotifications.core.notification.NotificationService;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link NotificationService#handleEvent} for one event fanned out to N targets: rate limit
+ * checks, rendering, body encoding and queueing. Targets cycle through Discord, Slack,
+ * generic webhook and ntfy, and send to a local stub server, so deliveries complete in
+ * the background as they would in production. Rate limits are off and the queue is large,
+ * so every event reaches every target.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FanOutBenchmark {
+    private static final String[] TARGET_TYPES = {"discord", "slack", "webhook", "ntfy"};
+
+    @Param({"1", "4", "8"})
+    public int targets;
+
+    private Path dataDir;
+    private StubWebhookServer server;
+    private DeliveryExecutor executor;
+    private NotificationService service;
+    private PlayerDeathEvent event;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dataDir = Files.createTempDirectory("eventnotifications-bench");
+        server = StubWebhookServer.start();
+
+        TemplateLoader templateLoader = new TemplateLoader(dataDir.resolve("templates"));
+        templateLoader.load();
+
+        DeliveryConfig delivery = new DeliveryConfig(65_536, OverflowPolicy.DROP_OLDEST,
+                DeliveryConfig.DEFAULT_BLOCK_TIMEOUT_MS, 64, true, DeliveryConfig.DEFAULT_WORKER_THREADS,
+                0, Map.of(), RetryPolicy.defaults(), CircuitBreakerPolicy.defaults(), false,
+                DeliveryConfig.DEFAULT_SPOOL_MAX_SIZE_MB, DeliveryConfig.DEFAULT_SPOOL_WRITE_DELAY_MS,
+                DeliveryConfig.DEFAULT_SHUTDOWN_TIMEOUT_MS,
+                DeliveryConfig.DEFAULT_ERROR_BODY_MAX_BYTES);
+        PluginConfig config = new PluginConfig(
+                new GeneralConfig("Benchmark Server", false, "", false,
+                        GeneralConfig.DEFAULT_METRICS_ADDRESS, GeneralConfig.DEFAULT_METRICS_PORT),
+                delivery, createTargets(targets));
+
+        executor = new DeliveryExecutor(delivery);
+        service = new NotificationService(config, templateLoader, dataDir, executor, message -> {});
+        event = new PlayerDeathEvent(UUID.randomUUID(), "Steve", "Steve was slain by Zombie");
+    }
+
+    private List<TargetConfig> createTargets(int count) {
+        List<TargetConfig> configs = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String type = TARGET_TYPES[i % TARGET_TYPES.length];
+            String url = server.url("/" + type + "/" + i);
+            Map<String, Object> properties = switch (type) {
+                case "discord", "slack" -> Map.of("webhook_url", url, "rate_limit", 0);
+                case "ntfy" -> Map.of("server", server.url(""), "topic", "bench" + i, "rate_limit", 0);
+                default -> Map.of("url", url, "rate_limit", 0);
+            };
+            configs.add(new TargetConfig(type + "_" + i, type, true, properties));
+        }
+        return configs;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        service.shutdown();
+        executor.shutdown();
+        server.close();
+        try (var files = Files.walk(dataDir)) {
+            files.sorted((a, b) -> b.compareTo(a)).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    /**
+     * Deliveries completed and dropped during an iteration, reported next to the timings.
+     * Drops mean the stub server could not keep up and the timings flatter the fan-out.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Counters {
+        public long delivered;
+        public long dropped;
+        private long deliveredAtStart;
+        private long droppedAtStart;
+
+        @Setup(Level.Iteration)
+        public void start(FanOutBenchmark benchmark) {
+            DeliveryDispatcher dispatcher = benchmark.service.getDispatcher();
+            deliveredAtStart = dispatcher.getDeliveredCount();
+            droppedAtStart = dispatcher.getDroppedCount();
+        }
+
+        @TearDown(Level.Iteration)
+        public void stop(FanOutBenchmark benchmark) {
+            DeliveryDispatcher dispatcher = benchmark.service.getDispatcher();
+            delivered = dispatcher.getDeliveredCount() - deliveredAtStart;
+            dropped = dispatcher.getDroppedCount() - droppedAtStart;
+        }
+    }
+
+    @Benchmark
+    public void handleEvent(Counters counters) {
+        service.handleEvent(event);
+    }
+}
@@ -0,0 +1,35 @@
+package dev.valhal.minecraft.plugin.EventNotifications.benchmarks;
+
+import dev.valhal.minecraft.plugin.EventNotifications.core.notification.NotificationPayload;
+
+import java.util.Map;
+
+/**
+ * Sample notifications shared by the benchmarks.
+ */
+final class Payloads {
+    private Payloads() {
+    }
+
+    /**
+     * A typical death notification, with the quotes and line breaks real messages contain.
+     */
+    static NotificationPayload typical() {
+        return new NotificationPayload(
+                "Player Died",
+                "Steve was slain by \"Zombie\"\nusing [Diamond Sword]",
+                Map.of("priority", "high", "tags", "skull,warning"));
+    }
+
+    /**
+     * A long advancement message, close to what a chatty template produces.
+     */
+    static NotificationPayload large() {
+        StringBuilder message = new StringBuilder();
+        for (int i = 0; i < 24; i++) {
+            message.append("Line ").append(i).append(": Alex reached \"Monster Hunter\" in the Nether\t(x=")
+                    .append(i * 37).append(", z=").append(-i * 11).append(")\n");
+        }
+        return new NotificationPayload("Advancement Made", message.toString(), Map.of("priority", "default"));
+    }
+}
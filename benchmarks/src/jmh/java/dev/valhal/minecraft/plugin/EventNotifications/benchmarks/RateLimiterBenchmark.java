@@ -0,0 +1,60 @@
+package dev.valhal.minecraft.plugin.EventNotifications.benchmarks;
+
+import dev.valhal.minecraft.plugin.EventNotifications.core.notification.RateLimiter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link RateLimiter#tryAcquire()} on one limiter shared by all benchmark threads, the way
+ * delivery threads share a target's bucket. The open limiter always has permits left, the
+ * exhausted one never does, so both the granting (CAS) and the refusing (read only) path are measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RateLimiterBenchmark {
+    private static final int CONTENDING_THREADS = 8;
+
+    private RateLimiter open;
+    private RateLimiter exhausted;
+
+    @Setup
+    public void setUp() {
+        // One permit per nanosecond is more than the threads can take, so it never runs out
+        open = RateLimiter.of(1L << 40, 1, TimeUnit.NANOSECONDS);
+        exhausted = RateLimiter.of(1, 1, TimeUnit.HOURS);
+        exhausted.tryAcquire();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean openUncontended() {
+        return open.tryAcquire();
+    }
+
+    @Benchmark
+    @Threads(CONTENDING_THREADS)
+    public boolean openContended() {
+        return open.tryAcquire();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean exhaustedUncontended() {
+        return exhausted.tryAcquire();
+    }
+
+    @Benchmark
+    @Threads(CONTENDING_THREADS)
+    public boolean exhaustedContended() {
+        return exhausted.tryAcquire();
+    }
+}
@@ -0,0 +1,138 @@
+package dev.valhal.minecraft.plugin.EventNotifications.benchmarks;
+
+import dev.valhal.minecraft.plugin.EventNotifications.core.config.AuthConfig;
+import dev.valhal.minecraft.plugin.EventNotifications.core.config.BatchConfig;
+import dev.valhal.minecraft.plugin.EventNotifications.core.http.HttpTransport;
+import dev.valhal.minecraft.plugin.EventNotifications.core.http.RequestBody;
+import dev.valhal.minecraft.plugin.EventNotifications.core.notification.DiscordWebhookTarget;
+import dev.valhal.minecraft.plugin.EventNotifications.core.notification.GenericWebhookTarget;
+import dev.valhal.minecraft.plugin.EventNotifications.core.notification.NotificationPayload;
+import dev.valhal.minecraft.plugin.EventNotifications.core.notification.NotificationTarget;
+import dev.valhal.minecraft.plugin.EventNotifications.core.notification.NtfyTarget;
+import dev.valhal.minecraft.plugin.EventNotifications.core.notification.SlackWebhookTarget;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building the request body for each target type. Bodies come from the buffer pool and are
+ * released right away, as the service does once every delivery sharing them has completed.
+ * Nothing is sent.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TargetBodyBenchmark {
+    @Param({"typical", "large"})
+    public String payloadSize;
+
+    private NotificationPayload payload;
+    private ScheduledExecutorService scheduler;
+    private NotificationTarget discordEmbeds;
+    private NotificationTarget discordContent;
+    private NotificationTarget slack;
+    private NotificationTarget webhook;
+    private NtfyTarget ntfy;
+    private RequestBody ntfyBody;
+
+    @Setup
+    public void setUp() {
+        payload = payloadSize.equals("large") ? Payloads.large() : Payloads.typical();
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        HttpTransport transport = new HttpTransport();
+        String icon = "https://example.com/icon.png";
+        discordEmbeds = new DiscordWebhookTarget("discord_embeds", true, "https://discord.com/api/webhooks/1/x",
+                true, icon, AuthConfig.none(), transport, BatchConfig.disabled(), null, scheduler);
+        discordContent = new DiscordWebhookTarget("discord_content", true, "https://discord.com/api/webhooks/1/x",
+                false, icon, AuthConfig.none(), transport, BatchConfig.disabled(), null, scheduler);
+        slack = new SlackWebhookTarget("slack", true, "https://hooks.slack.com/services/x",
+                true, icon, AuthConfig.none(), transport, BatchConfig.disabled(), null, scheduler);
+        webhook = new GenericWebhookTarget("webhook", true, "https://example.com/hook", "POST",
+                null, AuthConfig.none(), transport);
+        ntfy = new NtfyTarget("ntfy", true, "https://ntfy.sh", "benchmark", true, icon,
+                AuthConfig.bearer("tk_benchmark"), transport);
+        ntfyBody = ntfy.encodeBody(payload);
+    }
+
+    @TearDown
+    public void tearDown() {
+        ntfyBody.release();
+        scheduler.shutdownNow();
+    }
+
+    @Benchmark
+    public int discordEmbeds() {
+        return encodeAndRelease(discordEmbeds);
+    }
+
+    @Benchmark
+    public int discordContent() {
+        return encodeAndRelease(discordContent);
+    }
+
+    @Benchmark
+    public int slackAttachments() {
+        return encodeAndRelease(slack);
+    }
+
+    @Benchmark
+    public int genericWebhook() {
+        return encodeAndRelease(webhook);
+    }
+
+    /**
+     * The generic webhook body as it was built before the JSON writer, for comparison:
+     * String.format over five chained replace calls per field, then encoded to UTF-8.
+     */
+    @Benchmark
+    public byte[] genericWebhookStringFormat() {
+        return String.format(
+                "{\"title\":\"%s\",\"message\":\"%s\",\"priority\":\"%s\"}",
+                escapeJson(payload.title()),
+                escapeJson(payload.message()),
+                payload.getPriority().name().toLowerCase()
+        ).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public int ntfyBody() {
+        return encodeAndRelease(ntfy);
+    }
+
+    /**
+     * The ntfy request with its Title, Priority, Tags, Markdown, Icon and Authorization headers.
+     */
+    @Benchmark
+    public HttpRequest ntfyRequest() {
+        return ntfy.buildRequest(payload, ntfyBody);
+    }
+
+    private int encodeAndRelease(NotificationTarget target) {
+        RequestBody body = target.encodeBody(payload);
+        int length = body.length();
+        body.release();
+        return length;
+    }
+
+    private static String escapeJson(String text) {
+        if (text == null) return "";
+        return text
+                .replace("\\", "\\\\")
+                .replace("\"", "\\\"")
+                .replace("\n", "\\n")
+                .replace("\r", "\\r")
+                .replace("\t", "\\t");
+    }
+}
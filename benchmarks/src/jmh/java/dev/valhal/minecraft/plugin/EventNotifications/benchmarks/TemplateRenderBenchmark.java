@@ -0,0 +1,63 @@
+package dev.valhal.minecraft.plugin.EventNotifications.benchmarks;
+
+import dev.valhal.minecraft.plugin.EventNotifications.core.event.PlayerDeathEvent;
+import dev.valhal.minecraft.plugin.EventNotifications.core.template.CompiledTemplate;
+import dev.valhal.minecraft.plugin.EventNotifications.core.template.TemplateEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering a precompiled template against an event, as the service does for every notification.
+ * The map variant resolves the same placeholders from a map built per event, the way
+ * templates were rendered before events resolved their own placeholders.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TemplateRenderBenchmark {
+    private TemplateEngine engine;
+    private CompiledTemplate staticTemplate;
+    private CompiledTemplate shortTemplate;
+    private CompiledTemplate longTemplate;
+    private PlayerDeathEvent event;
+
+    @Setup
+    public void setUp() {
+        engine = new TemplateEngine("Benchmark Server");
+        staticTemplate = CompiledTemplate.compile("Server started");
+        shortTemplate = CompiledTemplate.compile("{{player_name}} died");
+        longTemplate = CompiledTemplate.compile(
+                "**{{player_name}}** ({{player_uuid}}) died on {{server_name}}: {{death_message}} {{unknown}}");
+        event = new PlayerDeathEvent(UUID.randomUUID(), "Steve", "Steve was slain by Zombie");
+    }
+
+    @Benchmark
+    public String renderStatic() {
+        return engine.render(staticTemplate, event);
+    }
+
+    @Benchmark
+    public String renderShort() {
+        return engine.render(shortTemplate, event);
+    }
+
+    @Benchmark
+    public String renderLong() {
+        return engine.render(longTemplate, event);
+    }
+
+    @Benchmark
+    public String renderLongFromMap() {
+        Map<String, String> placeholders = event.getPlaceholders();
+        return engine.render(longTemplate, placeholders);
+    }
+}
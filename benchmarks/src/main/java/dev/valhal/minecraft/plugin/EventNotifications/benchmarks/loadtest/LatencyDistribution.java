@@ -0,0 +1,59 @@
+package dev.valhal.minecraft.plugin.EventNotifications.benchmarks.loadtest;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * How long the stub server takes to answer a request.
+ * Written as {@code fixed:MS}, {@code uniform:MIN:MAX}, {@code exponential:MEAN} or
+ * {@code lognormal:MEDIAN:P99}, all in milliseconds. A bare number means fixed.
+ */
+@FunctionalInterface
+public interface LatencyDistribution {
+    // z-score of the 99th percentile of a standard normal distribution
+    double Z_99 = 2.3263;
+
+    LatencyDistribution NONE = () -> 0;
+
+    /**
+     * Draws the next delay in milliseconds.
+     */
+    long nextMillis();
+
+    static LatencyDistribution parse(String spec) {
+        String[] parts = spec.trim().split(":");
+        try {
+            return switch (parts[0]) {
+                case "fixed" -> fixed(Long.parseLong(parts[1]));
+                case "uniform" -> uniform(Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+                case "exponential" -> exponential(Double.parseDouble(parts[1]));
+                case "lognormal" -> logNormal(Double.parseDouble(parts[1]), Double.parseDouble(parts[2]));
+                default -> fixed(Long.parseLong(parts[0]));
+            };
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid latency distribution: " + spec
+                    + " (expected fixed:MS, uniform:MIN:MAX, exponential:MEAN or lognormal:MEDIAN:P99)");
+        }
+    }
+
+    static LatencyDistribution fixed(long millis) {
+        return millis <= 0 ? NONE : () -> millis;
+    }
+
+    static LatencyDistribution uniform(long minMillis, long maxMillis) {
+        return () -> ThreadLocalRandom.current().nextLong(minMillis, maxMillis + 1);
+    }
+
+    static LatencyDistribution exponential(double meanMillis) {
+        return () -> Math.round(-meanMillis * Math.log(1 - ThreadLocalRandom.current().nextDouble()));
+    }
+
+    /**
+     * A long-tailed distribution like real webhook endpoints have: most requests near the median,
+     * one in a hundred at p99 or slower.
+     */
+    static LatencyDistribution logNormal(double medianMillis, double p99Millis) {
+        double mu = Math.log(medianMillis);
+        double sigma = Math.log(p99Millis / medianMillis) / Z_99;
+        return () -> Math.round(Math.exp(mu + sigma * ThreadLocalRandom.current().nextGaussian()));
+    }
+}
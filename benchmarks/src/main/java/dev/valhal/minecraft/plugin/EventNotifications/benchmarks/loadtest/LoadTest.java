@@ -0,0 +1,428 @@
+package dev.valhal.minecraft.plugin.EventNotifications.benchmarks.loadtest;
+
+import dev.valhal.minecraft.plugin.EventNotifications.core.config.DeliveryConfig;
+import dev.valhal.minecraft.plugin.EventNotifications.core.config.GeneralConfig;
+import dev.valhal.minecraft.plugin.EventNotifications.core.config.PluginConfig;
+import dev.valhal.minecraft.plugin.EventNotifications.core.config.TargetConfig;
+import dev.valhal.minecraft.plugin.EventNotifications.core.config.TemplateLoader;
+import dev.valhal.minecraft.plugin.EventNotifications.core.delivery.CircuitBreakerPolicy;
+import dev.valhal.minecraft.plugin.EventNotifications.core.delivery.DeliveryDispatcher;
+import dev.valhal.minecraft.plugin.EventNotifications.core.delivery.DeliveryExecutor;
+import dev.valhal.minecraft.plugin.EventNotifications.core.delivery.OverflowPolicy;
+import dev.valhal.minecraft.plugin.EventNotifications.core.delivery.RetryPolicy;
+import dev.valhal.minecraft.plugin.EventNotifications.core.event.EventBus;
+import dev.valhal.minecraft.plugin.EventNotifications.core.event.GameEvent;
+import dev.valhal.minecraft.plugin.EventNotifications.core.event.GameEventType;
+import dev.valhal.minecraft.plugin.EventNotifications.core.event.PlayerAdvancementEvent;
+import dev.valhal.minecraft.plugin.EventNotifications.core.event.PlayerConnectEvent;
+import dev.valhal.minecraft.plugin.EventNotifications.core.event.PlayerDeathEvent;
+import dev.valhal.minecraft.plugin.EventNotifications.core.event.PlayerDisconnectEvent;
+import dev.valhal.minecraft.plugin.EventNotifications.core.metrics.LatencyHistogram;
+import dev.valhal.minecraft.plugin.EventNotifications.core.metrics.MetricsRegistry;
+import dev.valhal.minecraft.plugin.EventNotifications.core.metrics.TargetMetrics;
+import dev.valhal.minecraft.plugin.EventNotifications.core.notification.NotificationService;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * Drives a {@link NotificationService} with a steady stream of synthetic game events and
+ * reports throughput, end-to-end latency, drops and memory.
+ * <p>
+ * Events go through the {@link EventBus} like on a server, and every target posts to a local
+ * {@link StubWebhookServer}. Each event carries its publish time in the player name, so the
+ * stub can tell how long a notification took from publish to a successful response,
+ * including queueing, rate limits and retries.
+ * <p>
+ * Run with {@code ./gradlew -Pbenchmarks :benchmarks:loadTest -PloadTest.args="--rate=500 --duration=60"}.
+ */
+public final class LoadTest {
+    // Prefix of the player name that carries the publish time in nanoseconds
+    private static final String MARKER = "LT";
+    private static final long SAMPLE_INTERVAL_MS = 100;
+
+    private final LoadTestOptions options;
+    private final AtomicReference<LatencyHistogram> endToEnd = new AtomicReference<>(new LatencyHistogram());
+    private final AtomicLong published = new AtomicLong();
+    private volatile boolean publishing = true;
+    private long peakHeapBytes;
+
+    private StubWebhookServer server;
+    private EventBus eventBus;
+    private NotificationService service;
+
+    private LoadTest(LoadTestOptions options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options;
+        try {
+            if (List.of(args).contains("--help")) {
+                System.out.println(LoadTestOptions.USAGE);
+                return;
+            }
+            options = LoadTestOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(LoadTestOptions.USAGE);
+            System.exit(2);
+            return;
+        }
+        new LoadTest(options).run();
+        // The HTTP client and the delivery executor keep threads around for a while
+        System.exit(0);
+    }
+
+    private void run() throws Exception {
+        Path dataDir = Files.createTempDirectory("eventnotifications-loadtest");
+        server = StubWebhookServer.start(options.behavior(), this::onDelivered);
+        DeliveryExecutor executor = null;
+        try {
+            TemplateLoader templateLoader = new TemplateLoader(dataDir.resolve("templates"));
+            templateLoader.load();
+
+            PluginConfig config = createConfig();
+            executor = new DeliveryExecutor(config.delivery());
+            service = new NotificationService(config, templateLoader, dataDir, executor,
+                    message -> System.out.println("  [service] " + message));
+            eventBus = new EventBus(message -> System.out.println("  [events] " + message));
+            service.registerWithEventBus(eventBus);
+
+            printSettings(config);
+            Thread driver = Thread.ofPlatform().name("LoadTest-Driver").daemon().start(this::publishEvents);
+
+            long startNanos = System.nanoTime();
+            runPhase("warmup", startNanos, options.warmupSeconds());
+            endToEnd.set(new LatencyHistogram());
+            Counters before = Counters.read(this);
+
+            long measureStart = System.nanoTime();
+            runPhase("measure", measureStart, options.durationSeconds());
+            Counters measured = Counters.read(this);
+            double measuredSeconds = (System.nanoTime() - measureStart) / 1e9;
+
+            publishing = false;
+            driver.join();
+            boolean drained = drain();
+            Counters after = Counters.read(this);
+
+            printReport(before, measured, after, measuredSeconds, drained);
+        } finally {
+            if (eventBus != null) {
+                eventBus.close();
+            }
+            if (service != null) {
+                service.shutdown();
+            }
+            if (executor != null) {
+                executor.shutdown();
+            }
+            server.close();
+            deleteRecursively(dataDir);
+        }
+    }
+
+    private PluginConfig createConfig() {
+        List<TargetConfig> targets = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : options.targets().entrySet()) {
+            String type = entry.getKey();
+            for (int i = 1; i <= entry.getValue(); i++) {
+                String name = type + "_" + i;
+                Map<String, Object> properties = new HashMap<>();
+                switch (type) {
+                    case "discord", "slack" -> properties.put("webhook_url", server.url("/" + type + "/" + name));
+                    case "ntfy" -> {
+                        properties.put("server", server.url("/ntfy"));
+                        properties.put("topic", name);
+                    }
+                    default -> properties.put("url", server.url("/webhook/" + name));
+                }
+                if (!options.rateLimits()) {
+                    properties.put("rate_limit", 0);
+                }
+                if (options.batch()) {
+                    properties.put("batch", true);
+                }
+                targets.add(new TargetConfig(name, type, true, properties));
+            }
+        }
+
+        DeliveryConfig delivery = new DeliveryConfig(
+                options.queueCapacity(),
+                OverflowPolicy.DROP_OLDEST,
+                DeliveryConfig.DEFAULT_BLOCK_TIMEOUT_MS,
+                options.maxInFlight(),
+                options.virtualThreads(),
+                DeliveryConfig.DEFAULT_WORKER_THREADS,
+                options.rateLimits() ? DeliveryConfig.DEFAULT_EVENT_RATE_LIMIT : 0,
+                Map.of(),
+                RetryPolicy.defaults(),
+                CircuitBreakerPolicy.defaults(),
+                false,
+                DeliveryConfig.DEFAULT_SPOOL_MAX_SIZE_MB,
+                DeliveryConfig.DEFAULT_SPOOL_WRITE_DELAY_MS,
+                TimeUnit.SECONDS.toMillis(options.drainSeconds()),
+                DeliveryConfig.DEFAULT_ERROR_BODY_MAX_BYTES);
+        GeneralConfig general = new GeneralConfig("Load Test", false, "", false,
+                GeneralConfig.DEFAULT_METRICS_ADDRESS, GeneralConfig.DEFAULT_METRICS_PORT);
+        return new PluginConfig(general, delivery, targets);
+    }
+
+    /**
+     * Publishes events at the configured rate until told to stop. If the bus or the service
+     * holds the driver up, it catches up in a burst rather than lowering the rate.
+     */
+    private void publishEvents() {
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / options.eventsPerSecond());
+        UUID[] players = new UUID[16];
+        for (int i = 0; i < players.length; i++) {
+            players[i] = UUID.randomUUID();
+        }
+
+        long next = System.nanoTime();
+        long sequence = 0;
+        while (publishing) {
+            long wait = next - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+                continue;
+            }
+            eventBus.publish(createEvent(sequence, players[(int) (sequence % players.length)]));
+            published.incrementAndGet();
+            sequence++;
+            next += intervalNanos;
+        }
+    }
+
+    private static GameEvent createEvent(long sequence, UUID player) {
+        String name = MARKER + System.nanoTime();
+        return switch ((int) (sequence % 4)) {
+            case 0 -> new PlayerConnectEvent(player, name);
+            case 1 -> new PlayerDeathEvent(player, name, name + " was slain by Zombie");
+            case 2 -> new PlayerAdvancementEvent(player, name, "Monster Hunter", "Kill any hostile monster",
+                    name + " has made the advancement [Monster Hunter]");
+            default -> new PlayerDisconnectEvent(player, name);
+        };
+    }
+
+    /**
+     * Records the end-to-end latency of a notification the stub accepted.
+     */
+    private void onDelivered(String path, byte[] body) {
+        long publishedAt = findPublishTime(body);
+        if (publishedAt != 0) {
+            endToEnd.get().record(System.nanoTime() - publishedAt);
+        }
+    }
+
+    /**
+     * Finds the marker followed by digits in a request body and parses the digits.
+     *
+     * @return the publish time in nanoseconds, or 0 if the body has no marker
+     */
+    static long findPublishTime(byte[] body) {
+        for (int i = 0; i + MARKER.length() < body.length; i++) {
+            if (body[i] != MARKER.charAt(0) || body[i + 1] != MARKER.charAt(1)) {
+                continue;
+            }
+            int start = i + MARKER.length();
+            int end = start;
+            long value = 0;
+            while (end < body.length && body[end] >= '0' && body[end] <= '9' && end - start < 19) {
+                value = value * 10 + (body[end] - '0');
+                end++;
+            }
+            if (end > start) {
+                return value;
+            }
+        }
+        return 0;
+    }
+
+    private void runPhase(String phase, long phaseStart, int seconds) {
+        long end = phaseStart + TimeUnit.SECONDS.toNanos(seconds);
+        long nextReport = phaseStart + TimeUnit.SECONDS.toNanos(options.reportIntervalSeconds());
+        while (System.nanoTime() < end) {
+            sleepMillis(SAMPLE_INTERVAL_MS);
+            sampleHeap();
+            if (System.nanoTime() >= nextReport) {
+                printProgress(phase, phaseStart);
+                nextReport += TimeUnit.SECONDS.toNanos(options.reportIntervalSeconds());
+            }
+        }
+    }
+
+    /**
+     * Waits for every queued, in-flight, batched and retrying delivery to finish.
+     *
+     * @return false if some were still pending when the drain timeout ran out
+     */
+    private boolean drain() {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(options.drainSeconds());
+        DeliveryDispatcher dispatcher = service.getDispatcher();
+        while (System.nanoTime() < deadline) {
+            sampleHeap();
+            if (eventBus.getPendingCount() == 0 && dispatcher.getOutstandingCount() == 0) {
+                return true;
+            }
+            sleepMillis(SAMPLE_INTERVAL_MS);
+        }
+        return false;
+    }
+
+    private void sampleHeap() {
+        peakHeapBytes = Math.max(peakHeapBytes, ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed());
+    }
+
+    private void printSettings(PluginConfig config) {
+        StubWebhookServer.Behavior behavior = options.behavior();
+        System.out.printf(Locale.ROOT, "Load test: %.0f events/s to %d targets %s, %ds warmup + %ds measured%n",
+                options.eventsPerSecond(), config.targets().size(), options.targets(),
+                options.warmupSeconds(), options.durationSeconds());
+        System.out.printf(Locale.ROOT, "Stub: %.1f%% 429 (Retry-After %ds), %.1f%% resets, 503 bursts %s%n",
+                behavior.rateLimitedRatio() * 100, behavior.retryAfterSeconds(), behavior.resetRatio() * 100,
+                behavior.errorBurstEveryMs() > 0
+                        ? behavior.errorBurstMs() + "ms every " + behavior.errorBurstEveryMs() + "ms"
+                        : "off");
+        System.out.printf(Locale.ROOT, "Delivery: queue %d, max in flight %d, %s, rate limits %s, batching %s%n%n",
+                config.delivery().queueCapacity(), config.delivery().maxInFlight(),
+                options.virtualThreads() ? "virtual threads" : config.delivery().workerThreads() + " worker threads",
+                options.rateLimits() ? "on" : "off", options.batch() ? "on" : "off");
+    }
+
+    private void printProgress(String phase, long phaseStart) {
+        DeliveryDispatcher dispatcher = service.getDispatcher();
+        LatencyHistogram.Snapshot latency = endToEnd.get().snapshot();
+        System.out.printf(Locale.ROOT,
+                "[%s %3ds] published %d, delivered %d, queue %d, in flight %d, retrying %d, e2e p50 %s p99 %s, heap %s%n",
+                phase, TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - phaseStart), published.get(),
+                dispatcher.getDeliveredCount(), dispatcher.getQueueDepth(), dispatcher.getInFlight(),
+                dispatcher.getPendingRetries(), formatMicros(latency.p50Micros()), formatMicros(latency.p99Micros()),
+                formatBytes(ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed()));
+    }
+
+    private void printReport(Counters before, Counters measured, Counters after, double seconds, boolean drained) {
+        Counters window = measured.minus(before);
+        Counters total = after.minus(before);
+        LatencyHistogram.Snapshot latency = endToEnd.get().snapshot();
+
+        System.out.println();
+        System.out.println("Results (measured window, deliveries counted until drained)");
+        System.out.printf(Locale.ROOT, "  Events:      %d published (%.1f/s), %d captured, %d dropped by the event bus%n",
+                window.published, window.published / seconds, total.captured, total.busDropped);
+        System.out.printf(Locale.ROOT, "  Throughput:  %.1f deliveries/s during the window, %d delivered in total%n",
+                window.delivered / seconds, total.delivered);
+        System.out.printf(Locale.ROOT, "  End to end:  p50 %s, p90 %s, p99 %s, max %s over %d deliveries%n",
+                formatMicros(latency.p50Micros()), formatMicros(latency.p90Micros()),
+                formatMicros(latency.p99Micros()), formatMicros(latency.maxMicros()), latency.count());
+        System.out.printf(Locale.ROOT, "  Deliveries:  %d submitted, %d queue drops, %d failed, %d retried, %d short-circuited%n",
+                total.submitted, total.queueDropped, total.failed, total.retried, total.shortCircuited);
+        System.out.printf(Locale.ROOT, "  Stub:        %d requests, %d ok, %d rate limited, %d server errors, %d resets%n",
+                total.stubRequests, total.stubSucceeded, total.stubRateLimited, total.stubServerErrors, total.stubResets);
+        System.out.printf(Locale.ROOT, "  Memory:      peak heap %s, %d GCs taking %dms%n",
+                formatBytes(peakHeapBytes), total.gcCount, total.gcMillis);
+        if (!drained) {
+            System.out.println("  Drain timed out: deliveries were still pending, totals are incomplete");
+        }
+
+        System.out.println();
+        System.out.println("Per target (whole run, including warmup)");
+        for (Map.Entry<String, TargetMetrics> entry : service.getMetrics().getTargets().entrySet()) {
+            TargetMetrics target = entry.getValue();
+            LatencyHistogram.Snapshot request = target.getLatency().snapshot();
+            System.out.printf(Locale.ROOT, "  %-12s %7d requests, %7d delivered, %5d failed, %5d dropped, %5d rate limited, request p50 %s p99 %s%n",
+                    entry.getKey(), target.getRequestCount(), target.getDeliveredCount(), target.getFailedCount(),
+                    target.getDroppedCount(), target.getRateLimitedCount(),
+                    formatMicros(request.p50Micros()), formatMicros(request.p99Micros()));
+        }
+    }
+
+    private static String formatMicros(long micros) {
+        if (micros < 1000) {
+            return micros + "us";
+        }
+        if (micros < 10_000_000) {
+            return String.format(Locale.ROOT, "%.1fms", micros / 1000.0);
+        }
+        return String.format(Locale.ROOT, "%.1fs", micros / 1_000_000.0);
+    }
+
+    private static String formatBytes(long bytes) {
+        return String.format(Locale.ROOT, "%.1fMB", bytes / (1024.0 * 1024.0));
+    }
+
+    private static void sleepMillis(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    /**
+     * Cumulative counters at one point in time; subtracting two gives the counts in between.
+     */
+    private record Counters(
+            long published, long captured, long busDropped,
+            long submitted, long queueDropped, long delivered, long failed, long retried, long shortCircuited,
+            long stubRequests, long stubSucceeded, long stubRateLimited, long stubServerErrors, long stubResets,
+            long gcCount, long gcMillis
+    ) {
+        static Counters read(LoadTest test) {
+            MetricsRegistry metrics = test.service.getMetrics();
+            long captured = 0;
+            for (GameEventType type : GameEventType.values()) {
+                captured += metrics.getEventsCaptured(type);
+            }
+            long gcCount = 0;
+            long gcMillis = 0;
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                gcCount += Math.max(0, gc.getCollectionCount());
+                gcMillis += Math.max(0, gc.getCollectionTime());
+            }
+            DeliveryDispatcher dispatcher = test.service.getDispatcher();
+            StubWebhookServer server = test.server;
+            return new Counters(
+                    test.published.get(), captured, test.eventBus.getDroppedCount(),
+                    dispatcher.getSubmittedCount(), dispatcher.getDroppedCount(), dispatcher.getDeliveredCount(),
+                    dispatcher.getFailedCount(), dispatcher.getRetriedCount(), dispatcher.getShortCircuitedCount(),
+                    server.getRequestCount(), server.getSucceededCount(), server.getRateLimitedCount(),
+                    server.getServerErrorCount(), server.getResetCount(),
+                    gcCount, gcMillis);
+        }
+
+        Counters minus(Counters other) {
+            return new Counters(
+                    published - other.published, captured - other.captured, busDropped - other.busDropped,
+                    submitted - other.submitted, queueDropped - other.queueDropped, delivered - other.delivered,
+                    failed - other.failed, retried - other.retried, shortCircuited - other.shortCircuited,
+                    stubRequests - other.stubRequests, stubSucceeded - other.stubSucceeded,
+                    stubRateLimited - other.stubRateLimited, stubServerErrors - other.stubServerErrors,
+                    stubResets - other.stubResets, gcCount - other.gcCount, gcMillis - other.gcMillis);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package dev.valhal.minecraft.plugin.EventNotifications.benchmarks.loadtest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Settings of a load test run, read from {@code --key=value} arguments.
+ */
+public record LoadTestOptions(
+        int durationSeconds,
+        int warmupSeconds,
+        int drainSeconds,
+        int reportIntervalSeconds,
+        double eventsPerSecond,
+        Map<String, Integer> targets,
+        boolean rateLimits,
+        boolean batch,
+        int queueCapacity,
+        int maxInFlight,
+        boolean virtualThreads,
+        StubWebhookServer.Behavior behavior
+) {
+    public static final String USAGE = """
+            Options (all optional):
+              --duration=SECONDS        measured run time (default 30)
+              --warmup=SECONDS          run time before measuring starts (default 5)
+              --drain=SECONDS           how long to wait for queued deliveries at the end (default 30)
+              --report=SECONDS          progress line interval (default 5)
+              --rate=EVENTS_PER_SECOND  synthetic game events published per second (default 200)
+              --targets=TYPE:N,...      targets per type: discord, slack, ntfy, webhook (default one of each)
+              --rate-limits=BOOL        keep the per-target and per-event rate limits (default false)
+              --batch=BOOL              batch Discord and Slack deliveries (default false)
+              --queue=N                 delivery queue capacity (default 1024)
+              --max-in-flight=N         concurrent requests (default 16)
+              --virtual-threads=BOOL    deliver on virtual threads (default true)
+              --latency=SPEC            stub response time: fixed:MS, uniform:MIN:MAX, exponential:MEAN
+                                        or lognormal:MEDIAN:P99 (default lognormal:50:400)
+              --rate-limited=RATIO      share of requests answered with 429 (default 0.01)
+              --retry-after=SECONDS     Retry-After sent with 429s (default 1)
+              --error-burst=EVERY:LEN   a burst of 503s lasting LEN ms every EVERY ms (default none)
+              --reset=RATIO             share of requests whose connection is dropped (default 0)
+            """;
+
+    public static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + arg);
+            }
+            int equals = arg.indexOf('=');
+            values.put(equals < 0 ? arg.substring(2) : arg.substring(2, equals),
+                    equals < 0 ? "true" : arg.substring(equals + 1));
+        }
+
+        long errorBurstEveryMs = 0;
+        long errorBurstMs = 0;
+        String errorBurst = remove(values, "error-burst", "");
+        if (!errorBurst.isEmpty()) {
+            String[] parts = errorBurst.split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid --error-burst, expected EVERY:LENGTH in milliseconds");
+            }
+            errorBurstEveryMs = Long.parseLong(parts[0]);
+            errorBurstMs = Long.parseLong(parts[1]);
+        }
+
+        StubWebhookServer.Behavior behavior = new StubWebhookServer.Behavior(
+                LatencyDistribution.parse(remove(values, "latency", "lognormal:50:400")),
+                Double.parseDouble(remove(values, "rate-limited", "0.01")),
+                Integer.parseInt(remove(values, "retry-after", "1")),
+                errorBurstEveryMs,
+                errorBurstMs,
+                Double.parseDouble(remove(values, "reset", "0")));
+
+        LoadTestOptions options = new LoadTestOptions(
+                Integer.parseInt(remove(values, "duration", "30")),
+                Integer.parseInt(remove(values, "warmup", "5")),
+                Integer.parseInt(remove(values, "drain", "30")),
+                Math.max(1, Integer.parseInt(remove(values, "report", "5"))),
+                Double.parseDouble(remove(values, "rate", "200")),
+                parseTargets(remove(values, "targets", "discord:1,slack:1,ntfy:1,webhook:1")),
+                Boolean.parseBoolean(remove(values, "rate-limits", "false")),
+                Boolean.parseBoolean(remove(values, "batch", "false")),
+                Integer.parseInt(remove(values, "queue", "1024")),
+                Integer.parseInt(remove(values, "max-in-flight", "16")),
+                Boolean.parseBoolean(remove(values, "virtual-threads", "true")),
+                behavior);
+
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown option: --" + values.keySet().iterator().next());
+        }
+        return options;
+    }
+
+    private static String remove(Map<String, String> values, String key, String defaultValue) {
+        String value = values.remove(key);
+        return value != null ? value : defaultValue;
+    }
+
+    private static Map<String, Integer> parseTargets(String spec) {
+        Map<String, Integer> targets = new LinkedHashMap<>();
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.trim().split(":");
+            String type = parts[0];
+            if (!type.equals("discord") && !type.equals("slack") && !type.equals("ntfy") && !type.equals("webhook")) {
+                throw new IllegalArgumentException("Unknown target type: " + type);
+            }
+            targets.merge(type, parts.length > 1 ? Integer.parseInt(parts[1]) : 1, Integer::sum);
+        }
+        return targets;
+    }
+}
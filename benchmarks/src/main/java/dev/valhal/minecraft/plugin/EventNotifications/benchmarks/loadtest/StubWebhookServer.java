@@ -0,0 +1,219 @@
+package dev.valhal.minecraft.plugin.EventNotifications.benchmarks.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Local HTTP server standing in for Discord, Slack, ntfy and generic webhooks, so delivery
+ * can be measured offline and repeatably. Requests under {@code /discord}, {@code /slack} and
+ * {@code /ntfy} get the status codes and bodies those services answer with; anything else is
+ * treated as a generic webhook.
+ * <p>
+ * A {@link Behavior} adds response latency, 429s with Retry-After, periodic bursts of 503s and
+ * dropped connections. Each request runs on its own virtual thread, so slow responses do not
+ * hold up others.
+ */
+public final class StubWebhookServer implements AutoCloseable {
+    /**
+     * How the stub misbehaves.
+     *
+     * @param latency           time taken before answering
+     * @param rateLimitedRatio  share of requests answered with 429, from 0 to 1
+     * @param retryAfterSeconds Retry-After sent with 429 responses
+     * @param errorBurstEveryMs how often a burst of 503s starts, 0 for never
+     * @param errorBurstMs      how long each burst lasts
+     * @param resetRatio        share of requests whose connection is closed without an answer
+     */
+    public record Behavior(
+            LatencyDistribution latency,
+            double rateLimitedRatio,
+            int retryAfterSeconds,
+            long errorBurstEveryMs,
+            long errorBurstMs,
+            double resetRatio
+    ) {
+        public static Behavior healthy() {
+            return new Behavior(LatencyDistribution.NONE, 0, 1, 0, 0, 0);
+        }
+    }
+
+    /**
+     * Receives the body of every request that was answered with success.
+     */
+    @FunctionalInterface
+    public interface DeliveryListener {
+        void onDelivered(String path, byte[] body);
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Behavior behavior;
+    private final DeliveryListener listener;
+    private final long startNanos = System.nanoTime();
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder rateLimited = new LongAdder();
+    private final LongAdder serverErrors = new LongAdder();
+    private final LongAdder resets = new LongAdder();
+
+    private StubWebhookServer(Behavior behavior, DeliveryListener listener) throws IOException {
+        this.behavior = behavior;
+        this.listener = listener;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    /**
+     * Starts a server that answers every request with success right away.
+     */
+    public static StubWebhookServer start() throws IOException {
+        return start(Behavior.healthy(), null);
+    }
+
+    /**
+     * Starts a server on a free loopback port.
+     *
+     * @param listener called for each successful request, or null
+     */
+    public static StubWebhookServer start(Behavior behavior, DeliveryListener listener) throws IOException {
+        return new StubWebhookServer(behavior, listener);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            requests.increment();
+            byte[] body;
+            try (InputStream in = exchange.getRequestBody()) {
+                body = in.readAllBytes();
+            }
+
+            long delay = behavior.latency().nextMillis();
+            if (delay > 0) {
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            String path = exchange.getRequestURI().getPath();
+            if (random.nextDouble() < behavior.resetRatio()) {
+                // Closing the exchange without a response drops the connection
+                resets.increment();
+                return;
+            }
+            if (inErrorBurst()) {
+                serverErrors.increment();
+                respond(exchange, 503, "text/plain", "Service Unavailable");
+                return;
+            }
+            if (random.nextDouble() < behavior.rateLimitedRatio()) {
+                rateLimited.increment();
+                exchange.getResponseHeaders().set("Retry-After", String.valueOf(behavior.retryAfterSeconds()));
+                respondRateLimited(exchange, path);
+                return;
+            }
+
+            succeeded.increment();
+            if (listener != null) {
+                listener.onDelivered(path, body);
+            }
+            respondSuccess(exchange, path);
+        }
+    }
+
+    private boolean inErrorBurst() {
+        if (behavior.errorBurstEveryMs() <= 0) {
+            return false;
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        return elapsedMs % behavior.errorBurstEveryMs() < behavior.errorBurstMs();
+    }
+
+    private static void respondSuccess(HttpExchange exchange, String path) throws IOException {
+        if (path.startsWith("/discord")) {
+            exchange.sendResponseHeaders(204, -1);
+        } else if (path.startsWith("/slack")) {
+            respond(exchange, 200, "text/plain", "ok");
+        } else if (path.startsWith("/ntfy")) {
+            respond(exchange, 200, "application/json", "{\"id\":\"stub\",\"time\":"
+                    + System.currentTimeMillis() / 1000 + ",\"event\":\"message\"}");
+        } else {
+            respond(exchange, 200, "application/json", "{}");
+        }
+    }
+
+    private void respondRateLimited(HttpExchange exchange, String path) throws IOException {
+        if (path.startsWith("/discord")) {
+            respond(exchange, 429, "application/json", "{\"message\":\"You are being rate limited.\",\"retry_after\":"
+                    + behavior.retryAfterSeconds() + ",\"global\":false}");
+        } else if (path.startsWith("/slack")) {
+            respond(exchange, 429, "text/plain", "rate_limited");
+        } else if (path.startsWith("/ntfy")) {
+            respond(exchange, 429, "application/json",
+                    "{\"code\":42901,\"http\":429,\"error\":\"limit reached: too many requests\"}");
+        } else {
+            respond(exchange, 429, "text/plain", "Too Many Requests");
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * URL of a path on this server, e.g. {@code url("/discord/main")}.
+     */
+    public String url(String path) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+    }
+
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    public long getSucceededCount() {
+        return succeeded.sum();
+    }
+
+    public long getRateLimitedCount() {
+        return rateLimited.sum();
+    }
+
+    public long getServerErrorCount() {
+        return serverErrors.sum();
+    }
+
+    public long getResetCount() {
+        return resets.sum();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -5,4 +5,12 @@ plugins {
 dependencies {
     implementation(libs.configurate.yaml)
     implementation(libs.configurate.core)
+
+    testImplementation(platform(libs.junit.bom))
+    testImplementation(libs.junit.jupiter)
+    testRuntimeOnly(libs.junit.platform.launcher)
+}
+
+tasks.test {
+    useJUnitPlatform()
 }
@@ -3,10 +3,18 @@ package dev.valhal.minecraft.plugin.EventNotifications.core.command;
 import dev.valhal.minecraft.plugin.EventNotifications.core.config.ConfigManager;
 import dev.valhal.minecraft.plugin.EventNotifications.core.config.PluginConfig;
 import dev.valhal.minecraft.plugin.EventNotifications.core.config.TargetConfig;
+import dev.valhal.minecraft.plugin.EventNotifications.core.delivery.DeliveryDispatcher;
+import dev.valhal.minecraft.plugin.EventNotifications.core.event.GameEventType;
+import dev.valhal.minecraft.plugin.EventNotifications.core.metrics.LatencyHistogram;
+import dev.valhal.minecraft.plugin.EventNotifications.core.metrics.MetricsRegistry;
+import dev.valhal.minecraft.plugin.EventNotifications.core.metrics.TargetMetrics;
 import dev.valhal.minecraft.plugin.EventNotifications.core.notification.NotificationService;
+import dev.valhal.minecraft.plugin.EventNotifications.core.notification.NotificationTarget;
 
 import java.io.IOException;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
@@ -97,7 +105,15 @@ public class CommandHandler {
             return CommandResult.success("No notification targets configured.");
         }
 
-        return CommandResult.targetList(config.targets());
+        Map<String, String> circuitStates = new HashMap<>();
+        for (NotificationTarget target : notificationService.getTargets()) {
+            String state = notificationService.getDispatcher().getCircuitState(target.getName());
+            if (state != null) {
+                circuitStates.put(target.getName(), state);
+            }
+        }
+
+        return CommandResult.targetList(config.targets(), circuitStates);
     }
 
     /**
@@ -109,7 +125,103 @@ public class CommandHandler {
             return CommandResult.error("Target not found: " + targetName);
         }
 
-        return CommandResult.targetInfo(target.get());
+        String circuit = notificationService.getTarget(targetName)
+                .map(t -> notificationService.getDispatcher().describeCircuit(t.getName()))
+                .orElse(null);
+
+        return CommandResult.targetInfo(target.get(), circuit);
+    }
+
+    /**
+     * /eventnotify stats [name] - Show delivery metrics, overall or for one target.
+     */
+    public CommandResult stats(String targetName) {
+        MetricsRegistry metrics = notificationService.getMetrics();
+        DeliveryDispatcher dispatcher = notificationService.getDispatcher();
+
+        if (targetName != null) {
+            Optional<NotificationTarget> target = notificationService.getTarget(targetName);
+            if (target.isEmpty()) {
+                return CommandResult.error("Target not found: " + targetName);
+            }
+            String name = target.get().getName();
+            TargetMetrics targetMetrics = metrics.target(name);
+            LatencyHistogram.Snapshot latency = targetMetrics.getLatency().snapshot();
+            String circuit = dispatcher.describeCircuit(name);
+
+            StringBuilder text = new StringBuilder("Stats for " + name + ":");
+            text.append("\n  Delivered: ").append(targetMetrics.getDeliveredCount())
+                    .append(", failed: ").append(targetMetrics.getFailedCount())
+                    .append(", dropped: ").append(targetMetrics.getDroppedCount());
+            text.append("\n  Requests: ").append(targetMetrics.getRequestCount())
+                    .append(", in flight: ").append(targetMetrics.getInFlight());
+            text.append("\n  Latency: ").append(formatLatency(latency));
+            if (latency.count() > 0) {
+                text.append(", p90 ").append(formatMicros(latency.p90Micros()));
+            }
+            if (circuit != null) {
+                text.append("\n  Circuit: ").append(circuit);
+            }
+            return CommandResult.success(text.toString());
+        }
+
+        StringBuilder text = new StringBuilder("EventNotifications stats (since ")
+                .append(formatMicros((System.currentTimeMillis() - metrics.getStartedAtMillis()) * 1000))
+                .append(" ago):");
+
+        StringBuilder events = new StringBuilder();
+        for (GameEventType type : GameEventType.values()) {
+            long captured = metrics.getEventsCaptured(type);
+            if (captured > 0) {
+                events.append(events.isEmpty() ? "" : ", ").append(type.getConfigKey()).append(" ").append(captured);
+            }
+        }
+        text.append("\n  Events: ").append(events.isEmpty() ? "none" : events);
+        text.append("\n  Payloads rendered: ").append(metrics.getPayloadsRendered());
+        text.append("\n  Queue: ").append(dispatcher.getQueueDepth()).append("/").append(dispatcher.getQueueCapacity())
+                .append(", in flight: ").append(dispatcher.getInFlight()).append("/").append(dispatcher.getMaxInFlight())
+                .append(", retrying: ").append(dispatcher.getPendingRetries());
+        text.append("\n  Delivered: ").append(dispatcher.getDeliveredCount())
+                .append(", failed: ").append(dispatcher.getFailedCount())
+                .append(", dropped: ").append(dispatcher.getDroppedCount());
+
+        Map<String, TargetMetrics> targets = metrics.getTargets();
+        if (!targets.isEmpty()) {
+            text.append("\n  Targets:");
+            for (Map.Entry<String, TargetMetrics> entry : targets.entrySet()) {
+                TargetMetrics targetMetrics = entry.getValue();
+                text.append("\n    ").append(entry.getKey()).append(": ")
+                        .append(targetMetrics.getDeliveredCount()).append(" sent, ")
+                        .append(targetMetrics.getFailedCount()).append(" failed, ")
+                        .append(targetMetrics.getDroppedCount()).append(" dropped, ")
+                        .append(targetMetrics.getRateLimitedCount()).append(" rate limited, ")
+                        .append(targetMetrics.getInFlight()).append(" in flight, ")
+                        .append(formatLatency(targetMetrics.getLatency().snapshot()));
+            }
+        }
+        return CommandResult.success(text.toString());
+    }
+
+    private static String formatLatency(LatencyHistogram.Snapshot latency) {
+        if (latency.count() == 0) {
+            return "no requests yet";
+        }
+        return "p50 " + formatMicros(latency.p50Micros())
+                + ", p99 " + formatMicros(latency.p99Micros())
+                + ", max " + formatMicros(latency.maxMicros());
+    }
+
+    private static String formatMicros(long micros) {
+        if (micros < 1000) {
+            return micros + "us";
+        }
+        if (micros < 10_000_000) {
+            return (micros / 1000) + "ms";
+        }
+        if (micros < 3_600_000_000L) {
+            return (micros / 1_000_000) + "s";
+        }
+        return (micros / 3_600_000_000L) + "h";
     }
 
     /**
@@ -213,6 +325,7 @@ public class CommandHandler {
             /eventnotifications reload - Reload configuration
             /eventnotifications list - List all targets
             /eventnotifications info <name> - Show target details
+            /eventnotifications stats [name] - Show delivery stats
             /eventnotifications enable <name> - Enable a target
             /eventnotifications disable <name> - Disable a target
             /eventnotifications set <name> <property> <value> - Set a property
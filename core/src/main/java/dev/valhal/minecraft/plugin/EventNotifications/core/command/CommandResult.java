@@ -23,19 +23,22 @@ public sealed interface CommandResult {
 
     /**
      * Result containing a list of targets with their status.
+     * circuitState is the circuit breaker state ("closed", "open" or "half-open"), or null if circuit breakers are disabled.
      */
     record TargetList(List<TargetSummary> targets) implements CommandResult {
-        public record TargetSummary(String name, String type, boolean enabled) {}
+        public record TargetSummary(String name, String type, boolean enabled, String circuitState) {}
     }
 
     /**
      * Result containing detailed information about a single target.
+     * circuit describes the circuit breaker, or is null if circuit breakers are disabled.
      */
     record TargetInfo(
             String name,
             String type,
             boolean enabled,
-            Map<String, String> properties
+            Map<String, String> properties,
+            String circuit
     ) implements CommandResult {}
 
     /**
@@ -52,19 +55,19 @@ public sealed interface CommandResult {
         return new Error(message);
     }
 
-    static TargetList targetList(List<TargetConfig> configs) {
+    static TargetList targetList(List<TargetConfig> configs, Map<String, String> circuitStates) {
         List<TargetList.TargetSummary> summaries = configs.stream()
-                .map(c -> new TargetList.TargetSummary(c.name(), c.type(), c.enabled()))
+                .map(c -> new TargetList.TargetSummary(c.name(), c.type(), c.enabled(), circuitStates.get(c.name())))
                 .toList();
         return new TargetList(summaries);
     }
 
-    static TargetInfo targetInfo(TargetConfig config) {
+    static TargetInfo targetInfo(TargetConfig config, String circuit) {
         Map<String, String> props = new java.util.LinkedHashMap<>();
         for (Map.Entry<String, Object> entry : config.properties().entrySet()) {
             props.put(entry.getKey(), String.valueOf(entry.getValue()));
         }
-        return new TargetInfo(config.name(), config.type(), config.enabled(), props);
+        return new TargetInfo(config.name(), config.type(), config.enabled(), props, circuit);
     }
 
     static MessageSent messageSent(String targetName, boolean success, String resultMessage) {
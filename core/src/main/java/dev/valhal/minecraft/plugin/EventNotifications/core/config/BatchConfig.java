@@ -0,0 +1,30 @@
+package dev.valhal.minecraft.plugin.EventNotifications.core.config;
+
+/**
+ * Batching settings for targets that can pack several notifications into one request.
+ */
+public record BatchConfig(
+        boolean enabled,
+        int maxSize,
+        long lingerMs
+) {
+    public static final long DEFAULT_LINGER_MS = 1000;
+
+    public static BatchConfig disabled() {
+        return new BatchConfig(false, 1, 0);
+    }
+
+    /**
+     * Reads batch, batch_max_size and batch_linger_ms from a target config.
+     *
+     * @param maxSizeLimit The most notifications the service accepts in a single request
+     */
+    public static BatchConfig fromConfig(TargetConfig config, int maxSizeLimit) {
+        if (!config.getBoolean("batch", false)) {
+            return disabled();
+        }
+        int maxSize = Math.max(1, Math.min(maxSizeLimit, config.getInt("batch_max_size", maxSizeLimit)));
+        long lingerMs = Math.max(0, config.getInt("batch_linger_ms", (int) DEFAULT_LINGER_MS));
+        return new BatchConfig(true, maxSize, lingerMs);
+    }
+}
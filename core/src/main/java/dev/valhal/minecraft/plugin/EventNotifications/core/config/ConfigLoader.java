@@ -1,5 +1,9 @@
 package dev.valhal.minecraft.plugin.EventNotifications.core.config;
 
+import dev.valhal.minecraft.plugin.EventNotifications.core.delivery.CircuitBreakerPolicy;
+import dev.valhal.minecraft.plugin.EventNotifications.core.delivery.OverflowPolicy;
+import dev.valhal.minecraft.plugin.EventNotifications.core.delivery.RetryPolicy;
+import dev.valhal.minecraft.plugin.EventNotifications.core.event.GameEventType;
 import org.spongepowered.configurate.ConfigurationNode;
 import org.spongepowered.configurate.yaml.NodeStyle;
 import org.spongepowered.configurate.yaml.YamlConfigurationLoader;
@@ -36,16 +40,64 @@ public class ConfigLoader {
 
         // Load general settings
         GeneralConfig general = loadGeneralConfig(root.node("general"));
+        DeliveryConfig delivery = loadDeliveryConfig(root.node("delivery"));
         List<TargetConfig> targets = loadTargets(root.node("targets"));
 
-        return new PluginConfig(general, targets);
+        return new PluginConfig(general, delivery, targets);
     }
 
     private GeneralConfig loadGeneralConfig(ConfigurationNode node) {
         String serverName = node.node("server_name").getString("");
         boolean commandsEnabled = node.node("commands_enabled").getBoolean(true);
         String commandAlias = node.node("command_alias").getString("en");
-        return new GeneralConfig(serverName, commandsEnabled, commandAlias);
+        boolean metricsEnabled = node.node("metrics_enabled").getBoolean(false);
+        String metricsAddress = node.node("metrics_address").getString(GeneralConfig.DEFAULT_METRICS_ADDRESS);
+        int metricsPort = node.node("metrics_port").getInt(GeneralConfig.DEFAULT_METRICS_PORT);
+        return new GeneralConfig(serverName, commandsEnabled, commandAlias, metricsEnabled, metricsAddress, metricsPort);
+    }
+
+    private DeliveryConfig loadDeliveryConfig(ConfigurationNode node) {
+        int queueCapacity = node.node("queue_capacity").getInt(DeliveryConfig.DEFAULT_QUEUE_CAPACITY);
+        OverflowPolicy overflowPolicy = OverflowPolicy.fromString(node.node("overflow_policy").getString());
+        long blockTimeoutMs = node.node("block_timeout_ms").getLong(DeliveryConfig.DEFAULT_BLOCK_TIMEOUT_MS);
+        int maxInFlight = node.node("max_in_flight").getInt(DeliveryConfig.DEFAULT_MAX_IN_FLIGHT);
+        boolean virtualThreads = node.node("virtual_threads").getBoolean(true);
+        int workerThreads = node.node("worker_threads").getInt(DeliveryConfig.DEFAULT_WORKER_THREADS);
+        int eventRateLimit = node.node("event_rate_limit").getInt(DeliveryConfig.DEFAULT_EVENT_RATE_LIMIT);
+
+        // Per event type overrides, keyed by the same names as the templates
+        Map<GameEventType, Integer> eventRateLimits = new EnumMap<>(GameEventType.class);
+        ConfigurationNode limitsNode = node.node("event_rate_limits");
+        for (GameEventType type : GameEventType.values()) {
+            ConfigurationNode limitNode = limitsNode.node(type.getConfigKey());
+            if (!limitNode.virtual()) {
+                eventRateLimits.put(type, limitNode.getInt(eventRateLimit));
+            }
+        }
+
+        RetryPolicy retry = new RetryPolicy(
+                Math.max(1, node.node("retry_max_attempts").getInt(RetryPolicy.DEFAULT_MAX_ATTEMPTS)),
+                node.node("retry_base_delay_ms").getLong(RetryPolicy.DEFAULT_BASE_DELAY_MS),
+                node.node("retry_max_delay_ms").getLong(RetryPolicy.DEFAULT_MAX_DELAY_MS),
+                node.node("retry_jitter").getDouble(RetryPolicy.DEFAULT_JITTER)
+        );
+
+        CircuitBreakerPolicy circuitBreaker = new CircuitBreakerPolicy(
+                node.node("circuit_breaker_enabled").getBoolean(true),
+                Math.max(1, node.node("circuit_breaker_window").getInt(CircuitBreakerPolicy.DEFAULT_WINDOW_SIZE)),
+                node.node("circuit_breaker_failure_rate").getInt(CircuitBreakerPolicy.DEFAULT_FAILURE_RATE_PERCENT),
+                node.node("circuit_breaker_slow_call_ms").getLong(CircuitBreakerPolicy.DEFAULT_SLOW_CALL_MS),
+                node.node("circuit_breaker_slow_call_rate").getInt(CircuitBreakerPolicy.DEFAULT_SLOW_CALL_RATE_PERCENT),
+                Math.max(0, node.node("circuit_breaker_open_ms").getLong(CircuitBreakerPolicy.DEFAULT_OPEN_MS))
+        );
+
+        return new DeliveryConfig(Math.max(1, queueCapacity), overflowPolicy, blockTimeoutMs, maxInFlight,
+                virtualThreads, Math.max(1, workerThreads), eventRateLimit, eventRateLimits, retry, circuitBreaker,
+                node.node("spool_enabled").getBoolean(true),
+                node.node("spool_max_size_mb").getInt(DeliveryConfig.DEFAULT_SPOOL_MAX_SIZE_MB),
+                Math.max(0, node.node("spool_write_delay_ms").getLong(DeliveryConfig.DEFAULT_SPOOL_WRITE_DELAY_MS)),
+                Math.max(0, node.node("shutdown_timeout_ms").getLong(DeliveryConfig.DEFAULT_SHUTDOWN_TIMEOUT_MS)),
+                Math.max(0, node.node("error_body_max_bytes").getInt(DeliveryConfig.DEFAULT_ERROR_BODY_MAX_BYTES)));
     }
 
     /**
@@ -63,6 +115,9 @@ public class ConfigLoader {
         generalDefaults.put("server_name", "");
         generalDefaults.put("commands_enabled", true);
         generalDefaults.put("command_alias", "notify");
+        generalDefaults.put("metrics_enabled", false);
+        generalDefaults.put("metrics_address", GeneralConfig.DEFAULT_METRICS_ADDRESS);
+        generalDefaults.put("metrics_port", GeneralConfig.DEFAULT_METRICS_PORT);
 
         for (Map.Entry<String, Object> entry : generalDefaults.entrySet()) {
             ConfigurationNode node = generalNode.node(entry.getKey());
@@ -72,10 +127,47 @@ public class ConfigLoader {
             }
         }
 
+        ConfigurationNode deliveryNode = root.node("delivery");
+
+        Map<String, Object> deliveryDefaults = new LinkedHashMap<>();
+        DeliveryConfig delivery = DeliveryConfig.defaults();
+        deliveryDefaults.put("queue_capacity", delivery.queueCapacity());
+        deliveryDefaults.put("overflow_policy", delivery.overflowPolicy().getConfigKey());
+        deliveryDefaults.put("block_timeout_ms", delivery.blockTimeoutMs());
+        deliveryDefaults.put("max_in_flight", delivery.maxInFlight());
+        deliveryDefaults.put("virtual_threads", delivery.virtualThreads());
+        deliveryDefaults.put("worker_threads", delivery.workerThreads());
+        deliveryDefaults.put("event_rate_limit", delivery.eventRateLimit());
+        deliveryDefaults.put("event_rate_limits", Map.of());
+        deliveryDefaults.put("retry_max_attempts", delivery.retry().maxAttempts());
+        deliveryDefaults.put("retry_base_delay_ms", delivery.retry().baseDelayMs());
+        deliveryDefaults.put("retry_max_delay_ms", delivery.retry().maxDelayMs());
+        deliveryDefaults.put("retry_jitter", delivery.retry().jitter());
+        deliveryDefaults.put("circuit_breaker_enabled", delivery.circuitBreaker().enabled());
+        deliveryDefaults.put("circuit_breaker_window", delivery.circuitBreaker().windowSize());
+        deliveryDefaults.put("circuit_breaker_failure_rate", delivery.circuitBreaker().failureRatePercent());
+        deliveryDefaults.put("circuit_breaker_slow_call_ms", delivery.circuitBreaker().slowCallMs());
+        deliveryDefaults.put("circuit_breaker_slow_call_rate", delivery.circuitBreaker().slowCallRatePercent());
+        deliveryDefaults.put("circuit_breaker_open_ms", delivery.circuitBreaker().openMs());
+        deliveryDefaults.put("spool_enabled", delivery.spoolEnabled());
+        deliveryDefaults.put("spool_max_size_mb", delivery.spoolMaxSizeMb());
+        deliveryDefaults.put("spool_write_delay_ms", delivery.spoolWriteDelayMs());
+        deliveryDefaults.put("shutdown_timeout_ms", delivery.shutdownTimeoutMs());
+        deliveryDefaults.put("error_body_max_bytes", delivery.errorBodyMaxBytes());
+
+        for (Map.Entry<String, Object> entry : deliveryDefaults.entrySet()) {
+            ConfigurationNode node = deliveryNode.node(entry.getKey());
+            if (node.virtual()) {
+                node.set(entry.getValue());
+                updated = true;
+            }
+        }
+
         if (updated) {
-            // Rebuild root with correct order: general first, then targets
+            // Rebuild root with correct order: general first, then delivery, then targets
             ConfigurationNode newRoot = loader.createNode();
             newRoot.node("general").set(root.node("general"));
+            newRoot.node("delivery").set(root.node("delivery"));
             newRoot.node("targets").set(root.node("targets"));
             loader.save(newRoot);
         }
@@ -133,6 +225,67 @@ public class ConfigLoader {
                   commands_enabled: true
                   # Command alias (e.g., "en" creates /en as shortcut, empty string to disable)
                   command_alias: "en"
+                  # Serve delivery metrics in Prometheus text format at http://<address>:<port>/metrics
+                  metrics_enabled: false
+                  # Address the metrics endpoint listens on (keep it local unless it is firewalled)
+                  metrics_address: "127.0.0.1"
+                  metrics_port: 9464
+
+                # Outbound delivery queue
+                delivery:
+                  # Maximum number of notifications waiting to be sent
+                  queue_capacity: 1024
+                  # What to do when the queue is full: drop_oldest, drop_newest or block
+                  overflow_policy: "drop_oldest"
+                  # How long "block" waits for free space before dropping (milliseconds)
+                  block_timeout_ms: 50
+                  # Maximum number of requests being sent at the same time
+                  max_in_flight: 16
+                  # Run deliveries on virtual threads, so slow endpoints never hold a server thread
+                  virtual_threads: true
+                  # Size of the worker pool when virtual_threads is false
+                  worker_threads: 2
+                  # Notifications per minute for each event type (0 = unlimited)
+                  event_rate_limit: 30
+                  # Per event type overrides, e.g. player_death: 10
+                  event_rate_limits: {}
+                  # Attempts per notification, including the first (1 = never retry)
+                  # Only 429, 5xx, timeouts and refused connections are retried
+                  retry_max_attempts: 5
+                  # Backoff before the first retry, doubled for each further retry (milliseconds)
+                  retry_base_delay_ms: 1000
+                  # Longest backoff between two attempts (milliseconds)
+                  retry_max_delay_ms: 60000
+                  # Fraction of each backoff randomly taken off to spread retries (0.0 - 1.0)
+                  # A Retry-After header from the server replaces the backoff
+                  retry_jitter: 0.5
+                  # Stop sending to a target that keeps failing, and probe it again after a pause
+                  circuit_breaker_enabled: true
+                  # Number of recent requests per target the breaker looks at
+                  circuit_breaker_window: 20
+                  # Open when this percentage of recent requests failed
+                  circuit_breaker_failure_rate: 50
+                  # Requests taking this long count as slow (milliseconds)
+                  circuit_breaker_slow_call_ms: 10000
+                  # Open when this percentage of recent requests were slow
+                  circuit_breaker_slow_call_rate: 80
+                  # How long an open breaker refuses requests before probing (milliseconds)
+                  # Refused notifications wait in the spool, or fail right away without it
+                  circuit_breaker_open_ms: 30000
+                  # Keep undelivered notifications on disk (in the spool folder) so they are sent
+                  # after a restart or crash
+                  spool_enabled: true
+                  # Maximum disk space for the spool; the oldest notifications are dropped beyond it
+                  spool_max_size_mb: 16
+                  # Notifications still unsent after this long are written to the spool (milliseconds)
+                  # Most are sent sooner and never touch the disk, but a crash loses the ones
+                  # younger than this; a clean shutdown writes everything still pending
+                  spool_write_delay_ms: 1000
+                  # How long shutdown waits for outstanding notifications, urgent ones first (milliseconds)
+                  shutdown_timeout_ms: 5000
+                  # How much of an error response to keep for the log (bytes, 0 = status only)
+                  # Successful responses are never read
+                  error_body_max_bytes: 1024
 
                 # Notification targets
                 # Uncomment and configure the targets you want to use
@@ -173,6 +326,9 @@ public class ConfigLoader {
         // Save general section
         saveGeneralConfig(root.node("general"), config.general());
 
+        // Save delivery section
+        saveDeliveryConfig(root.node("delivery"), config.delivery());
+
         // Save targets
         ConfigurationNode targetsNode = root.node("targets");
         for (TargetConfig target : config.targets()) {
@@ -192,5 +348,38 @@ public class ConfigLoader {
         node.node("server_name").set(general.serverName());
         node.node("commands_enabled").set(general.commandsEnabled());
         node.node("command_alias").set(general.commandAlias());
+        node.node("metrics_enabled").set(general.metricsEnabled());
+        node.node("metrics_address").set(general.metricsAddress());
+        node.node("metrics_port").set(general.metricsPort());
+    }
+
+    private void saveDeliveryConfig(ConfigurationNode node, DeliveryConfig delivery) throws IOException {
+        node.node("queue_capacity").set(delivery.queueCapacity());
+        node.node("overflow_policy").set(delivery.overflowPolicy().getConfigKey());
+        node.node("block_timeout_ms").set(delivery.blockTimeoutMs());
+        node.node("max_in_flight").set(delivery.maxInFlight());
+        node.node("virtual_threads").set(delivery.virtualThreads());
+        node.node("worker_threads").set(delivery.workerThreads());
+        node.node("event_rate_limit").set(delivery.eventRateLimit());
+        ConfigurationNode limitsNode = node.node("event_rate_limits");
+        limitsNode.set(Map.of());
+        for (Map.Entry<GameEventType, Integer> limit : delivery.eventRateLimits().entrySet()) {
+            limitsNode.node(limit.getKey().getConfigKey()).set(limit.getValue());
+        }
+        node.node("retry_max_attempts").set(delivery.retry().maxAttempts());
+        node.node("retry_base_delay_ms").set(delivery.retry().baseDelayMs());
+        node.node("retry_max_delay_ms").set(delivery.retry().maxDelayMs());
+        node.node("retry_jitter").set(delivery.retry().jitter());
+        node.node("circuit_breaker_enabled").set(delivery.circuitBreaker().enabled());
+        node.node("circuit_breaker_window").set(delivery.circuitBreaker().windowSize());
+        node.node("circuit_breaker_failure_rate").set(delivery.circuitBreaker().failureRatePercent());
+        node.node("circuit_breaker_slow_call_ms").set(delivery.circuitBreaker().slowCallMs());
+        node.node("circuit_breaker_slow_call_rate").set(delivery.circuitBreaker().slowCallRatePercent());
+        node.node("circuit_breaker_open_ms").set(delivery.circuitBreaker().openMs());
+        node.node("spool_enabled").set(delivery.spoolEnabled());
+        node.node("spool_max_size_mb").set(delivery.spoolMaxSizeMb());
+        node.node("spool_write_delay_ms").set(delivery.spoolWriteDelayMs());
+        node.node("shutdown_timeout_ms").set(delivery.shutdownTimeoutMs());
+        node.node("error_body_max_bytes").set(delivery.errorBodyMaxBytes());
     }
 }
@@ -76,7 +76,7 @@ public class ConfigManager {
         }
 
         if (found) {
-            currentConfig = new PluginConfig(currentConfig.general(), newTargets);
+            currentConfig = new PluginConfig(currentConfig.general(), currentConfig.delivery(), newTargets);
             save();
             logger.accept("Updated target configuration: " + name);
         }
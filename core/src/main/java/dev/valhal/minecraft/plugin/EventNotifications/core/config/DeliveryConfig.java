@@ -0,0 +1,59 @@
+package dev.valhal.minecraft.plugin.EventNotifications.core.config;
+
+import dev.valhal.minecraft.plugin.EventNotifications.core.delivery.CircuitBreakerPolicy;
+import dev.valhal.minecraft.plugin.EventNotifications.core.delivery.OverflowPolicy;
+import dev.valhal.minecraft.plugin.EventNotifications.core.delivery.RetryPolicy;
+import dev.valhal.minecraft.plugin.EventNotifications.core.event.GameEventType;
+
+import java.util.Map;
+
+/**
+ * Outbound delivery settings.
+ */
+public record DeliveryConfig(
+        int queueCapacity,
+        OverflowPolicy overflowPolicy,
+        long blockTimeoutMs,
+        int maxInFlight,
+        boolean virtualThreads,
+        int workerThreads,
+        int eventRateLimit,
+        Map<GameEventType, Integer> eventRateLimits,
+        RetryPolicy retry,
+        CircuitBreakerPolicy circuitBreaker,
+        boolean spoolEnabled,
+        int spoolMaxSizeMb,
+        long spoolWriteDelayMs,
+        long shutdownTimeoutMs,
+        int errorBodyMaxBytes
+) {
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+    public static final long DEFAULT_BLOCK_TIMEOUT_MS = 50;
+    public static final int DEFAULT_MAX_IN_FLIGHT = 16;
+    public static final int DEFAULT_WORKER_THREADS = 2;
+    public static final int DEFAULT_EVENT_RATE_LIMIT = 30;
+    public static final int DEFAULT_SPOOL_MAX_SIZE_MB = 16;
+    public static final long DEFAULT_SPOOL_WRITE_DELAY_MS = 1000;
+    public static final long DEFAULT_SHUTDOWN_TIMEOUT_MS = 5000;
+    public static final int DEFAULT_ERROR_BODY_MAX_BYTES = 1024;
+
+    public static DeliveryConfig defaults() {
+        return new DeliveryConfig(
+                DEFAULT_QUEUE_CAPACITY,
+                OverflowPolicy.DROP_OLDEST,
+                DEFAULT_BLOCK_TIMEOUT_MS,
+                DEFAULT_MAX_IN_FLIGHT,
+                true,
+                DEFAULT_WORKER_THREADS,
+                DEFAULT_EVENT_RATE_LIMIT,
+                Map.of(),
+                RetryPolicy.defaults(),
+                CircuitBreakerPolicy.defaults(),
+                true,
+                DEFAULT_SPOOL_MAX_SIZE_MB,
+                DEFAULT_SPOOL_WRITE_DELAY_MS,
+                DEFAULT_SHUTDOWN_TIMEOUT_MS,
+                DEFAULT_ERROR_BODY_MAX_BYTES
+        );
+    }
+}
@@ -6,8 +6,14 @@ package dev.valhal.minecraft.plugin.EventNotifications.core.config;
 public record GeneralConfig(
         String serverName,
         boolean commandsEnabled,
-        String commandAlias
+        String commandAlias,
+        boolean metricsEnabled,
+        String metricsAddress,
+        int metricsPort
 ) {
+    public static final String DEFAULT_METRICS_ADDRESS = "127.0.0.1";
+    public static final int DEFAULT_METRICS_PORT = 9464;
+
     /**
      * Returns true if the command alias is configured and not empty.
      */
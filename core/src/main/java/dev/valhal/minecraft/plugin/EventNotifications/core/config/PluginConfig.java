@@ -4,6 +4,7 @@ import java.util.List;
 
 public record PluginConfig(
         GeneralConfig general,
+        DeliveryConfig delivery,
         List<TargetConfig> targets
 ) {
     // Convenience accessors for backwards compatibility
@@ -13,10 +13,14 @@ public record TargetConfig(
 ) {
     // Property definitions per target type
     private static final Map<String, List<String>> PROPERTIES_BY_TYPE = Map.of(
-            "ntfy", List.of("server", "topic", "markdown", "icon", "auth_token"),
-            "discord", List.of("webhook_url", "use_embeds", "icon"),
-            "slack", List.of("webhook_url", "use_attachments", "icon"),
-            "webhook", List.of("url", "method", "icon", "auth_token")
+            "ntfy", List.of("server", "topic", "markdown", "icon", "auth_token", "rate_limit", "rate_limit_burst",
+                    "connect_timeout_ms", "request_timeout_ms"),
+            "discord", List.of("webhook_url", "use_embeds", "icon", "rate_limit", "rate_limit_burst", "batch", "batch_max_size", "batch_linger_ms",
+                    "connect_timeout_ms", "request_timeout_ms"),
+            "slack", List.of("webhook_url", "use_attachments", "icon", "rate_limit", "rate_limit_burst", "batch", "batch_max_size", "batch_linger_ms",
+                    "connect_timeout_ms", "request_timeout_ms"),
+            "webhook", List.of("url", "method", "icon", "auth_token", "rate_limit", "rate_limit_burst",
+                    "connect_timeout_ms", "request_timeout_ms")
     );
 
     // Common properties applicable to all types
@@ -69,6 +73,21 @@ public record TargetConfig(
         return value != null ? value.toString() : defaultValue;
     }
 
+    public int getInt(String key, int defaultValue) {
+        Object value = properties.get(key);
+        if (value instanceof Number n) {
+            return n.intValue();
+        }
+        if (value instanceof String s) {
+            try {
+                return Integer.parseInt(s.trim());
+            } catch (NumberFormatException e) {
+                return defaultValue;
+            }
+        }
+        return defaultValue;
+    }
+
     public boolean getBoolean(String key, boolean defaultValue) {
         Object value = properties.get(key);
         if (value instanceof Boolean b) {
@@ -1,6 +1,7 @@
 package dev.valhal.minecraft.plugin.EventNotifications.core.config;
 
 import dev.valhal.minecraft.plugin.EventNotifications.core.event.GameEventType;
+import dev.valhal.minecraft.plugin.EventNotifications.core.template.CompiledEventTemplate;
 import org.spongepowered.configurate.ConfigurationNode;
 import org.spongepowered.configurate.yaml.YamlConfigurationLoader;
 
@@ -21,6 +22,11 @@ public class TemplateLoader {
     private TemplateConfig defaultTemplates;
     private TemplateConfig.EventTemplate customMessageTemplate;
 
+    // Compiled templates, rebuilt on every load() and swapped in as a whole
+    private volatile Map<GameEventType, CompiledEventTemplate> compiledDefaults;
+    private volatile Map<String, Map<GameEventType, CompiledEventTemplate>> compiledByTargetType = Map.of();
+    private volatile CompiledEventTemplate compiledMessageTemplate;
+
     public TemplateLoader(Path templatesDir) {
         this.templatesDir = templatesDir;
         this.templatesByType = new HashMap<>();
@@ -36,6 +42,37 @@ public class TemplateLoader {
         loadOptionalTemplate("ntfy");
         loadOptionalTemplate("discord");
         loadOptionalTemplate("webhook");
+
+        compileTemplates();
+    }
+
+    /**
+     * Compiles every template a target can resolve to, so rendering never parses template text.
+     * Target types without their own template for an event share the default's compiled instance.
+     */
+    private void compileTemplates() {
+        Map<GameEventType, CompiledEventTemplate> defaults = new EnumMap<>(GameEventType.class);
+        for (GameEventType type : GameEventType.values()) {
+            TemplateConfig.EventTemplate template = defaultTemplates != null && defaultTemplates.hasTemplate(type)
+                    ? defaultTemplates.getTemplate(type)
+                    : getBuiltInDefault(type);
+            defaults.put(type, CompiledEventTemplate.compile(template));
+        }
+
+        Map<String, Map<GameEventType, CompiledEventTemplate>> byTargetType = new HashMap<>();
+        for (Map.Entry<String, TemplateConfig> entry : templatesByType.entrySet()) {
+            Map<GameEventType, CompiledEventTemplate> compiled = new EnumMap<>(GameEventType.class);
+            for (GameEventType type : GameEventType.values()) {
+                compiled.put(type, entry.getValue().hasTemplate(type)
+                        ? CompiledEventTemplate.compile(entry.getValue().getTemplate(type))
+                        : defaults.get(type));
+            }
+            byTargetType.put(entry.getKey(), compiled);
+        }
+
+        compiledDefaults = defaults;
+        compiledByTargetType = byTargetType;
+        compiledMessageTemplate = CompiledEventTemplate.compile(getMessageTemplate());
     }
 
     private void loadOptionalTemplate(String targetType) {
@@ -165,6 +202,26 @@ public class TemplateLoader {
         return getBuiltInDefault(type);
     }
 
+    /**
+     * Gets the compiled template for an event and target type.
+     * Resolves the same way as {@link #getTemplate(GameEventType, String)}.
+     */
+    public CompiledEventTemplate getCompiledTemplate(GameEventType type, String targetType) {
+        Map<GameEventType, CompiledEventTemplate> defaults = compiledDefaults;
+        if (defaults == null) {
+            return CompiledEventTemplate.compile(getTemplate(type, targetType));
+        }
+        return compiledByTargetType.getOrDefault(targetType.toLowerCase(), defaults).get(type);
+    }
+
+    /**
+     * Gets the compiled template for messages sent via the /eventnotifications message command.
+     */
+    public CompiledEventTemplate getCompiledMessageTemplate() {
+        CompiledEventTemplate compiled = compiledMessageTemplate;
+        return compiled != null ? compiled : CompiledEventTemplate.compile(getMessageTemplate());
+    }
+
     /**
      * Gets the template for messages sent via the /eventnotifications message command.
      */
@@ -0,0 +1,217 @@
+package dev.valhal.minecraft.plugin.EventNotifications.core.delivery;
+
+import dev.valhal.minecraft.plugin.EventNotifications.core.notification.NotificationResult;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Stops sending to a target that keeps failing or timing out.
+ * <p>
+ * While closed, the outcome of the last {@code windowSize} requests is recorded. When too many
+ * of them failed or were slow, the breaker opens and requests are refused without being sent.
+ * After the open period it goes half-open and lets a few probe requests through: if they all
+ * succeed it closes again, if any fails it opens for another period.
+ * <p>
+ * 429 responses count as neither success nor failure, since the endpoint is up and the
+ * retry policy already waits as asked.
+ * <p>
+ * Outcomes are recorded per HTTP request, so a batch carrying many notifications counts once,
+ * with the time the request itself took.
+ */
+public class CircuitBreaker {
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN;
+
+        public String getDisplayName() {
+            return name().toLowerCase().replace('_', '-');
+        }
+    }
+
+    // Probe requests allowed at once while half-open; this many must succeed to close
+    private static final int HALF_OPEN_PROBES = 2;
+    // How long refused requests wait while probes are running
+    private static final long HALF_OPEN_RETRY_MS = 1000;
+
+    private static final byte OUTCOME_SUCCESS = 0;
+    private static final byte OUTCOME_FAILURE = 1;
+    private static final byte OUTCOME_SLOW = 2;
+
+    private final String targetName;
+    private final CircuitBreakerPolicy policy;
+    private final Consumer<String> logger;
+    private final long slowCallNanos;
+
+    // Ring of the last outcomes while closed, as OUTCOME_* bits
+    private final byte[] outcomes;
+    private int recorded;
+    private int next;
+    private int failures;
+    private int slowCalls;
+
+    private State state = State.CLOSED;
+    private long openUntilNanos;
+    private int probesInFlight;
+    private int probesSucceeded;
+
+    public CircuitBreaker(String targetName, CircuitBreakerPolicy policy, Consumer<String> logger) {
+        this.targetName = targetName;
+        this.policy = policy;
+        this.logger = logger;
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(policy.slowCallMs());
+        this.outcomes = new byte[Math.max(1, policy.windowSize())];
+    }
+
+    /**
+     * Asks to send a request. Every granted request must be followed by {@link #onResult}, or
+     * by {@link #release()} if no request of its own is sent for it.
+     *
+     * @return false if the breaker is open and the request must not be sent
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openUntilNanos < 0) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            probesInFlight = 0;
+            probesSucceeded = 0;
+            logger.accept("Circuit breaker for " + targetName + " is half-open, sending probe requests");
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesInFlight + probesSucceeded >= HALF_OPEN_PROBES) {
+                return false;
+            }
+            probesInFlight++;
+        }
+        return true;
+    }
+
+    /**
+     * Records the outcome of a request. Requests sent without their own permit, such as a
+     * batch, count as well.
+     */
+    public synchronized void onResult(NotificationResult result, long elapsedNanos) {
+        if (result.statusCode() == 429) {
+            if (state == State.HALF_OPEN && probesInFlight > 0) {
+                probesInFlight--;
+            }
+            return;
+        }
+
+        byte outcome = OUTCOME_SUCCESS;
+        if (!result.success()) {
+            outcome |= OUTCOME_FAILURE;
+        }
+        if (elapsedNanos >= slowCallNanos) {
+            outcome |= OUTCOME_SLOW;
+        }
+
+        switch (state) {
+            case CLOSED -> record(outcome);
+            case HALF_OPEN -> {
+                if (probesInFlight > 0) {
+                    probesInFlight--;
+                }
+                if (outcome != OUTCOME_SUCCESS) {
+                    open("a probe request " + ((outcome & OUTCOME_FAILURE) != 0 ? "failed" : "was slow"));
+                } else if (++probesSucceeded >= HALF_OPEN_PROBES) {
+                    state = State.CLOSED;
+                    clearWindow();
+                    logger.accept("Circuit breaker for " + targetName + " closed, the target has recovered");
+                }
+            }
+            case OPEN -> {
+                // Requests sent before the breaker opened; already accounted for
+            }
+        }
+    }
+
+    /**
+     * Gives back a permit from {@link #tryAcquire()} that no request of its own was sent for,
+     * such as for a notification handed to a batch.
+     */
+    public synchronized void release() {
+        if (state == State.HALF_OPEN && probesInFlight > 0) {
+            probesInFlight--;
+        }
+    }
+
+    private void record(byte outcome) {
+        if (recorded == outcomes.length) {
+            byte evicted = outcomes[next];
+            if ((evicted & OUTCOME_FAILURE) != 0) {
+                failures--;
+            }
+            if ((evicted & OUTCOME_SLOW) != 0) {
+                slowCalls--;
+            }
+        } else {
+            recorded++;
+        }
+        outcomes[next] = outcome;
+        next = (next + 1) % outcomes.length;
+        if ((outcome & OUTCOME_FAILURE) != 0) {
+            failures++;
+        }
+        if ((outcome & OUTCOME_SLOW) != 0) {
+            slowCalls++;
+        }
+
+        if (recorded < policy.minimumCalls()) {
+            return;
+        }
+        if (failures * 100 >= policy.failureRatePercent() * recorded) {
+            open(failures + " of the last " + recorded + " requests failed");
+        } else if (slowCalls * 100 >= policy.slowCallRatePercent() * recorded) {
+            open(slowCalls + " of the last " + recorded + " requests took " + policy.slowCallMs() + "ms or longer");
+        }
+    }
+
+    private void open(String reason) {
+        state = State.OPEN;
+        openUntilNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(policy.openMs());
+        clearWindow();
+        logger.accept("Circuit breaker for " + targetName + " opened (" + reason + "), pausing deliveries for "
+                + toSeconds(policy.openMs()) + "s");
+    }
+
+    private void clearWindow() {
+        recorded = 0;
+        next = 0;
+        failures = 0;
+        slowCalls = 0;
+    }
+
+    private static long toSeconds(long millis) {
+        return (millis + 999) / 1000;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * How long a refused request should wait before asking again.
+     */
+    public synchronized long getRetryDelayMillis() {
+        return switch (state) {
+            case OPEN -> Math.max(0, TimeUnit.NANOSECONDS.toMillis(openUntilNanos - System.nanoTime()));
+            case HALF_OPEN -> HALF_OPEN_RETRY_MS;
+            case CLOSED -> 0;
+        };
+    }
+
+    /**
+     * Short human-readable state, e.g. for /eventnotify info.
+     */
+    public synchronized String describe() {
+        return switch (state) {
+            case CLOSED -> recorded == 0
+                    ? "closed"
+                    : "closed (" + failures + " failed, " + slowCalls + " slow of the last " + recorded + " requests)";
+            case OPEN -> "open, probing again in " + toSeconds(getRetryDelayMillis()) + "s";
+            case HALF_OPEN -> "half-open, probing";
+        };
+    }
+}
@@ -0,0 +1,34 @@
+package dev.valhal.minecraft.plugin.EventNotifications.core.delivery;
+
+/**
+ * Settings for the per-target {@link CircuitBreaker}.
+ * The breaker opens once at least half of a full window of requests was seen and either
+ * failureRatePercent of them failed or slowCallRatePercent of them took slowCallMs or longer.
+ * It stays open for openMs before letting probe requests through.
+ */
+public record CircuitBreakerPolicy(
+        boolean enabled,
+        int windowSize,
+        int failureRatePercent,
+        long slowCallMs,
+        int slowCallRatePercent,
+        long openMs
+) {
+    public static final int DEFAULT_WINDOW_SIZE = 20;
+    public static final int DEFAULT_FAILURE_RATE_PERCENT = 50;
+    public static final long DEFAULT_SLOW_CALL_MS = 10_000;
+    public static final int DEFAULT_SLOW_CALL_RATE_PERCENT = 80;
+    public static final long DEFAULT_OPEN_MS = 30_000;
+
+    public static CircuitBreakerPolicy defaults() {
+        return new CircuitBreakerPolicy(true, DEFAULT_WINDOW_SIZE, DEFAULT_FAILURE_RATE_PERCENT,
+                DEFAULT_SLOW_CALL_MS, DEFAULT_SLOW_CALL_RATE_PERCENT, DEFAULT_OPEN_MS);
+    }
+
+    /**
+     * Requests that must be recorded before the rates are looked at.
+     */
+    public int minimumCalls() {
+        return Math.max(1, windowSize / 2);
+    }
+}
@@ -0,0 +1,54 @@
+package dev.valhal.minecraft.plugin.EventNotifications.core.delivery;
+
+import dev.valhal.minecraft.plugin.EventNotifications.core.http.RequestBody;
+import dev.valhal.minecraft.plugin.EventNotifications.core.notification.NotificationPayload;
+import dev.valhal.minecraft.plugin.EventNotifications.core.notification.NotificationResult;
+import dev.valhal.minecraft.plugin.EventNotifications.core.notification.NotificationTarget;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A rendered payload waiting to be sent to a single target.
+ * The body is the pre-encoded request body shared with other targets, or null if the
+ * target encodes the payload itself; the delivery holds one reference to it until it
+ * completes. The result future completes once the delivery was sent, failed for good or
+ * dropped. attempt is 1 for the first try and counts up on each retry. spoolId identifies
+ * the delivery in the {@link DeliverySpool}, or is 0 if it has not been spooled.
+ */
+public record Delivery(
+        NotificationTarget target,
+        NotificationPayload payload,
+        RequestBody body,
+        CompletableFuture<NotificationResult> result,
+        int attempt,
+        long spoolId
+) {
+    public Delivery(NotificationTarget target, NotificationPayload payload) {
+        this(target, payload, null, new CompletableFuture<>(), 1, 0);
+    }
+
+    public Delivery(NotificationTarget target, NotificationPayload payload, RequestBody body) {
+        this(target, payload, body, new CompletableFuture<>(), 1, 0);
+    }
+
+    /**
+     * The same delivery for its next attempt, completing the same result future.
+     */
+    public Delivery nextAttempt() {
+        return new Delivery(target, payload, body, result, attempt + 1, spoolId);
+    }
+
+    public Delivery withSpoolId(long newSpoolId) {
+        return new Delivery(target, payload, body, result, attempt, newSpoolId);
+    }
+
+    /**
+     * Gives up this delivery's reference to the shared body. Called once the delivery
+     * completed, failed for good or was dropped; retries keep the reference.
+     */
+    public void releaseBody() {
+        if (body != null) {
+            body.release();
+        }
+    }
+}
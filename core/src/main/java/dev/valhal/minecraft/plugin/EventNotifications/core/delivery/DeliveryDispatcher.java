@@ -0,0 +1,449 @@
+package dev.valhal.minecraft.plugin.EventNotifications.core.delivery;
+
+import dev.valhal.minecraft.plugin.EventNotifications.core.config.DeliveryConfig;
+import dev.valhal.minecraft.plugin.EventNotifications.core.http.RequestListener;
+import dev.valhal.minecraft.plugin.EventNotifications.core.metrics.MetricsRegistry;
+import dev.valhal.minecraft.plugin.EventNotifications.core.metrics.TargetMetrics;
+import dev.valhal.minecraft.plugin.EventNotifications.core.notification.NotificationResult;
+import dev.valhal.minecraft.plugin.EventNotifications.core.notification.NotificationTarget;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Delivery stage between rendering and {@code NotificationTarget.send}.
+ * Rendered payloads are buffered in a bounded {@link DeliveryQueue} and drained on the
+ * executor, with at most {@code maxInFlight} requests outstanding at any time. A batching
+ * target only takes the payload into its batch, so its slot is free again right away; the
+ * batch request is sent later, bounded by the target's rate limit instead.
+ * Retryable failures are put back on the queue by a timer after the {@link RetryPolicy}
+ * backoff, so no thread is held while waiting for the next attempt. With a spool, each
+ * delivery is written to disk when submitted and acknowledged once it completes.
+ * <p>
+ * Each target has a {@link CircuitBreaker}. While it is open, spooled deliveries are held back
+ * until the breaker lets requests through again, and deliveries that are not spooled fail
+ * right away.
+ * <p>
+ * Request counts, latency and circuit breaker outcomes are recorded per HTTP request by listening
+ * to the transport, since a batching target sends one request for many deliveries, after its
+ * linger window.
+ */
+public class DeliveryDispatcher implements RequestListener {
+    private static final int DROP_LOG_INTERVAL = 100;
+
+    private final DeliveryQueue<Delivery> queue;
+    private final Executor executor;
+    private final ScheduledExecutorService scheduler;
+    private final RetryPolicy retryPolicy;
+    private final CircuitBreakerPolicy circuitBreakerPolicy;
+    // Keyed by target name like the metrics, so a breaker survives the target being rebuilt on reload
+    private final Map<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+    private final DeliverySpool spool;
+    private final MetricsRegistry metrics;
+    private final Consumer<String> logger;
+    private final int maxInFlight;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    // Every submitted delivery whose result has not completed yet, wherever it is waiting
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final AtomicInteger pendingRetries = new AtomicInteger();
+    private final AtomicInteger heldBack = new AtomicInteger();
+    private final LongAdder shortCircuitedCount = new LongAdder();
+    private final LongAdder retriedCount = new LongAdder();
+    private final LongAdder deliveredCount = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+
+    /**
+     * @param spool   where deliveries are kept until they complete, or null to keep them in memory only
+     * @param metrics where per-target outcomes are recorded, and request latency once this
+     *                dispatcher is the transport's {@link RequestListener}
+     */
+    public DeliveryDispatcher(DeliveryConfig config, Executor executor, ScheduledExecutorService scheduler,
+                              DeliverySpool spool, MetricsRegistry metrics, Consumer<String> logger) {
+        this.executor = executor;
+        this.scheduler = scheduler;
+        this.retryPolicy = config.retry();
+        this.circuitBreakerPolicy = config.circuitBreaker();
+        this.spool = spool;
+        this.metrics = metrics;
+        this.logger = logger;
+        this.maxInFlight = Math.max(1, config.maxInFlight());
+        this.queue = new DeliveryQueue<>(
+                config.queueCapacity(),
+                config.overflowPolicy(),
+                config.blockTimeoutMs(),
+                this::onDropped
+        );
+    }
+
+    /**
+     * Queues a delivery and makes sure the queue is being drained.
+     *
+     * @return true if the delivery was queued, false if it was dropped
+     */
+    public boolean submit(Delivery delivery) {
+        outstanding.incrementAndGet();
+        delivery.result().whenComplete((result, error) -> outstanding.decrementAndGet());
+        return submit(delivery, true);
+    }
+
+    /**
+     * Puts a delivery back on the queue from the timer thread. It never waits for space, so
+     * a full queue under {@link OverflowPolicy#BLOCK} cannot hold up batch linger windows,
+     * other retries or held back deliveries; the oldest queued delivery is dropped instead.
+     */
+    private void resubmit(Delivery delivery) {
+        submit(delivery, false);
+    }
+
+    private boolean submit(Delivery delivery, boolean mayBlock) {
+        if (spool != null && delivery.spoolId() == 0) {
+            delivery = delivery.withSpoolId(spool.append(delivery.target().getName(), delivery.payload()));
+        }
+        boolean queued = queue.offer(delivery, mayBlock);
+        scheduleDrain();
+        return queued;
+    }
+
+    private void scheduleDrain() {
+        if (inFlight.get() < maxInFlight && !queue.isEmpty() && drainScheduled.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            while (inFlight.get() < maxInFlight) {
+                Delivery delivery = queue.poll();
+                if (delivery == null) {
+                    break;
+                }
+                CircuitBreaker breaker = getCircuitBreaker(delivery.target());
+                if (breaker != null && !breaker.tryAcquire()) {
+                    onCircuitOpen(delivery, breaker);
+                    continue;
+                }
+                inFlight.incrementAndGet();
+                // Each delivery is encoded and sent in its own task, so one slow target does not hold up the rest
+                try {
+                    executor.execute(() -> dispatch(delivery, breaker));
+                } catch (RejectedExecutionException e) {
+                    // Shutting down; a spooled delivery is sent again after the restart
+                    inFlight.decrementAndGet();
+                    if (breaker != null) {
+                        breaker.release();
+                    }
+                    delivery.releaseBody();
+                    delivery.result().complete(
+                            NotificationResult.failure(delivery.target().getName(), "Delivery executor is shut down"));
+                    break;
+                }
+            }
+        } finally {
+            drainScheduled.set(false);
+        }
+        // Items may have arrived after the last poll but before the flag was cleared
+        scheduleDrain();
+    }
+
+    private void dispatch(Delivery delivery, CircuitBreaker breaker) {
+        CompletableFuture<NotificationResult> future;
+        // Whether the delivery went out in a request of its own, which the transport reports
+        boolean ownRequest;
+        try {
+            future = delivery.body() != null
+                    ? delivery.target().send(delivery.payload(), delivery.body())
+                    : delivery.target().send(delivery.payload());
+            ownRequest = !delivery.target().isBatching();
+        } catch (Exception e) {
+            future = CompletableFuture.completedFuture(
+                    NotificationResult.failure(delivery.target().getName(), e.getMessage())
+            );
+            ownRequest = false;
+        }
+        if (!ownRequest) {
+            inFlight.decrementAndGet();
+            if (breaker != null) {
+                breaker.release();
+            }
+            scheduleDrain();
+        }
+
+        boolean holdsSlot = ownRequest;
+        future.whenComplete((result, error) -> {
+            if (holdsSlot) {
+                inFlight.decrementAndGet();
+            }
+            if (error != null) {
+                result = NotificationResult.failure(delivery.target().getName(), error.getMessage());
+            }
+            if (retryPolicy.shouldRetry(delivery.attempt(), result)) {
+                scheduleRetry(delivery, result);
+            } else {
+                complete(delivery, result);
+            }
+            scheduleDrain();
+        });
+    }
+
+    @Override
+    public void onRequestStarted(String targetName) {
+        metrics.target(targetName).onRequestStarted();
+    }
+
+    @Override
+    public void onRequestCompleted(String targetName, NotificationResult result, long elapsedNanos) {
+        metrics.target(targetName).onRequestCompleted(elapsedNanos);
+        CircuitBreaker breaker = circuitBreakers.get(targetName);
+        if (breaker != null) {
+            breaker.onResult(result, elapsedNanos);
+        }
+    }
+
+    private void scheduleRetry(Delivery delivery, NotificationResult result) {
+        long delay = retryPolicy.delayMillis(delivery.attempt(), result);
+        pendingRetries.incrementAndGet();
+        retriedCount.increment();
+        try {
+            scheduler.schedule(() -> {
+                pendingRetries.decrementAndGet();
+                resubmit(delivery.nextAttempt());
+            }, delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Scheduler is shut down; a spooled delivery is retried after the restart
+            pendingRetries.decrementAndGet();
+            delivery.releaseBody();
+            delivery.result().complete(result);
+        }
+    }
+
+    /**
+     * Handles a delivery refused by an open circuit breaker. A spooled delivery is held back
+     * until the breaker lets requests through again; past the queue capacity, further ones are
+     * left in the spool for the next startup. Anything else fails right away.
+     */
+    private void onCircuitOpen(Delivery delivery, CircuitBreaker breaker) {
+        shortCircuitedCount.increment();
+        NotificationResult result = NotificationResult.failure(delivery.target().getName(), "Circuit breaker is open");
+
+        if (delivery.spoolId() == 0) {
+            // The breaker already logged why it opened, so refused deliveries are not logged one by one
+            acknowledge(delivery);
+            delivery.releaseBody();
+            failedCount.increment();
+            metrics.target(delivery.target().getName()).onFailed();
+            delivery.result().complete(result);
+            return;
+        }
+
+        if (heldBack.incrementAndGet() <= queue.getCapacity()) {
+            try {
+                scheduler.schedule(() -> {
+                    heldBack.decrementAndGet();
+                    resubmit(delivery);
+                }, breaker.getRetryDelayMillis(), TimeUnit.MILLISECONDS);
+                return;
+            } catch (RejectedExecutionException e) {
+                // Shutting down; fall through and leave it in the spool
+            }
+        }
+        heldBack.decrementAndGet();
+        delivery.releaseBody();
+        delivery.result().complete(result);
+    }
+
+    /**
+     * Gets the circuit breaker for a target, creating it on first use, or null if circuit
+     * breakers are disabled.
+     */
+    private CircuitBreaker getCircuitBreaker(NotificationTarget target) {
+        if (!circuitBreakerPolicy.enabled()) {
+            return null;
+        }
+        return circuitBreakers.computeIfAbsent(target.getName(),
+                name -> new CircuitBreaker(name, circuitBreakerPolicy, logger));
+    }
+
+    /**
+     * State of a target's circuit breaker for display, e.g. "open", without creating one.
+     * A target that has not sent anything yet has no breaker and shows as closed.
+     *
+     * @return the state, or null if circuit breakers are disabled
+     */
+    public String getCircuitState(String targetName) {
+        if (!circuitBreakerPolicy.enabled()) {
+            return null;
+        }
+        CircuitBreaker breaker = circuitBreakers.get(targetName);
+        return (breaker != null ? breaker.getState() : CircuitBreaker.State.CLOSED).getDisplayName();
+    }
+
+    /**
+     * Like {@link #getCircuitState}, with the recent failures or the time until the next probe.
+     */
+    public String describeCircuit(String targetName) {
+        if (!circuitBreakerPolicy.enabled()) {
+            return null;
+        }
+        CircuitBreaker breaker = circuitBreakers.get(targetName);
+        return breaker != null ? breaker.describe() : CircuitBreaker.State.CLOSED.getDisplayName();
+    }
+
+    /**
+     * Drops the circuit breakers of targets that no longer exist. Call after a reload.
+     */
+    public void retainCircuitBreakers(Collection<String> targetNames) {
+        circuitBreakers.keySet().retainAll(targetNames);
+    }
+
+    private void complete(Delivery delivery, NotificationResult result) {
+        acknowledge(delivery);
+        delivery.releaseBody();
+        TargetMetrics targetMetrics = metrics.target(delivery.target().getName());
+        if (result.success()) {
+            deliveredCount.increment();
+            targetMetrics.onDelivered();
+        } else {
+            failedCount.increment();
+            targetMetrics.onFailed();
+            if (delivery.attempt() > 1) {
+                result = result.withMessage(result.message() + " (after " + delivery.attempt() + " attempts)");
+            }
+            logger.accept("Failed to send notification to " + result.targetName() + ": " + result.message());
+        }
+        delivery.result().complete(result);
+    }
+
+    /**
+     * Moves queued deliveries with the highest priority to the front of the queue,
+     * keeping the order within each priority.
+     */
+    public void prioritizeQueued() {
+        List<Delivery> queued = new ArrayList<>();
+        Delivery delivery;
+        while ((delivery = queue.poll()) != null) {
+            queued.add(delivery);
+        }
+        queued.sort(Comparator.comparingInt((Delivery d) -> d.payload().getPriority().getLevel()).reversed());
+        for (Delivery next : queued) {
+            queue.offer(next);
+        }
+        scheduleDrain();
+    }
+
+    /**
+     * Whether nothing is queued, being sent, waiting in a batch or waiting for a retry.
+     * Deliveries held back by an open circuit breaker do not count; they are spooled.
+     */
+    public boolean isIdle() {
+        return outstanding.get() - heldBack.get() <= 0;
+    }
+
+    /**
+     * Number of submitted deliveries that have not completed yet: queued, being sent, waiting
+     * in a target's batch, waiting for a retry or held back by an open circuit breaker.
+     */
+    public int getOutstandingCount() {
+        return outstanding.get();
+    }
+
+    private void acknowledge(Delivery delivery) {
+        if (spool != null && delivery.spoolId() != 0) {
+            spool.acknowledge(delivery.spoolId());
+        }
+    }
+
+    private void onDropped(Delivery delivery) {
+        acknowledge(delivery);
+        delivery.releaseBody();
+        metrics.target(delivery.target().getName()).onDropped();
+        long dropped = queue.getDroppedCount();
+        if (dropped == 1 || dropped % DROP_LOG_INTERVAL == 0) {
+            logger.accept("Delivery queue full (capacity " + queue.getCapacity() + ", policy "
+                    + queue.getOverflowPolicy().getConfigKey() + "), " + dropped + " notifications dropped so far");
+        }
+        delivery.result().complete(
+                NotificationResult.failure(delivery.target().getName(), "Dropped: delivery queue is full")
+        );
+    }
+
+    /**
+     * Number of deliveries waiting in the queue.
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public int getQueueCapacity() {
+        return queue.getCapacity();
+    }
+
+    /**
+     * Number of requests currently being sent for single deliveries. Notifications waiting in
+     * a target's batch do not count.
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public long getSubmittedCount() {
+        return queue.getOfferedCount();
+    }
+
+    public long getDroppedCount() {
+        return queue.getDroppedCount();
+    }
+
+    /**
+     * Number of deliveries waiting for their retry timer.
+     */
+    public int getPendingRetries() {
+        return pendingRetries.get();
+    }
+
+    public long getRetriedCount() {
+        return retriedCount.sum();
+    }
+
+    /**
+     * Number of spooled deliveries waiting for a circuit breaker to let requests through.
+     */
+    public int getHeldBackCount() {
+        return heldBack.get();
+    }
+
+    /**
+     * Number of times a delivery was refused by an open circuit breaker.
+     */
+    public long getShortCircuitedCount() {
+        return shortCircuitedCount.sum();
+    }
+
+    public long getDeliveredCount() {
+        return deliveredCount.sum();
+    }
+
+    /**
+     * Number of deliveries that failed for good, after any retries.
+     */
+    public long getFailedCount() {
+        return failedCount.sum();
+    }
+}
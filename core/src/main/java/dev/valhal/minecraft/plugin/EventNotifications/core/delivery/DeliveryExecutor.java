@@ -0,0 +1,93 @@
+package dev.valhal.minecraft.plugin.EventNotifications.core.delivery;
+
+import dev.valhal.minecraft.plugin.EventNotifications.core.config.DeliveryConfig;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executor for notification delivery, shared by all platforms.
+ * By default every task gets its own virtual thread, so a slow webhook endpoint never
+ * holds a platform thread or delays other targets. With virtual_threads disabled it
+ * falls back to a small fixed pool of daemon platform threads.
+ */
+public class DeliveryExecutor implements Executor {
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+
+    private final ExecutorService executorService;
+    private final boolean virtualThreads;
+    private final int poolSize;
+    private final AtomicInteger activeTasks = new AtomicInteger();
+
+    public DeliveryExecutor(DeliveryConfig config) {
+        this.virtualThreads = config.virtualThreads();
+        this.poolSize = virtualThreads ? 0 : Math.max(1, config.workerThreads());
+        if (virtualThreads) {
+            this.executorService = Executors.newThreadPerTaskExecutor(
+                    Thread.ofVirtual().name("EventNotifications-Delivery-", 0).factory());
+        } else {
+            AtomicInteger threadCount = new AtomicInteger();
+            this.executorService = Executors.newFixedThreadPool(poolSize, r -> {
+                Thread thread = new Thread(r, "EventNotifications-Worker-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        executorService.execute(() -> {
+            activeTasks.incrementAndGet();
+            try {
+                command.run();
+            } finally {
+                activeTasks.decrementAndGet();
+            }
+        });
+    }
+
+    /**
+     * Whether tasks run on virtual threads.
+     */
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Number of worker threads, or 0 when tasks run on virtual threads.
+     */
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    /**
+     * Tasks currently running.
+     */
+    public int getActiveTasks() {
+        return activeTasks.get();
+    }
+
+    /**
+     * Tasks waiting for a worker thread; always 0 with virtual threads.
+     */
+    public int getQueuedTasks() {
+        return executorService instanceof ThreadPoolExecutor pool ? pool.getQueue().size() : 0;
+    }
+
+    public void shutdown() {
+        executorService.shutdown();
+        try {
+            if (!executorService.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                executorService.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executorService.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package dev.valhal.minecraft.plugin.EventNotifications.core.delivery;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Bounded, lock-free multi-producer/multi-consumer queue for outbound notifications.
+ * Based on Dmitry Vyukov's bounded MPMC queue: every slot carries a sequence number,
+ * so producers and consumers only ever CAS the shared head/tail counters.
+ * When full, the configured {@link OverflowPolicy} decides which item is dropped.
+ */
+public class DeliveryQueue<E> {
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final int capacity;
+    // A one-slot ring cannot tell a full slot from a free one a lap later, so it gets two
+    private final int slots;
+    private final AtomicReferenceArray<E> buffer;
+    private final AtomicLongArray sequences;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    private final OverflowPolicy overflowPolicy;
+    private final long blockTimeoutNanos;
+    private final Consumer<E> dropHandler;
+
+    private final LongAdder offered = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * @param capacity       Maximum number of queued items
+     * @param overflowPolicy What to do when the queue is full
+     * @param blockTimeoutMs How long {@link OverflowPolicy#BLOCK} waits for space
+     * @param dropHandler    Called with every item that is dropped because of overflow
+     */
+    public DeliveryQueue(int capacity, OverflowPolicy overflowPolicy, long blockTimeoutMs, Consumer<E> dropHandler) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Queue capacity must be at least 1");
+        }
+        this.capacity = capacity;
+        this.slots = Math.max(2, capacity);
+        this.buffer = new AtomicReferenceArray<>(slots);
+        this.sequences = new AtomicLongArray(slots);
+        for (int i = 0; i < slots; i++) {
+            sequences.set(i, i);
+        }
+        this.overflowPolicy = overflowPolicy != null ? overflowPolicy : OverflowPolicy.DROP_OLDEST;
+        this.blockTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, blockTimeoutMs));
+        this.dropHandler = dropHandler;
+    }
+
+    /**
+     * Adds an item, applying the overflow policy if the queue is full.
+     *
+     * @return true if the item was queued, false if it was dropped
+     */
+    public boolean offer(E item) {
+        return offer(item, true);
+    }
+
+    /**
+     * Adds an item, applying the overflow policy if the queue is full.
+     *
+     * @param mayBlock false on threads that must not wait for space, such as timers; there
+     *                 {@link OverflowPolicy#BLOCK} evicts the oldest item instead
+     * @return true if the item was queued, false if it was dropped
+     */
+    public boolean offer(E item, boolean mayBlock) {
+        offered.increment();
+        if (tryOffer(item)) {
+            return true;
+        }
+
+        OverflowPolicy policy = overflowPolicy == OverflowPolicy.BLOCK && !mayBlock
+                ? OverflowPolicy.DROP_OLDEST
+                : overflowPolicy;
+        switch (policy) {
+            case DROP_OLDEST -> {
+                while (!tryOffer(item)) {
+                    E evicted = poll();
+                    if (evicted != null) {
+                        drop(evicted);
+                    }
+                }
+                return true;
+            }
+            case BLOCK -> {
+                long deadline = System.nanoTime() + blockTimeoutNanos;
+                while (System.nanoTime() - deadline < 0) {
+                    LockSupport.parkNanos(BLOCK_PARK_NANOS);
+                    if (tryOffer(item)) {
+                        return true;
+                    }
+                }
+                drop(item);
+                return false;
+            }
+            default -> {
+                drop(item);
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Removes and returns the oldest item, or null if the queue is empty.
+     */
+    public E poll() {
+        while (true) {
+            long position = head.get();
+            int index = index(position);
+            long difference = sequences.get(index) - (position + 1);
+
+            if (difference == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    E item = buffer.get(index);
+                    buffer.set(index, null);
+                    sequences.set(index, position + slots);
+                    return item;
+                }
+            } else if (difference < 0) {
+                return null;
+            }
+        }
+    }
+
+    private boolean tryOffer(E item) {
+        while (true) {
+            long position = tail.get();
+            int index = index(position);
+            long difference = sequences.get(index) - position;
+
+            if (difference == 0) {
+                if (slots != capacity && position - head.get() >= capacity) {
+                    return false;
+                }
+                if (tail.compareAndSet(position, position + 1)) {
+                    buffer.set(index, item);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+            } else if (difference < 0) {
+                return false;
+            }
+        }
+    }
+
+    private void drop(E item) {
+        dropped.increment();
+        if (dropHandler != null) {
+            dropHandler.accept(item);
+        }
+    }
+
+    private int index(long position) {
+        return (int) (position % slots);
+    }
+
+    /**
+     * Approximate number of queued items.
+     */
+    public int size() {
+        long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, capacity));
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /**
+     * Total number of items offered to the queue, including dropped ones.
+     */
+    public long getOfferedCount() {
+        return offered.sum();
+    }
+
+    /**
+     * Total number of items dropped because the queue was full.
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+}
@@ -0,0 +1,578 @@
+package dev.valhal.minecraft.plugin.EventNotifications.core.delivery;
+
+import dev.valhal.minecraft.plugin.EventNotifications.core.notification.NotificationPayload;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only on-disk log of deliveries that have not completed yet, so they survive
+ * a restart or crash and are sent on the next startup.
+ * <p>
+ * The spool is a directory of numbered segment files. Each record is
+ * {@code [length][crc32][type][id][data]}: a PUT holds the target name and payload,
+ * an ACK only the id of a completed PUT. New records go to the newest segment; once it
+ * reaches the segment size a new one is started. An ACK is never older than its PUT, so
+ * segments are only deleted oldest first, once all their PUTs are acknowledged. A sealed
+ * segment that is mostly acknowledged is compacted by copying its few remaining PUTs
+ * forward. When the spool grows past its size limit the oldest segment is discarded.
+ * <p>
+ * Recovery reads all segments in order and stops each at the first incomplete or corrupt
+ * record, which is where a crash interrupted a write. The rest of that segment is truncated.
+ * Records are written without fsync: they survive a process crash, while {@link #close()}
+ * forces them to disk on a clean shutdown.
+ * <p>
+ * Nothing is written on the caller's thread. Appended deliveries and acknowledgements are
+ * queued in memory and written by a background thread once a delivery has been pending for
+ * the write delay; one acknowledged before then never touches the disk. The trade-off is
+ * that a crash loses the deliveries younger than the write delay. On a clean shutdown
+ * {@link #close()} writes everything still pending.
+ */
+public class DeliverySpool {
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final long MAX_SEGMENT_BYTES = 1024 * 1024;
+    private static final int HEADER_BYTES = 8;
+    private static final long MIN_WRITE_INTERVAL_MS = 50;
+
+    private static final byte RECORD_PUT = 1;
+    private static final byte RECORD_ACK = 2;
+
+    private static final byte VALUE_STRING = 0;
+    private static final byte VALUE_BOOLEAN = 1;
+    private static final byte VALUE_LONG = 2;
+    private static final byte VALUE_DOUBLE = 3;
+
+    private final Path directory;
+    private final long maxBytes;
+    private final long segmentBytes;
+    private final long writeDelayMs;
+    private final Consumer<String> logger;
+    private final ScheduledExecutorService writer;
+
+    // Guards the in-memory queues only, so appending never waits for the disk
+    private final Object queueLock = new Object();
+    private final LinkedHashMap<Long, QueuedPut> queuedPuts = new LinkedHashMap<>();
+    private List<Long> queuedAcks = new ArrayList<>();
+
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+    private final Map<Long, PendingEntry> pending = new LinkedHashMap<>();
+    private final List<SpooledDelivery> recovered;
+    private final ByteArrayOutputStream recordBuffer = new ByteArrayOutputStream(512);
+    private final CRC32 crc = new CRC32();
+
+    private Segment active;
+    private FileChannel activeChannel;
+    private long nextId = 1;
+    private long totalBytes;
+    private long discardedCount;
+    private boolean closed; // guarded by queueLock
+
+    /**
+     * A delivery read back from the spool.
+     */
+    public record SpooledDelivery(long id, String targetName, NotificationPayload payload) {}
+
+    private record PendingEntry(SpooledDelivery delivery, long segmentId) {}
+
+    private record QueuedPut(SpooledDelivery delivery, long queuedAtNanos) {}
+
+    private static final class Segment {
+        final long id;
+        final Path path;
+        long size;
+        int live;
+        int total;
+
+        Segment(long id, Path path) {
+            this.id = id;
+            this.path = path;
+        }
+    }
+
+    private DeliverySpool(Path directory, long maxBytes, long writeDelayMs, Consumer<String> logger) {
+        this.directory = directory;
+        this.maxBytes = Math.max(MAX_SEGMENT_BYTES / 16, maxBytes);
+        this.segmentBytes = Math.min(MAX_SEGMENT_BYTES, this.maxBytes / 4);
+        this.writeDelayMs = Math.max(0, writeDelayMs);
+        this.logger = logger;
+        this.recovered = new ArrayList<>();
+        this.writer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "EventNotifications-Spool");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Opens the spool in the given directory, recovering any deliveries left by the
+     * previous run. They are available from {@link #getRecovered()}.
+     *
+     * @param writeDelayMs how long a delivery stays in memory before it is written
+     */
+    public static DeliverySpool open(Path directory, long maxBytes, long writeDelayMs,
+                                     Consumer<String> logger) throws IOException {
+        DeliverySpool spool = new DeliverySpool(directory, maxBytes, writeDelayMs, logger);
+        try {
+            Files.createDirectories(directory);
+            spool.recover();
+            spool.openNewSegment();
+        } catch (IOException e) {
+            spool.writer.shutdownNow();
+            throw e;
+        }
+        long interval = Math.max(MIN_WRITE_INTERVAL_MS, spool.writeDelayMs / 2);
+        spool.writer.scheduleWithFixedDelay(() -> spool.writeQueued(false), interval, interval, TimeUnit.MILLISECONDS);
+        return spool;
+    }
+
+    private void recover() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    long id = Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+                    segments.put(id, new Segment(id, file));
+                } catch (NumberFormatException e) {
+                    logger.accept("Ignoring unexpected file in spool directory: " + name);
+                }
+            }
+        }
+
+        for (Segment segment : segments.values()) {
+            readSegment(segment);
+            totalBytes += segment.size;
+        }
+
+        for (PendingEntry entry : pending.values()) {
+            recovered.add(entry.delivery());
+        }
+        if (!recovered.isEmpty()) {
+            logger.accept("Recovered " + recovered.size() + " undelivered notifications from the spool");
+        }
+
+        deleteCompletedSegments();
+    }
+
+    private void readSegment(Segment segment) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(segment.path));
+        long validBytes = 0;
+
+        while (buffer.remaining() >= HEADER_BYTES) {
+            int length = buffer.getInt();
+            int checksum = buffer.getInt();
+            if (length <= 0 || length > buffer.remaining()) {
+                break;
+            }
+
+            ByteBuffer record = buffer.slice();
+            record.limit(length);
+            crc.reset();
+            crc.update(record.duplicate());
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+
+            try {
+                applyRecord(segment, record);
+            } catch (BufferUnderflowException | IllegalArgumentException e) {
+                break;
+            }
+            buffer.position(buffer.position() + length);
+            validBytes = buffer.position();
+        }
+
+        if (validBytes < buffer.capacity()) {
+            // Torn write from a crash: keep everything before it
+            logger.accept("Truncating incomplete spool record in " + segment.path.getFileName()
+                    + " at byte " + validBytes);
+            try (FileChannel channel = FileChannel.open(segment.path, StandardOpenOption.WRITE)) {
+                channel.truncate(validBytes);
+            }
+        }
+        segment.size = validBytes;
+    }
+
+    private void applyRecord(Segment segment, ByteBuffer record) {
+        byte type = record.get();
+        long id = record.getLong();
+        nextId = Math.max(nextId, id + 1);
+
+        if (type == RECORD_PUT) {
+            String targetName = readString(record);
+            String title = readString(record);
+            String message = readString(record);
+            int extrasCount = record.getInt();
+            Map<String, Object> extras = new HashMap<>(Math.max(4, extrasCount * 2));
+            for (int i = 0; i < extrasCount; i++) {
+                String key = readString(record);
+                extras.put(key, readValue(record));
+            }
+
+            // A compacted PUT replaces its older copy
+            PendingEntry previous = pending.remove(id);
+            if (previous != null) {
+                segments.get(previous.segmentId()).live--;
+            }
+            pending.put(id, new PendingEntry(
+                    new SpooledDelivery(id, targetName, new NotificationPayload(title, message, extras)), segment.id));
+            segment.live++;
+            segment.total++;
+        } else if (type == RECORD_ACK) {
+            PendingEntry entry = pending.remove(id);
+            if (entry != null) {
+                segments.get(entry.segmentId()).live--;
+            }
+        } else {
+            throw new IllegalArgumentException("Unknown spool record type " + type);
+        }
+    }
+
+    /**
+     * Deliveries left over from the previous run, oldest first.
+     */
+    public List<SpooledDelivery> getRecovered() {
+        return List.copyOf(recovered);
+    }
+
+    /**
+     * Adds a delivery to the spool. It is written to disk by the background thread once it
+     * has been pending for the write delay.
+     *
+     * @return the spool id to acknowledge once the delivery completes, or 0 if the spool is closed
+     */
+    public long append(String targetName, NotificationPayload payload) {
+        synchronized (queueLock) {
+            if (closed) {
+                return 0;
+            }
+            long id = nextId++;
+            queuedPuts.put(id, new QueuedPut(new SpooledDelivery(id, targetName, payload), System.nanoTime()));
+            return id;
+        }
+    }
+
+    /**
+     * Marks a delivery as completed, so it is not sent again after a restart.
+     */
+    public void acknowledge(long id) {
+        synchronized (queueLock) {
+            // Completed before it was written: nothing to do on disk
+            if (closed || queuedPuts.remove(id) != null) {
+                return;
+            }
+            queuedAcks.add(id);
+        }
+    }
+
+    /**
+     * Writes queued acknowledgements and the deliveries that have been pending for the
+     * write delay, or every queued delivery if {@code everything} is set.
+     */
+    private synchronized void writeQueued(boolean everything) {
+        List<SpooledDelivery> puts = new ArrayList<>();
+        List<Long> acks;
+        long cutoff = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(writeDelayMs);
+        synchronized (queueLock) {
+            Iterator<QueuedPut> iterator = queuedPuts.values().iterator();
+            while (iterator.hasNext()) {
+                QueuedPut queued = iterator.next();
+                if (!everything && queued.queuedAtNanos() - cutoff > 0) {
+                    break;
+                }
+                puts.add(queued.delivery());
+                iterator.remove();
+            }
+            acks = queuedAcks;
+            queuedAcks = new ArrayList<>();
+        }
+        if ((puts.isEmpty() && acks.isEmpty()) || !activeChannel.isOpen()) {
+            return;
+        }
+
+        try {
+            for (SpooledDelivery delivery : puts) {
+                if (active.size >= segmentBytes) {
+                    rollSegment();
+                }
+                writePut(delivery.id(), delivery.targetName(), delivery.payload());
+                pending.put(delivery.id(), new PendingEntry(delivery, active.id));
+                active.live++;
+                active.total++;
+            }
+            for (long id : acks) {
+                PendingEntry entry = pending.remove(id);
+                if (entry == null) {
+                    continue;
+                }
+                Segment segment = segments.get(entry.segmentId());
+                if (segment != null) {
+                    segment.live--;
+                }
+                writeRecord(RECORD_ACK, id, null);
+            }
+            deleteCompletedSegments();
+            enforceSizeLimit();
+        } catch (IOException | RuntimeException e) {
+            // Keeps the writer running; the deliveries stay pending in memory
+            logger.accept("Failed to write to the spool: " + e.getMessage());
+        }
+    }
+
+    private void writePut(long id, String targetName, NotificationPayload payload) throws IOException {
+        writeRecord(RECORD_PUT, id, data -> {
+            writeString(data, targetName);
+            writeString(data, payload.title());
+            writeString(data, payload.message());
+            data.writeInt(payload.extras().size());
+            for (Map.Entry<String, Object> extra : payload.extras().entrySet()) {
+                writeString(data, extra.getKey());
+                writeValue(data, extra.getValue());
+            }
+        });
+    }
+
+    private interface RecordWriter {
+        void write(DataOutputStream data) throws IOException;
+    }
+
+    private void writeRecord(byte type, long id, RecordWriter body) throws IOException {
+        recordBuffer.reset();
+        DataOutputStream data = new DataOutputStream(recordBuffer);
+        data.writeInt(0);
+        data.writeInt(0);
+        data.writeByte(type);
+        data.writeLong(id);
+        if (body != null) {
+            body.write(data);
+        }
+
+        ByteBuffer record = ByteBuffer.wrap(recordBuffer.toByteArray());
+        int length = record.capacity() - HEADER_BYTES;
+        crc.reset();
+        crc.update(record.array(), HEADER_BYTES, length);
+        record.putInt(0, length);
+        record.putInt(4, (int) crc.getValue());
+
+        while (record.hasRemaining()) {
+            activeChannel.write(record);
+        }
+        active.size += record.capacity();
+        totalBytes += record.capacity();
+    }
+
+    private void openNewSegment() throws IOException {
+        long id = segments.isEmpty() ? 1 : segments.lastKey() + 1;
+        Path path = directory.resolve(String.format("%s%016d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX));
+        activeChannel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        active = new Segment(id, path);
+        segments.put(id, active);
+    }
+
+    private void rollSegment() throws IOException {
+        activeChannel.force(false);
+        activeChannel.close();
+        openNewSegment();
+        deleteCompletedSegments();
+        compactOldestSegments();
+    }
+
+    /**
+     * Copies the remaining PUTs of mostly acknowledged segments into the active segment,
+     * so one long-pending delivery does not keep a whole old segment on disk.
+     */
+    private void compactOldestSegments() throws IOException {
+        for (Segment segment : List.copyOf(segments.values())) {
+            if (segment == active || !isMostlyAcknowledged(segment)) {
+                break;
+            }
+            compactSegment(segment);
+        }
+    }
+
+    private static boolean isMostlyAcknowledged(Segment segment) {
+        return segment.live * 4 <= segment.total;
+    }
+
+    private void compactSegment(Segment segment) throws IOException {
+        for (Map.Entry<Long, PendingEntry> entry : pending.entrySet()) {
+            PendingEntry pendingEntry = entry.getValue();
+            if (pendingEntry.segmentId() == segment.id) {
+                SpooledDelivery delivery = pendingEntry.delivery();
+                writePut(delivery.id(), delivery.targetName(), delivery.payload());
+                entry.setValue(new PendingEntry(delivery, active.id));
+                active.live++;
+                active.total++;
+            }
+        }
+        segment.live = 0;
+        deleteCompletedSegments();
+    }
+
+    private void deleteCompletedSegments() throws IOException {
+        Iterator<Segment> iterator = segments.values().iterator();
+        while (iterator.hasNext()) {
+            Segment segment = iterator.next();
+            if (segment == active || segment.live > 0) {
+                break;
+            }
+            Files.deleteIfExists(segment.path);
+            totalBytes -= segment.size;
+            iterator.remove();
+        }
+    }
+
+    private void enforceSizeLimit() throws IOException {
+        while (totalBytes > maxBytes && segments.firstEntry().getValue() != active) {
+            Segment oldest = segments.firstEntry().getValue();
+            if (isMostlyAcknowledged(oldest)) {
+                compactSegment(oldest);
+                continue;
+            }
+
+            int lost = 0;
+            Iterator<PendingEntry> iterator = pending.values().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().segmentId() == oldest.id) {
+                    iterator.remove();
+                    lost++;
+                }
+            }
+            discardedCount += lost;
+            oldest.live = 0;
+            deleteCompletedSegments();
+            logger.accept("Spool is full (" + maxBytes / 1024 + " KiB), " + lost
+                    + " undelivered notifications will not be kept across a restart");
+        }
+    }
+
+    /**
+     * Writes every queued delivery, forces outstanding records to disk and closes the active
+     * segment. Deliveries that were not acknowledged are recovered on the next startup.
+     */
+    public void close() {
+        synchronized (queueLock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        writer.shutdown();
+        try {
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        closeSegments();
+    }
+
+    private synchronized void closeSegments() {
+        writeQueued(true);
+        try {
+            activeChannel.force(false);
+            activeChannel.close();
+            if (active.live == 0 && segments.size() == 1) {
+                // Nothing pending, leave an empty spool directory behind
+                Files.deleteIfExists(active.path);
+            }
+        } catch (IOException e) {
+            logger.accept("Failed to close the spool: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Number of deliveries in the spool, written or not, that were not acknowledged yet.
+     */
+    public synchronized int getPendingCount() {
+        synchronized (queueLock) {
+            return pending.size() + queuedPuts.size();
+        }
+    }
+
+    /**
+     * Bytes currently used by the spool segments.
+     */
+    public synchronized long getDiskUsage() {
+        return totalBytes;
+    }
+
+    /**
+     * Number of pending deliveries discarded from disk because the spool was full.
+     */
+    public synchronized long getDiscardedCount() {
+        return discardedCount;
+    }
+
+    private static void writeString(DataOutputStream data, String value) throws IOException {
+        if (value == null) {
+            data.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        data.writeInt(bytes.length);
+        data.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        if (length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    // Template extras are plain YAML scalars; anything else is kept as its string form
+    private static void writeValue(DataOutputStream data, Object value) throws IOException {
+        if (value instanceof Boolean b) {
+            data.writeByte(VALUE_BOOLEAN);
+            data.writeBoolean(b);
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            data.writeByte(VALUE_LONG);
+            data.writeLong(((Number) value).longValue());
+        } else if (value instanceof Number n) {
+            data.writeByte(VALUE_DOUBLE);
+            data.writeDouble(n.doubleValue());
+        } else {
+            data.writeByte(VALUE_STRING);
+            writeString(data, value != null ? value.toString() : null);
+        }
+    }
+
+    private static Object readValue(ByteBuffer buffer) {
+        byte type = buffer.get();
+        return switch (type) {
+            case VALUE_BOOLEAN -> buffer.get() != 0;
+            case VALUE_LONG -> buffer.getLong();
+            case VALUE_DOUBLE -> buffer.getDouble();
+            case VALUE_STRING -> readString(buffer);
+            default -> throw new IllegalArgumentException("Unknown spool value type " + type);
+        };
+    }
+}
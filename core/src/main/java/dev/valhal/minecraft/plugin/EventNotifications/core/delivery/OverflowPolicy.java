@@ -0,0 +1,43 @@
+package dev.valhal.minecraft.plugin.EventNotifications.core.delivery;
+
+/**
+ * What the delivery queue does with a new notification when it is full.
+ */
+public enum OverflowPolicy {
+    /**
+     * Evict the oldest queued notification to make room for the new one.
+     */
+    DROP_OLDEST("drop_oldest"),
+
+    /**
+     * Reject the new notification and keep the queue as it is.
+     */
+    DROP_NEWEST("drop_newest"),
+
+    /**
+     * Wait up to the configured deadline for space, then reject the new notification.
+     * Retries are put back without waiting and evict the oldest notification instead.
+     */
+    BLOCK("block");
+
+    private final String configKey;
+
+    OverflowPolicy(String configKey) {
+        this.configKey = configKey;
+    }
+
+    public String getConfigKey() {
+        return configKey;
+    }
+
+    public static OverflowPolicy fromString(String value) {
+        if (value == null || value.isBlank()) {
+            return DROP_OLDEST;
+        }
+        return switch (value.toLowerCase()) {
+            case "drop_newest", "newest" -> DROP_NEWEST;
+            case "block" -> BLOCK;
+            default -> DROP_OLDEST;
+        };
+    }
+}
@@ -0,0 +1,252 @@
+package dev.valhal.minecraft.plugin.EventNotifications.core.delivery;
+
+import dev.valhal.minecraft.plugin.EventNotifications.core.config.BatchConfig;
+import dev.valhal.minecraft.plugin.EventNotifications.core.notification.NotificationPayload;
+import dev.valhal.minecraft.plugin.EventNotifications.core.notification.NotificationResult;
+import dev.valhal.minecraft.plugin.EventNotifications.core.notification.RateLimiter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Coalesces payloads for a single target into batches.
+ * A batch is sent when it reaches the maximum size, when the next payload would push it
+ * over the weight limit (e.g. a service's total character limit), or when the linger
+ * window since its first payload expires. Every payload in a batch completes with the
+ * result of the request that carried it.
+ * <p>
+ * The target's rate limit is charged once per request, when a batch is sent. A batch that
+ * gets no permit waits for one; an unfinished batch keeps collecting payloads meanwhile, so
+ * a burst ends up in fewer, fuller requests. As many full batches may wait as the bucket
+ * holds; past that the oldest one fails as a retryable 429 asking to come back once the next
+ * permit is due, so the retry policy puts its payloads into a later batch.
+ */
+public class PayloadBatcher {
+    private final String targetName;
+    private final int maxSize;
+    private final long lingerNanos;
+    private final int maxWeight;
+    private final ToIntFunction<NotificationPayload> weigher;
+    private final Function<List<NotificationPayload>, CompletableFuture<NotificationResult>> sender;
+    private final RateLimiter rateLimiter;
+    private final ScheduledExecutorService scheduler;
+    // Full batches that may wait for a permit before the oldest is deferred
+    private final int maxWaitingBatches;
+
+    private final Object lock = new Object();
+    private List<Pending> pending = new ArrayList<>();
+    private int pendingWeight;
+    private long pendingSince;
+    private final Deque<List<Pending>> waiting = new ArrayDeque<>();
+    // Fires when the linger window expires or a permit becomes available, whichever is due
+    private ScheduledFuture<?> timer;
+    private long timerDeadline;
+
+    /**
+     * @param maxWeight   Maximum combined weight of a batch, as measured by the weigher
+     * @param sender      Sends one batch as a single request
+     * @param rateLimiter The target's rate limit, charged once per batch, or null for none
+     */
+    public PayloadBatcher(String targetName, BatchConfig config, int maxWeight,
+                          ToIntFunction<NotificationPayload> weigher,
+                          Function<List<NotificationPayload>, CompletableFuture<NotificationResult>> sender,
+                          RateLimiter rateLimiter, ScheduledExecutorService scheduler) {
+        this.targetName = targetName;
+        this.maxSize = Math.max(1, config.maxSize());
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(config.lingerMs());
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+        this.sender = sender;
+        this.rateLimiter = rateLimiter;
+        this.scheduler = scheduler;
+        this.maxWaitingBatches = rateLimiter != null ? (int) Math.min(Integer.MAX_VALUE, rateLimiter.getMaxTokens()) : 1;
+    }
+
+    public CompletableFuture<NotificationResult> add(NotificationPayload payload) {
+        Pending entry = new Pending(payload, new CompletableFuture<>());
+        int weight = weigher.applyAsInt(payload);
+        List<List<Pending>> ready = new ArrayList<>(2);
+        List<List<Pending>> deferred = new ArrayList<>(1);
+
+        synchronized (lock) {
+            // Close the current batch first if this payload would not fit in it
+            if (!pending.isEmpty() && pendingWeight + weight > maxWeight) {
+                waiting.add(takePending());
+            }
+
+            if (pending.isEmpty()) {
+                pendingSince = System.nanoTime();
+            }
+            pending.add(entry);
+            pendingWeight += weight;
+
+            if (pending.size() >= maxSize) {
+                waiting.add(takePending());
+            }
+            takeSendable(ready, false);
+            while (waiting.size() > maxWaitingBatches) {
+                deferred.add(waiting.poll());
+            }
+            scheduleTimer();
+        }
+
+        for (List<Pending> batch : deferred) {
+            defer(batch);
+        }
+        for (List<Pending> batch : ready) {
+            send(batch);
+        }
+        return entry.result();
+    }
+
+    /**
+     * Sends whatever is pending right away, without waiting for the rate limit.
+     */
+    public void flush() {
+        List<List<Pending>> ready;
+        synchronized (lock) {
+            ready = new ArrayList<>(waiting);
+            waiting.clear();
+            if (!pending.isEmpty()) {
+                ready.add(takePending());
+            }
+            cancelTimer();
+        }
+        for (List<Pending> batch : ready) {
+            send(batch);
+        }
+    }
+
+    private void onTimer() {
+        List<List<Pending>> ready = new ArrayList<>(2);
+        synchronized (lock) {
+            timer = null;
+            takeSendable(ready, System.nanoTime() - (pendingSince + lingerNanos) >= 0);
+            scheduleTimer();
+        }
+        for (List<Pending> batch : ready) {
+            send(batch);
+        }
+    }
+
+    /**
+     * Number of payloads waiting for their batch to be sent.
+     */
+    public int getPendingCount() {
+        synchronized (lock) {
+            int count = pending.size();
+            for (List<Pending> batch : waiting) {
+                count += batch.size();
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Moves full batches, and the open one once its linger window expired, to {@code ready}
+     * for as long as the rate limit hands out permits. Called with the lock held.
+     */
+    private void takeSendable(List<List<Pending>> ready, boolean lingerExpired) {
+        while (!waiting.isEmpty() && tryAcquirePermit()) {
+            ready.add(waiting.poll());
+        }
+        if (waiting.isEmpty() && lingerExpired && !pending.isEmpty() && tryAcquirePermit()) {
+            ready.add(takePending());
+        }
+    }
+
+    private boolean tryAcquirePermit() {
+        return rateLimiter == null || rateLimiter.tryAcquire();
+    }
+
+    /**
+     * Makes sure the timer fires when the next batch could go out: as soon as a permit is
+     * available for a waiting batch, otherwise when the open batch's linger window expires.
+     * Called with the lock held.
+     */
+    private void scheduleTimer() {
+        long now = System.nanoTime();
+        long delay;
+        if (!waiting.isEmpty()) {
+            delay = rateLimiter.nanosUntilNextPermit();
+        } else if (!pending.isEmpty()) {
+            delay = Math.max(0, pendingSince + lingerNanos - now);
+            if (delay == 0 && rateLimiter != null) {
+                delay = rateLimiter.nanosUntilNextPermit();
+            }
+        } else {
+            cancelTimer();
+            return;
+        }
+
+        long deadline = now + delay;
+        if (timer != null) {
+            if (timerDeadline - deadline <= 0) {
+                return;
+            }
+            timer.cancel(false);
+        }
+        timer = scheduler.schedule(this::onTimer, delay, TimeUnit.NANOSECONDS);
+        timerDeadline = deadline;
+    }
+
+    private void cancelTimer() {
+        if (timer != null) {
+            timer.cancel(false);
+            timer = null;
+        }
+    }
+
+    private List<Pending> takePending() {
+        List<Pending> batch = pending;
+        pending = new ArrayList<>();
+        pendingWeight = 0;
+        return batch;
+    }
+
+    /**
+     * Completes a batch that is not sent now with a retryable 429, asking to retry once the
+     * next permit is due.
+     */
+    private void defer(List<Pending> batch) {
+        long retryAfterMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(rateLimiter.nanosUntilNextPermit()) + 1);
+        NotificationResult result = NotificationResult.retryableFailure(targetName,
+                "Rate limited: too many batches waiting for a request", 429, retryAfterMillis);
+        for (Pending entry : batch) {
+            entry.result().complete(result);
+        }
+    }
+
+    private void send(List<Pending> batch) {
+        List<NotificationPayload> payloads = new ArrayList<>(batch.size());
+        for (Pending entry : batch) {
+            payloads.add(entry.payload());
+        }
+
+        CompletableFuture<NotificationResult> future;
+        try {
+            future = sender.apply(payloads);
+        } catch (Exception e) {
+            future = CompletableFuture.completedFuture(NotificationResult.failure(targetName, e.getMessage()));
+        }
+
+        future.whenComplete((result, error) -> {
+            NotificationResult outcome = error != null
+                    ? NotificationResult.failure(targetName, error.getMessage())
+                    : result;
+            for (Pending entry : batch) {
+                entry.result().complete(outcome);
+            }
+        });
+    }
+
+    private record Pending(NotificationPayload payload, CompletableFuture<NotificationResult> result) {}
+}
@@ -0,0 +1,58 @@
+package dev.valhal.minecraft.plugin.EventNotifications.core.delivery;
+
+import dev.valhal.minecraft.plugin.EventNotifications.core.notification.NotificationResult;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Capped exponential backoff with jitter for failed deliveries.
+ * The n-th retry waits baseDelayMs * 2^(n-1), capped at maxDelayMs, with up to
+ * {@code jitter} of that delay randomly taken off so retries from a burst spread out.
+ * A Retry-After delay sent by the server replaces the computed backoff.
+ */
+public record RetryPolicy(
+        int maxAttempts,
+        long baseDelayMs,
+        long maxDelayMs,
+        double jitter
+) {
+    public static final int DEFAULT_MAX_ATTEMPTS = 5;
+    public static final long DEFAULT_BASE_DELAY_MS = 1000;
+    public static final long DEFAULT_MAX_DELAY_MS = 60_000;
+    public static final double DEFAULT_JITTER = 0.5;
+
+    // Upper bound for server-provided delays, in case of a bogus Retry-After header
+    private static final long MAX_RETRY_AFTER_MS = 10 * 60_000;
+
+    public static RetryPolicy defaults() {
+        return new RetryPolicy(DEFAULT_MAX_ATTEMPTS, DEFAULT_BASE_DELAY_MS, DEFAULT_MAX_DELAY_MS, DEFAULT_JITTER);
+    }
+
+    /**
+     * Whether a delivery that failed on the given attempt (1-based) should be tried again.
+     */
+    public boolean shouldRetry(int attempt, NotificationResult result) {
+        return !result.success() && result.retryable() && attempt < maxAttempts;
+    }
+
+    /**
+     * Delay before the attempt following the given failed attempt (1-based).
+     */
+    public long delayMillis(int attempt, NotificationResult result) {
+        if (result.retryAfterMillis() > 0) {
+            return Math.min(result.retryAfterMillis(), MAX_RETRY_AFTER_MS);
+        }
+
+        long delay = Math.max(0, baseDelayMs);
+        for (int i = 1; i < attempt && delay < maxDelayMs; i++) {
+            delay *= 2;
+        }
+        delay = Math.min(delay, maxDelayMs);
+
+        double spread = Math.min(1.0, Math.max(0.0, jitter));
+        if (spread > 0 && delay > 0) {
+            delay -= (long) (delay * spread * ThreadLocalRandom.current().nextDouble());
+        }
+        return delay;
+    }
+}
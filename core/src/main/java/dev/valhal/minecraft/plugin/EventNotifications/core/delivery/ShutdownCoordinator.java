@@ -0,0 +1,88 @@
+package dev.valhal.minecraft.plugin.EventNotifications.core.delivery;
+
+import dev.valhal.minecraft.plugin.EventNotifications.core.notification.NotificationTarget;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Flushes outstanding deliveries when the server stops.
+ * Queued deliveries are reordered so urgent ones go out first, pending batches are sent
+ * right away, and the caller waits until everything completed or the deadline passed.
+ * Whatever is left is abandoned; with the spool enabled it is sent on the next startup.
+ */
+public class ShutdownCoordinator {
+    private static final long POLL_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final DeliveryDispatcher dispatcher;
+    private final List<NotificationTarget> targets;
+    private final Consumer<String> logger;
+
+    /**
+     * Outcome of a shutdown flush.
+     *
+     * @param delivered deliveries sent successfully during the flush
+     * @param failed    deliveries that failed for good during the flush
+     * @param abandoned deliveries not completed at the deadline: queued, in flight, batched,
+     *                  waiting for a retry or held back by an open circuit breaker
+     */
+    public record ShutdownReport(long delivered, long failed, int abandoned, long elapsedMillis) {
+        public boolean timedOut() {
+            return abandoned > 0;
+        }
+    }
+
+    public ShutdownCoordinator(DeliveryDispatcher dispatcher, List<NotificationTarget> targets, Consumer<String> logger) {
+        this.dispatcher = dispatcher;
+        this.targets = targets;
+        this.logger = logger;
+    }
+
+    /**
+     * Sends outstanding deliveries, blocking until they completed or the timeout elapsed.
+     */
+    public ShutdownReport flush(Duration timeout) {
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+        long deliveredBefore = dispatcher.getDeliveredCount();
+        long failedBefore = dispatcher.getFailedCount();
+
+        dispatcher.prioritizeQueued();
+
+        while (!dispatcher.isIdle() && System.nanoTime() - deadline < 0) {
+            // Deliveries reaching a batching target during the flush must not wait for the linger window
+            flushTargets();
+            LockSupport.parkNanos(POLL_INTERVAL_NANOS);
+        }
+
+        int abandoned = dispatcher.getOutstandingCount();
+        ShutdownReport report = new ShutdownReport(
+                dispatcher.getDeliveredCount() - deliveredBefore,
+                dispatcher.getFailedCount() - failedBefore,
+                abandoned,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)
+        );
+
+        if (report.timedOut()) {
+            logger.accept("Shutdown flush timed out after " + report.elapsedMillis() + " ms: " + report.delivered()
+                    + " delivered, " + report.failed() + " failed, " + report.abandoned() + " abandoned");
+        } else if (report.delivered() > 0 || report.failed() > 0) {
+            logger.accept("Shutdown flush finished in " + report.elapsedMillis() + " ms: " + report.delivered()
+                    + " delivered, " + report.failed() + " failed");
+        }
+        return report;
+    }
+
+    private void flushTargets() {
+        for (NotificationTarget target : targets) {
+            try {
+                target.flush();
+            } catch (Exception e) {
+                logger.accept("Failed to flush " + target.getName() + ": " + e.getMessage());
+            }
+        }
+    }
+}
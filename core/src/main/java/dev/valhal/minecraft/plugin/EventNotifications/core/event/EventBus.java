@@ -1,26 +1,325 @@
 package dev.valhal.minecraft.plugin.EventNotifications.core.event;
 
-import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
 
+/**
+ * Hands game events from the server thread to the handlers.
+ * Publishing claims a slot in a pre-allocated ring buffer, wakes the consumer if it is
+ * waiting and returns; the handlers run on a single consumer thread, in publish order.
+ * If the consumer falls a full ring behind, new events are dropped and counted, except
+ * server startup and shutdown, which wait for a free slot instead.
+ * <p>
+ * Handlers subscribe to the event types they care about. Subscriptions are kept per type,
+ * indexed by ordinal, so publishing a type nobody subscribed to is a mask check and a return.
+ */
 public class EventBus {
-    private final List<EventHandler> handlers = new CopyOnWriteArrayList<>();
+    public static final int DEFAULT_CAPACITY = 1024;
 
+    private static final long FULL_RING_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final long CLOSE_TIMEOUT_MILLIS = 2000;
+    // Drops and handler errors are logged at most this often; the drop count is in the metrics
+    private static final long LOG_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private static final EventHandler[] NO_HANDLERS = new EventHandler[0];
+    private static final GameEventType[] TYPES = GameEventType.values();
+
+    // Copy-on-write: handlersByType[type.ordinal()] is replaced, never modified, under the bus lock
+    private volatile EventHandler[][] handlersByType;
+    // One bit per GameEventType ordinal, so publish can skip unsubscribed types without touching the array
+    private volatile long subscribedMask;
+
+    // Ring buffer: slot i holds sequence s where i = s & mask; published[i] is s + 1 once the slot is filled
+    private final GameEvent[] slots;
+    private final AtomicLongArray published;
+    private final int mask;
+    private final AtomicLong nextSequence = new AtomicLong();
+    private final AtomicLong consumedSequence = new AtomicLong();
+    private final LongAdder droppedCount = new LongAdder();
+    private final Consumer<String> logger;
+    private final AtomicLong nextDropLogNanos;
+    // Only touched by the consumer thread
+    private long nextErrorLogNanos;
+    private long suppressedErrors;
+
+    private volatile Thread consumer;
+    // Set by the consumer before it parks, so publishers only unpark it when it may be asleep
+    private volatile boolean consumerWaiting;
+    private volatile boolean closed;
+
+    public EventBus(Consumer<String> logger) {
+        this(DEFAULT_CAPACITY, logger);
+    }
+
+    /**
+     * @param capacity number of events that can wait for the consumer, rounded up to a power of two
+     */
+    public EventBus(int capacity, Consumer<String> logger) {
+        this.logger = logger;
+        this.nextDropLogNanos = new AtomicLong(System.nanoTime());
+        this.nextErrorLogNanos = System.nanoTime();
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        this.slots = new GameEvent[size];
+        this.published = new AtomicLongArray(size);
+        this.mask = size - 1;
+        EventHandler[][] handlers = new EventHandler[TYPES.length][];
+        Arrays.fill(handlers, NO_HANDLERS);
+        this.handlersByType = handlers;
+    }
+
+    /**
+     * Subscribes a handler to every event type.
+     */
     public void subscribe(EventHandler handler) {
-        handlers.add(handler);
+        subscribe(EnumSet.allOf(GameEventType.class), handler);
     }
 
-    public void unsubscribe(EventHandler handler) {
-        handlers.remove(handler);
+    public void subscribe(GameEventType type, EventHandler handler) {
+        subscribe(EnumSet.of(type), handler);
     }
 
+    /**
+     * Subscribes a handler to the given event types. Subscribing again to a type it
+     * already receives has no effect.
+     */
+    public synchronized void subscribe(Set<GameEventType> types, EventHandler handler) {
+        EventHandler[][] handlers = handlersByType.clone();
+        for (GameEventType type : types) {
+            EventHandler[] current = handlers[type.ordinal()];
+            if (!contains(current, handler)) {
+                EventHandler[] updated = Arrays.copyOf(current, current.length + 1);
+                updated[current.length] = handler;
+                handlers[type.ordinal()] = updated;
+            }
+        }
+        update(handlers);
+        startConsumer();
+    }
+
+    /**
+     * Replaces the event types a handler is subscribed to. Types in both the old and the
+     * new set keep receiving events throughout, unlike an unsubscribe followed by a subscribe.
+     */
+    public synchronized void resubscribe(Set<GameEventType> types, EventHandler handler) {
+        EventHandler[][] handlers = handlersByType.clone();
+        for (GameEventType type : TYPES) {
+            EventHandler[] current = handlers[type.ordinal()];
+            boolean subscribed = contains(current, handler);
+            if (types.contains(type) && !subscribed) {
+                EventHandler[] updated = Arrays.copyOf(current, current.length + 1);
+                updated[current.length] = handler;
+                handlers[type.ordinal()] = updated;
+            } else if (!types.contains(type) && subscribed) {
+                handlers[type.ordinal()] = without(current, handler);
+            }
+        }
+        update(handlers);
+        startConsumer();
+    }
+
+    /**
+     * Removes a handler from all event types.
+     */
+    public synchronized void unsubscribe(EventHandler handler) {
+        EventHandler[][] handlers = handlersByType.clone();
+        for (int i = 0; i < handlers.length; i++) {
+            if (contains(handlers[i], handler)) {
+                handlers[i] = without(handlers[i], handler);
+            }
+        }
+        update(handlers);
+    }
+
+    private static EventHandler[] without(EventHandler[] handlers, EventHandler handler) {
+        return Arrays.stream(handlers)
+                .filter(h -> h != handler)
+                .toArray(EventHandler[]::new);
+    }
+
+    private static boolean contains(EventHandler[] handlers, EventHandler handler) {
+        for (EventHandler h : handlers) {
+            if (h == handler) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void update(EventHandler[][] handlers) {
+        long subscribed = 0;
+        for (int i = 0; i < handlers.length; i++) {
+            if (handlers[i].length > 0) {
+                subscribed |= 1L << i;
+            }
+        }
+        handlersByType = handlers;
+        subscribedMask = subscribed;
+    }
+
+    /**
+     * Whether any handler receives events of the given type. Platform adapters can use
+     * this to skip building events nobody listens to.
+     */
+    public boolean hasSubscribers(GameEventType type) {
+        return (subscribedMask & (1L << type.ordinal())) != 0;
+    }
+
+    /**
+     * Queues an event for the handlers. Safe to call from any thread, but meant to be
+     * cheap on the server thread: one slot claim, two stores and, if the consumer is idle,
+     * an unpark. Only server startup and shutdown can wait, and only while the ring is full.
+     */
     public void publish(GameEvent event) {
-        for (EventHandler handler : handlers) {
+        if (closed || !hasSubscribers(event.getType())) {
+            return;
+        }
+
+        long sequence;
+        while (true) {
+            sequence = nextSequence.get();
+            if (sequence - consumedSequence.get() < slots.length) {
+                if (nextSequence.compareAndSet(sequence, sequence + 1)) {
+                    break;
+                }
+            } else if (isLifecycle(event.getType())) {
+                // Startup and shutdown are never dropped; the consumer frees a slot soon
+                wakeConsumer();
+                LockSupport.parkNanos(FULL_RING_PARK_NANOS);
+                if (closed) {
+                    return;
+                }
+            } else {
+                onDropped();
+                return;
+            }
+        }
+
+        int index = (int) sequence & mask;
+        slots[index] = event;
+        // A full store, so it cannot be reordered after the read of consumerWaiting
+        published.set(index, sequence + 1);
+        if (consumerWaiting) {
+            wakeConsumer();
+        }
+    }
+
+    private static boolean isLifecycle(GameEventType type) {
+        return type == GameEventType.SERVER_STARTUP || type == GameEventType.SERVER_SHUTDOWN;
+    }
+
+    private void wakeConsumer() {
+        Thread thread = consumer;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private void onDropped() {
+        droppedCount.increment();
+        long now = System.nanoTime();
+        long next = nextDropLogNanos.get();
+        if (now - next >= 0 && nextDropLogNanos.compareAndSet(next, now + LOG_INTERVAL_NANOS)) {
+            logger.accept("Event buffer full (capacity " + slots.length
+                    + "), dropping events until the handlers catch up");
+        }
+    }
+
+    private synchronized void startConsumer() {
+        if (consumer != null || closed) {
+            return;
+        }
+        consumer = new Thread(this::consume, "EventNotifications-EventBus");
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    private void consume() {
+        long sequence = consumedSequence.get();
+
+        while (true) {
+            int index = (int) sequence & mask;
+            if (published.get(index) != sequence + 1) {
+                if (closed && sequence == nextSequence.get()) {
+                    return;
+                }
+                consumerWaiting = true;
+                // Check again after announcing the wait, so an event published in between is not missed
+                if (published.get(index) != sequence + 1 && !closed) {
+                    LockSupport.park(this);
+                }
+                consumerWaiting = false;
+                continue;
+            }
+
+            GameEvent event = slots[index];
+            slots[index] = null;
+            sequence++;
+            consumedSequence.lazySet(sequence);
+            dispatch(event);
+        }
+    }
+
+    private void dispatch(GameEvent event) {
+        for (EventHandler handler : handlersByType[event.getType().ordinal()]) {
             try {
                 handler.handle(event);
             } catch (Exception e) {
-                System.err.println("Error handling event " + event.getType() + ": " + e.getMessage());
+                onHandlerError(event, e);
             }
         }
     }
+
+    private void onHandlerError(GameEvent event, Exception e) {
+        long now = System.nanoTime();
+        if (now - nextErrorLogNanos < 0) {
+            suppressedErrors++;
+            return;
+        }
+        nextErrorLogNanos = now + LOG_INTERVAL_NANOS;
+        String suppressed = suppressedErrors > 0 ? " (" + suppressedErrors + " more errors since the last one logged)" : "";
+        suppressedErrors = 0;
+        logger.accept("Error handling event " + event.getType() + ": " + e.getMessage() + suppressed);
+    }
+
+    /**
+     * Stops accepting events and waits for the handlers to process the events already published.
+     * Call after publishing the server shutdown event.
+     */
+    public void close() {
+        Thread thread;
+        synchronized (this) {
+            closed = true;
+            thread = consumer;
+        }
+        if (thread == null) {
+            return;
+        }
+        wakeConsumer();
+        try {
+            thread.join(CLOSE_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Number of events waiting for the consumer.
+     */
+    public int getPendingCount() {
+        return (int) (nextSequence.get() - consumedSequence.get());
+    }
+
+    /**
+     * Number of events dropped because the ring was full.
+     */
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
 }
@@ -0,0 +1,49 @@
+package dev.valhal.minecraft.plugin.EventNotifications.core.event;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates time-ordered UUIDv7 event IDs without touching SecureRandom per event.
+ * The high 64 bits hold the Unix time in milliseconds and a 12-bit counter, so IDs from
+ * this process are strictly increasing and sort by creation time. The low 64 bits are a
+ * random node value picked once at startup, which keeps IDs from different processes or
+ * restarts apart. If more than 4096 IDs are requested within one millisecond the counter
+ * carries into the timestamp, borrowing from the next millisecond rather than repeating.
+ */
+public final class EventIdGenerator {
+    private static final int COUNTER_BITS = 12;
+    private static final long VERSION_7 = 0x7L << COUNTER_BITS;
+    private static final long VARIANT_MASK = 0x3FFF_FFFF_FFFF_FFFFL;
+    private static final long VARIANT_RFC_4122 = 0x8000_0000_0000_0000L;
+
+    private static final long NODE = (new SecureRandom().nextLong() & VARIANT_MASK) | VARIANT_RFC_4122;
+
+    // (millis << 12) | counter of the last ID handed out
+    private static final AtomicLong lastState = new AtomicLong();
+
+    private EventIdGenerator() {
+    }
+
+    public static UUID next() {
+        long now = System.currentTimeMillis() << COUNTER_BITS;
+        long state;
+        long next;
+        do {
+            state = lastState.get();
+            next = Math.max(now, state + 1);
+        } while (!lastState.compareAndSet(state, next));
+
+        long millis = next >>> COUNTER_BITS;
+        long counter = next & ((1L << COUNTER_BITS) - 1);
+        return new UUID((millis << 16) | VERSION_7 | counter, NODE);
+    }
+
+    /**
+     * The creation time in Unix milliseconds of an ID made by this generator.
+     */
+    public static long getTimestampMillis(UUID id) {
+        return id.getMostSignificantBits() >>> 16;
+    }
+}
@@ -1,10 +1,14 @@
 package dev.valhal.minecraft.plugin.EventNotifications.core.event;
 
+import dev.valhal.minecraft.plugin.EventNotifications.core.template.PlaceholderResolver;
+
 import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
-public sealed abstract class GameEvent permits
+public sealed abstract class GameEvent implements PlaceholderResolver permits
         ServerStartupEvent,
         ServerShutdownEvent,
         PlayerConnectEvent,
@@ -24,13 +28,17 @@ public sealed abstract class GameEvent permits
     private final UUID eventId;
     private final Instant timestamp;
     private final GameEventType type;
+    private String playerUuidText;
 
     protected GameEvent(GameEventType type) {
-        this.eventId = UUID.randomUUID();
+        this.eventId = EventIdGenerator.next();
         this.timestamp = Instant.now();
         this.type = type;
     }
 
+    /**
+     * Time-ordered (UUIDv7) ID of this event; IDs sort in the order events were created.
+     */
     public UUID getEventId() {
         return eventId;
     }
@@ -43,5 +51,43 @@ public sealed abstract class GameEvent permits
         return type;
     }
 
-    public abstract Map<String, String> getPlaceholders();
+    /**
+     * Resolves one of this event's placeholders, e.g. "player_name".
+     *
+     * @return the value, or null if the event has no such placeholder
+     */
+    @Override
+    public abstract String resolve(String key);
+
+    /**
+     * The placeholder keys this event resolves.
+     */
+    public abstract List<String> getPlaceholderKeys();
+
+    /**
+     * All placeholders of this event as a map. Rendering resolves placeholders directly
+     * through {@link #resolve(String)}; this is for callers that need every value.
+     */
+    public Map<String, String> getPlaceholders() {
+        Map<String, String> placeholders = new LinkedHashMap<>();
+        for (String key : getPlaceholderKeys()) {
+            String value = resolve(key);
+            if (value != null) {
+                placeholders.put(key, value);
+            }
+        }
+        return placeholders;
+    }
+
+    /**
+     * The player UUID as text, converted at most once per event however many templates use it.
+     */
+    protected final String formatPlayerUuid(UUID playerUuid) {
+        String text = playerUuidText;
+        if (text == null) {
+            text = playerUuid != null ? playerUuid.toString() : "";
+            playerUuidText = text;
+        }
+        return text;
+    }
 }
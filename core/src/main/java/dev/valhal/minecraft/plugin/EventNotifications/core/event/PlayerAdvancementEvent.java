@@ -1,10 +1,11 @@
 package dev.valhal.minecraft.plugin.EventNotifications.core.event;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
 import java.util.UUID;
 
 public final class PlayerAdvancementEvent extends GameEvent {
+    private static final List<String> PLACEHOLDER_KEYS = List.of("player_name", "player_uuid", "advancement_title", "advancement_description", "advancement_message");
+
     private final UUID playerUuid;
     private final String playerName;
     private final String advancementTitle;
@@ -21,13 +22,19 @@ public final class PlayerAdvancementEvent extends GameEvent {
     }
 
     @Override
-    public Map<String, String> getPlaceholders() {
-        Map<String, String> placeholders = new HashMap<>();
-        placeholders.put("player_name", playerName);
-        placeholders.put("player_uuid", playerUuid != null ? playerUuid.toString() : "");
-        placeholders.put("advancement_title", advancementTitle);
-        placeholders.put("advancement_description", advancementDescription);
-        placeholders.put("advancement_message", advancementMessage);
-        return placeholders;
+    public String resolve(String key) {
+        return switch (key) {
+            case "player_name" -> playerName;
+            case "player_uuid" -> formatPlayerUuid(playerUuid);
+            case "advancement_title" -> advancementTitle;
+            case "advancement_description" -> advancementDescription;
+            case "advancement_message" -> advancementMessage;
+            default -> null;
+        };
+    }
+
+    @Override
+    public List<String> getPlaceholderKeys() {
+        return PLACEHOLDER_KEYS;
     }
 }
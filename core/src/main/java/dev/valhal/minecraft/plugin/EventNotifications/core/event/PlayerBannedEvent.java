@@ -1,10 +1,11 @@
 package dev.valhal.minecraft.plugin.EventNotifications.core.event;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
 import java.util.UUID;
 
 public final class PlayerBannedEvent extends GameEvent {
+    private static final List<String> PLACEHOLDER_KEYS = List.of("player_name", "player_uuid", "reason", "banned_by");
+
     private final UUID playerUuid;
     private final String playerName;
     private final String reason;
@@ -19,12 +20,18 @@ public final class PlayerBannedEvent extends GameEvent {
     }
 
     @Override
-    public Map<String, String> getPlaceholders() {
-        Map<String, String> placeholders = new HashMap<>();
-        placeholders.put("player_name", playerName);
-        placeholders.put("player_uuid", playerUuid != null ? playerUuid.toString() : "");
-        placeholders.put("reason", reason);
-        placeholders.put("banned_by", bannedBy);
-        return placeholders;
+    public String resolve(String key) {
+        return switch (key) {
+            case "player_name" -> playerName;
+            case "player_uuid" -> formatPlayerUuid(playerUuid);
+            case "reason" -> reason;
+            case "banned_by" -> bannedBy;
+            default -> null;
+        };
+    }
+
+    @Override
+    public List<String> getPlaceholderKeys() {
+        return PLACEHOLDER_KEYS;
     }
 }
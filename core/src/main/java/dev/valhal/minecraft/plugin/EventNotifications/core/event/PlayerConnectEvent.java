@@ -1,9 +1,11 @@
 package dev.valhal.minecraft.plugin.EventNotifications.core.event;
 
-import java.util.Map;
+import java.util.List;
 import java.util.UUID;
 
 public final class PlayerConnectEvent extends GameEvent {
+    private static final List<String> PLACEHOLDER_KEYS = List.of("player_name", "player_uuid");
+
     private final UUID playerUuid;
     private final String playerName;
 
@@ -22,10 +24,16 @@ public final class PlayerConnectEvent extends GameEvent {
     }
 
     @Override
-    public Map<String, String> getPlaceholders() {
-        return Map.of(
-                "player_name", playerName,
-                "player_uuid", playerUuid.toString()
-        );
+    public String resolve(String key) {
+        return switch (key) {
+            case "player_name" -> playerName;
+            case "player_uuid" -> formatPlayerUuid(playerUuid);
+            default -> null;
+        };
+    }
+
+    @Override
+    public List<String> getPlaceholderKeys() {
+        return PLACEHOLDER_KEYS;
     }
 }
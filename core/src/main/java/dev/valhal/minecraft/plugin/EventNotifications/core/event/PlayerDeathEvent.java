@@ -1,9 +1,11 @@
 package dev.valhal.minecraft.plugin.EventNotifications.core.event;
 
-import java.util.Map;
+import java.util.List;
 import java.util.UUID;
 
 public final class PlayerDeathEvent extends GameEvent {
+    private static final List<String> PLACEHOLDER_KEYS = List.of("player_name", "player_uuid", "death_message");
+
     private final UUID playerUuid;
     private final String playerName;
     private final String deathMessage;
@@ -28,11 +30,17 @@ public final class PlayerDeathEvent extends GameEvent {
     }
 
     @Override
-    public Map<String, String> getPlaceholders() {
-        return Map.of(
-                "player_name", playerName,
-                "player_uuid", playerUuid.toString(),
-                "death_message", deathMessage
-        );
+    public String resolve(String key) {
+        return switch (key) {
+            case "player_name" -> playerName;
+            case "player_uuid" -> formatPlayerUuid(playerUuid);
+            case "death_message" -> deathMessage;
+            default -> null;
+        };
+    }
+
+    @Override
+    public List<String> getPlaceholderKeys() {
+        return PLACEHOLDER_KEYS;
     }
 }
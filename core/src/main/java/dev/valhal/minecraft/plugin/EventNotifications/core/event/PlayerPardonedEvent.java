@@ -1,10 +1,11 @@
 package dev.valhal.minecraft.plugin.EventNotifications.core.event;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
 import java.util.UUID;
 
 public final class PlayerPardonedEvent extends GameEvent {
+    private static final List<String> PLACEHOLDER_KEYS = List.of("player_name", "player_uuid");
+
     private final UUID playerUuid;
     private final String playerName;
 
@@ -15,10 +16,16 @@ public final class PlayerPardonedEvent extends GameEvent {
     }
 
     @Override
-    public Map<String, String> getPlaceholders() {
-        Map<String, String> placeholders = new HashMap<>();
-        placeholders.put("player_name", playerName);
-        placeholders.put("player_uuid", playerUuid != null ? playerUuid.toString() : "");
-        return placeholders;
+    public String resolve(String key) {
+        return switch (key) {
+            case "player_name" -> playerName;
+            case "player_uuid" -> formatPlayerUuid(playerUuid);
+            default -> null;
+        };
+    }
+
+    @Override
+    public List<String> getPlaceholderKeys() {
+        return PLACEHOLDER_KEYS;
     }
 }
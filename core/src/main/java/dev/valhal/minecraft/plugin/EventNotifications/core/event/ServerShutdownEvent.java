@@ -1,6 +1,6 @@
 package dev.valhal.minecraft.plugin.EventNotifications.core.event;
 
-import java.util.Map;
+import java.util.List;
 
 public final class ServerShutdownEvent extends GameEvent {
 
@@ -9,7 +9,12 @@ public final class ServerShutdownEvent extends GameEvent {
     }
 
     @Override
-    public Map<String, String> getPlaceholders() {
-        return Map.of();
+    public String resolve(String key) {
+        return null;
+    }
+
+    @Override
+    public List<String> getPlaceholderKeys() {
+        return List.of();
     }
 }
@@ -1,7 +1,6 @@
 package dev.valhal.minecraft.plugin.EventNotifications.core.event;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
 
 public final class WhitelistOffEvent extends GameEvent {
 
@@ -10,7 +9,12 @@ public final class WhitelistOffEvent extends GameEvent {
     }
 
     @Override
-    public Map<String, String> getPlaceholders() {
-        return new HashMap<>();
+    public String resolve(String key) {
+        return null;
+    }
+
+    @Override
+    public List<String> getPlaceholderKeys() {
+        return List.of();
     }
 }
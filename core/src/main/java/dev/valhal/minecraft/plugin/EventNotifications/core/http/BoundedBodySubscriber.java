@@ -0,0 +1,66 @@
+package dev.valhal.minecraft.plugin.EventNotifications.core.http;
+
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+
+/**
+ * Reads at most a fixed number of bytes of a response body as UTF-8 text.
+ * The rest of the body is still consumed, so the connection can be reused, but not stored.
+ */
+final class BoundedBodySubscriber implements HttpResponse.BodySubscriber<String> {
+    private final int maxBytes;
+    private final CompletableFuture<String> body = new CompletableFuture<>();
+    private byte[] kept;
+    private int keptLength;
+    private long totalLength;
+
+    BoundedBodySubscriber(int maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    @Override
+    public CompletionStage<String> getBody() {
+        return body;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        subscription.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onNext(List<ByteBuffer> buffers) {
+        for (ByteBuffer buffer : buffers) {
+            int remaining = buffer.remaining();
+            totalLength += remaining;
+            int toKeep = Math.min(remaining, maxBytes - keptLength);
+            if (toKeep > 0) {
+                if (kept == null) {
+                    kept = new byte[maxBytes];
+                }
+                buffer.get(kept, keptLength, toKeep);
+                keptLength += toKeep;
+            }
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        body.completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        // A multi-byte character cut off at the limit decodes as a replacement character
+        String text = keptLength > 0 ? new String(kept, 0, keptLength, StandardCharsets.UTF_8).strip() : "";
+        if (totalLength > keptLength) {
+            text += "... (" + totalLength + " bytes)";
+        }
+        body.complete(text);
+    }
+}
@@ -0,0 +1,66 @@
+package dev.valhal.minecraft.plugin.EventNotifications.core.http;
+
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Pool of byte arrays for request bodies, in power-of-two size classes from 512 bytes to 64 KiB.
+ * Each class keeps a bounded number of free arrays; larger requests and arrays returned to a
+ * full class are left to the garbage collector, so a missed release only costs an allocation.
+ */
+final class BufferPool {
+    static final int MIN_SIZE = 512;
+    static final int MAX_SIZE = 64 * 1024;
+    private static final int ARRAYS_PER_CLASS = 16;
+
+    private static final int MIN_SHIFT = Integer.numberOfTrailingZeros(MIN_SIZE);
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static final ArrayBlockingQueue<byte[]>[] FREE =
+            new ArrayBlockingQueue[Integer.numberOfTrailingZeros(MAX_SIZE) - MIN_SHIFT + 1];
+
+    static {
+        for (int i = 0; i < FREE.length; i++) {
+            FREE[i] = new ArrayBlockingQueue<>(ARRAYS_PER_CLASS);
+        }
+    }
+
+    private BufferPool() {
+    }
+
+    /**
+     * Gets an array of at least the given size. Its contents are undefined.
+     */
+    static byte[] acquire(int minSize) {
+        int size = sizeFor(minSize);
+        if (size > MAX_SIZE) {
+            return new byte[size];
+        }
+        byte[] array = FREE[classOf(size)].poll();
+        return array != null ? array : new byte[size];
+    }
+
+    /**
+     * Returns an array to the pool. The caller must not use it afterwards.
+     */
+    static void release(byte[] array) {
+        int size = array.length;
+        if (size < MIN_SIZE || size > MAX_SIZE || Integer.bitCount(size) != 1) {
+            return;
+        }
+        FREE[classOf(size)].offer(array);
+    }
+
+    /**
+     * The size class for a request: the next power of two, at least {@link #MIN_SIZE}.
+     */
+    static int sizeFor(int minSize) {
+        if (minSize <= MIN_SIZE) {
+            return MIN_SIZE;
+        }
+        int size = Integer.highestOneBit(minSize - 1) << 1;
+        return size > 0 ? size : Integer.MAX_VALUE - 8;
+    }
+
+    private static int classOf(int size) {
+        return Integer.numberOfTrailingZeros(size) - MIN_SHIFT;
+    }
+}
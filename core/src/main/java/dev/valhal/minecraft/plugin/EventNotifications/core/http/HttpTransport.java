@@ -0,0 +1,201 @@
+package dev.valhal.minecraft.plugin.EventNotifications.core.http;
+
+import dev.valhal.minecraft.plugin.EventNotifications.core.notification.NotificationResult;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Core-owned HTTP transport shared by all notification targets.
+ * A single HttpClient means one selector thread and one connection pool per host,
+ * however many targets are configured. It negotiates HTTP/2 where the endpoint
+ * supports it and falls back to HTTP/1.1 otherwise. The transport outlives target
+ * reloads, so warm TLS connections are kept across /eventnotify reload.
+ * Given an executor, the client runs its response handling and dependent stages there
+ * instead of on its own thread pool.
+ * <p>
+ * Targets can have their own timeouts through {@link #withTimeouts}. The connect timeout
+ * belongs to the client, so targets with a non-default one share a second client per value.
+ * <p>
+ * Successful response bodies are discarded unread, and error bodies are cut off after a
+ * configurable number of bytes. Only the status, the rate-limit headers and that excerpt
+ * make it into the result.
+ * <p>
+ * A {@link RequestListener} given to the transport hears about every request it sends, so
+ * request counts and latency are per HTTP request even when a request carries a batch.
+ */
+public class HttpTransport {
+    public static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(10);
+    public static final Duration DEFAULT_REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final int DEFAULT_ERROR_BODY_MAX_BYTES = 1024;
+
+    private final Executor executor;
+    // Clients by connect timeout, shared with every transport made by withTimeouts
+    private final Map<Duration, HttpClient> clients;
+    private final HttpClient httpClient;
+    private final Duration requestTimeout;
+    private final HttpResponse.BodyHandler<String> bodyHandler;
+    private final RequestListener listener;
+
+    public HttpTransport() {
+        this(null, DEFAULT_ERROR_BODY_MAX_BYTES, null);
+    }
+
+    /**
+     * @param executor          executor for the client's asynchronous work, or null for the client's default
+     * @param errorBodyMaxBytes how much of an error response body to keep, 0 to keep none
+     * @param listener          told about every request sent, or null
+     */
+    public HttpTransport(Executor executor, int errorBodyMaxBytes, RequestListener listener) {
+        this.executor = executor;
+        this.listener = listener;
+        this.clients = new ConcurrentHashMap<>();
+        this.httpClient = clients.computeIfAbsent(DEFAULT_CONNECT_TIMEOUT, this::newClient);
+        this.requestTimeout = DEFAULT_REQUEST_TIMEOUT;
+        this.bodyHandler = responseInfo -> isSuccess(responseInfo.statusCode()) || errorBodyMaxBytes <= 0
+                ? HttpResponse.BodySubscribers.replacing("")
+                : new BoundedBodySubscriber(errorBodyMaxBytes);
+    }
+
+    private HttpTransport(HttpTransport shared, HttpClient httpClient, Duration requestTimeout) {
+        this.executor = shared.executor;
+        this.clients = shared.clients;
+        this.httpClient = httpClient;
+        this.requestTimeout = requestTimeout;
+        this.bodyHandler = shared.bodyHandler;
+        this.listener = shared.listener;
+    }
+
+    private HttpClient newClient(Duration connectTimeout) {
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(connectTimeout);
+        if (executor != null) {
+            builder.executor(executor);
+        }
+        return builder.build();
+    }
+
+    /**
+     * A transport with its own timeouts, sharing this one's clients and connection pools.
+     * Targets with the same connect timeout use the same client, which is kept for as long
+     * as this transport, so reloading targets does not drop warm connections.
+     */
+    public HttpTransport withTimeouts(Duration connectTimeout, Duration requestTimeout) {
+        return new HttpTransport(this, clients.computeIfAbsent(connectTimeout, this::newClient), requestTimeout);
+    }
+
+    /**
+     * Starts a request to the given URL with this transport's request timeout.
+     */
+    public HttpRequest.Builder newRequest(String url) {
+        return HttpRequest.newBuilder()
+                .uri(URI.create(url))
+                .timeout(requestTimeout);
+    }
+
+    /**
+     * Sends a request and maps the response to a notification result.
+     * Any 2xx status counts as success. 429, 5xx and I/O errors such as timeouts and
+     * refused connections are marked retryable; other failures are final.
+     */
+    public CompletableFuture<NotificationResult> send(String targetName, HttpRequest request) {
+        long startNanos = System.nanoTime();
+        CompletableFuture<NotificationResult> result = httpClient.sendAsync(request, bodyHandler)
+                .thenApply(response -> toResult(targetName, response))
+                .exceptionally(e -> toResult(targetName, e));
+        if (listener == null) {
+            return result;
+        }
+        listener.onRequestStarted(targetName);
+        return result.whenComplete((outcome, error) ->
+                listener.onRequestCompleted(targetName, outcome, System.nanoTime() - startNanos));
+    }
+
+    private static NotificationResult toResult(String targetName, HttpResponse<String> response) {
+        int status = response.statusCode();
+        if (isSuccess(status)) {
+            return NotificationResult.success(targetName);
+        }
+
+        String error = response.body().isEmpty() ? "HTTP " + status : "HTTP " + status + ": " + response.body();
+        if (status == 429 || status >= 500) {
+            return NotificationResult.retryableFailure(targetName, error, status, getRetryAfterMillis(response.headers()));
+        }
+        return new NotificationResult(false, targetName, error, status, false, 0);
+    }
+
+    private static boolean isSuccess(int status) {
+        return status >= 200 && status < 300;
+    }
+
+    private static NotificationResult toResult(String targetName, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        // HttpTimeoutException, ConnectException and connection resets are all IOExceptions
+        if (cause instanceof IOException) {
+            return NotificationResult.retryableFailure(targetName, describe(cause), 0, 0);
+        }
+        return NotificationResult.failure(targetName, describe(cause));
+    }
+
+    private static String describe(Throwable error) {
+        return error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName();
+    }
+
+    /**
+     * Delay requested by the server, or 0 if none.
+     * Reads Discord's X-RateLimit-Reset-After (fractional seconds) and the standard
+     * Retry-After header (seconds or an HTTP date).
+     */
+    static long getRetryAfterMillis(HttpHeaders headers) {
+        Optional<String> resetAfter = headers.firstValue("X-RateLimit-Reset-After");
+        if (resetAfter.isPresent()) {
+            long millis = parseSeconds(resetAfter.get());
+            if (millis > 0) {
+                return millis;
+            }
+        }
+
+        Optional<String> retryAfter = headers.firstValue("Retry-After");
+        if (retryAfter.isEmpty()) {
+            return 0;
+        }
+        long millis = parseSeconds(retryAfter.get());
+        if (millis > 0) {
+            return millis;
+        }
+        try {
+            Instant at = ZonedDateTime.parse(retryAfter.get().trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+            return Math.max(0, Duration.between(Instant.now(), at).toMillis());
+        } catch (DateTimeParseException e) {
+            return 0;
+        }
+    }
+
+    private static long parseSeconds(String value) {
+        try {
+            return (long) Math.ceil(Double.parseDouble(value.trim()) * 1000);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    public HttpClient getHttpClient() {
+        return httpClient;
+    }
+}
@@ -0,0 +1,294 @@
+package dev.valhal.minecraft.plugin.EventNotifications.core.http;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Minimal streaming JSON writer for request bodies.
+ * Strings are escaped and encoded to UTF-8 in a single pass, straight into a growable byte
+ * buffer, so building a body makes no intermediate strings. Commas between members and
+ * array elements are inserted automatically.
+ * <p>
+ * All control characters are escaped, and unpaired surrogates are written as {@code \\uXXXX}
+ * escapes so the output is always valid UTF-8. A writer is not thread-safe.
+ * <p>
+ * Buffers come from a shared pool. {@link #toRequestBody()} hands the written buffer over
+ * without copying, and the body returns it to the pool once released, unless it was
+ * published to {@code HttpClient} (see {@link RequestBody}). The writer keeps no
+ * buffer after that, so it is cheap to create one per body and simply drop it; writing
+ * another document takes a fresh buffer from the pool.
+ */
+public final class JsonWriter {
+    private static final int INITIAL_CAPACITY = BufferPool.MIN_SIZE;
+    private static final int MAX_DEPTH = 64;
+    private static final byte[] NO_BUFFER = new byte[0];
+
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    // For ASCII: 0 = written as is, 'u' = \\u00XX escape, anything else = the character after the backslash
+    private static final byte[] ESCAPES = new byte[128];
+
+    static {
+        for (int c = 0; c < 0x20; c++) {
+            ESCAPES[c] = 'u';
+        }
+        ESCAPES['"'] = '"';
+        ESCAPES['\\'] = '\\';
+        ESCAPES['\b'] = 'b';
+        ESCAPES['\f'] = 'f';
+        ESCAPES['\n'] = 'n';
+        ESCAPES['\r'] = 'r';
+        ESCAPES['\t'] = 't';
+    }
+
+    private byte[] buffer;
+    private int size;
+    private int depth;
+    // Bit n is set once the container at depth n has a member, so the next one needs a comma
+    private long hasMembers;
+    private boolean afterName;
+
+    public JsonWriter() {
+        this(INITIAL_CAPACITY);
+    }
+
+    public JsonWriter(int initialCapacity) {
+        this.buffer = BufferPool.acquire(initialCapacity);
+    }
+
+    /**
+     * Discards everything written so far, keeping the buffer.
+     */
+    public JsonWriter reset() {
+        size = 0;
+        depth = 0;
+        hasMembers = 0;
+        afterName = false;
+        return this;
+    }
+
+    public JsonWriter beginObject() {
+        beforeValue();
+        return open('{');
+    }
+
+    public JsonWriter endObject() {
+        return close('}');
+    }
+
+    public JsonWriter beginArray() {
+        beforeValue();
+        return open('[');
+    }
+
+    public JsonWriter endArray() {
+        return close(']');
+    }
+
+    /**
+     * Writes a member name; the next call writes its value.
+     */
+    public JsonWriter name(String name) {
+        beforeValue();
+        writeQuoted(name);
+        ensureCapacity(1);
+        buffer[size++] = ':';
+        afterName = true;
+        return this;
+    }
+
+    /**
+     * Writes a string value, or null.
+     */
+    public JsonWriter value(String value) {
+        beforeValue();
+        if (value == null) {
+            writeAscii("null");
+        } else {
+            writeQuoted(value);
+        }
+        return this;
+    }
+
+    public JsonWriter value(long value) {
+        beforeValue();
+        writeAscii(Long.toString(value));
+        return this;
+    }
+
+    public JsonWriter value(boolean value) {
+        beforeValue();
+        writeAscii(value ? "true" : "false");
+        return this;
+    }
+
+    /**
+     * Starts a string value that is written in parts with {@link #stringPart(String)},
+     * for values that would otherwise be concatenated first.
+     */
+    public JsonWriter beginString() {
+        beforeValue();
+        ensureCapacity(1);
+        buffer[size++] = '"';
+        return this;
+    }
+
+    /**
+     * Appends to the string value started with {@link #beginString()}. Null is written as "null".
+     */
+    public JsonWriter stringPart(String part) {
+        writeEscaped(part != null ? part : "null");
+        return this;
+    }
+
+    public JsonWriter endString() {
+        ensureCapacity(1);
+        buffer[size++] = '"';
+        return this;
+    }
+
+    /**
+     * Number of bytes written.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Copies the written bytes out of the buffer.
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    /**
+     * Hands the written bytes over as a pooled request body and starts a new document.
+     * The writer holds no buffer until something is written again.
+     */
+    public RequestBody toRequestBody() {
+        RequestBody body = new RequestBody(buffer, size, true);
+        buffer = NO_BUFFER;
+        reset();
+        return body;
+    }
+
+    private JsonWriter open(char bracket) {
+        if (depth == MAX_DEPTH - 1) {
+            throw new IllegalStateException("JSON nested deeper than " + MAX_DEPTH + " levels");
+        }
+        ensureCapacity(1);
+        buffer[size++] = (byte) bracket;
+        depth++;
+        hasMembers &= ~(1L << depth);
+        return this;
+    }
+
+    private JsonWriter close(char bracket) {
+        if (depth == 0) {
+            throw new IllegalStateException("No open object or array");
+        }
+        ensureCapacity(1);
+        buffer[size++] = (byte) bracket;
+        depth--;
+        return this;
+    }
+
+    private void beforeValue() {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        long bit = 1L << depth;
+        if ((hasMembers & bit) != 0) {
+            ensureCapacity(1);
+            buffer[size++] = ',';
+        }
+        hasMembers |= bit;
+    }
+
+    private void writeQuoted(String text) {
+        ensureCapacity(1);
+        buffer[size++] = '"';
+        writeEscaped(text);
+        ensureCapacity(1);
+        buffer[size++] = '"';
+    }
+
+    private void writeEscaped(String text) {
+        int length = text.length();
+        // Enough for any unescaped text: at most 3 bytes per char, 4 per surrogate pair
+        ensureCapacity(length * 3);
+        byte[] out = buffer;
+        int pos = size;
+
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                byte escape = ESCAPES[c];
+                if (escape == 0) {
+                    out[pos++] = (byte) c;
+                    continue;
+                }
+                // Escapes take up to 6 bytes, more than the 3 reserved for this char
+                size = pos;
+                ensureCapacity(6 + (length - i) * 3);
+                out = buffer;
+                out[pos++] = '\\';
+                if (escape == 'u') {
+                    pos = writeUnicodeEscape(out, pos, c);
+                } else {
+                    out[pos++] = escape;
+                }
+            } else if (c < 0x800) {
+                out[pos++] = (byte) (0xc0 | (c >> 6));
+                out[pos++] = (byte) (0x80 | (c & 0x3f));
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(text.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                    out[pos++] = (byte) (0xf0 | (codePoint >> 18));
+                    out[pos++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+                    out[pos++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+                    out[pos++] = (byte) (0x80 | (codePoint & 0x3f));
+                } else {
+                    // An unpaired surrogate has no UTF-8 encoding, but JSON can carry it as an escape
+                    size = pos;
+                    ensureCapacity(6 + (length - i) * 3);
+                    out = buffer;
+                    out[pos++] = '\\';
+                    pos = writeUnicodeEscape(out, pos, c);
+                }
+            } else {
+                out[pos++] = (byte) (0xe0 | (c >> 12));
+                out[pos++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                out[pos++] = (byte) (0x80 | (c & 0x3f));
+            }
+        }
+        size = pos;
+    }
+
+    private static int writeUnicodeEscape(byte[] out, int pos, char c) {
+        out[pos++] = 'u';
+        out[pos++] = HEX[(c >> 12) & 0xf];
+        out[pos++] = HEX[(c >> 8) & 0xf];
+        out[pos++] = HEX[(c >> 4) & 0xf];
+        out[pos++] = HEX[c & 0xf];
+        return pos;
+    }
+
+    private void writeAscii(String text) {
+        int length = text.length();
+        ensureCapacity(length);
+        for (int i = 0; i < length; i++) {
+            buffer[size++] = (byte) text.charAt(i);
+        }
+    }
+
+    private void ensureCapacity(int additional) {
+        int required = size + additional;
+        if (required > buffer.length) {
+            byte[] grown = BufferPool.acquire(Math.max(required, buffer.length * 2));
+            System.arraycopy(buffer, 0, grown, 0, size);
+            BufferPool.release(buffer);
+            buffer = grown;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package dev.valhal.minecraft.plugin.EventNotifications.core.http;
+
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An encoded request body, usually backed by a pooled buffer.
+ * The body is reference counted: it starts with one reference, everyone who keeps it past
+ * the current call takes another with {@link #retain()}, and each reference is given up with
+ * {@link #release()}. The buffer goes back to the pool when the last one is released, so a
+ * body shared by several deliveries is encoded once and recycled after the last one completes.
+ * <p>
+ * A body that was handed to {@code HttpClient} is never recycled. The client may still be
+ * writing from the buffer after the response future completes, for example when the server
+ * answers early or the request times out, and even after the publisher's {@code onComplete},
+ * since HTTP/1.1 queues and HTTP/2 frames the published buffer without copying it. Its buffer
+ * is left to the garbage collector instead; bodies released without being sent are still pooled.
+ */
+public final class RequestBody {
+    private final byte[] buffer;
+    private final int length;
+    private final boolean pooled;
+    private final AtomicInteger references = new AtomicInteger(1);
+    private volatile boolean published;
+
+    RequestBody(byte[] buffer, int length, boolean pooled) {
+        this.buffer = buffer;
+        this.length = length;
+        this.pooled = pooled;
+    }
+
+    /**
+     * Wraps bytes that are not from the pool.
+     */
+    public static RequestBody of(byte[] bytes) {
+        return new RequestBody(bytes, bytes.length, false);
+    }
+
+    public static RequestBody of(String text) {
+        return of(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Publishes the body straight from its buffer, without copying or re-encoding it: each
+     * subscriber gets one read-only view of the buffer. The body must stay retained until
+     * the request completes, and its buffer is no longer returned to the pool.
+     */
+    public HttpRequest.BodyPublisher publisher() {
+        published = true;
+        return new BufferPublisher();
+    }
+
+    public RequestBody retain() {
+        if (references.getAndIncrement() <= 0) {
+            references.decrementAndGet();
+            throw new IllegalStateException("Request body was already released");
+        }
+        return this;
+    }
+
+    public void release() {
+        int remaining = references.decrementAndGet();
+        if (remaining == 0) {
+            if (pooled && !published) {
+                BufferPool.release(buffer);
+            }
+        } else if (remaining < 0) {
+            references.incrementAndGet();
+            throw new IllegalStateException("Request body was released too often");
+        }
+    }
+
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Copies the body out of its buffer.
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, length);
+    }
+
+    @Override
+    public String toString() {
+        return new String(buffer, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Unlike {@code BodyPublishers.ofByteArray}, which copies the range on every subscribe,
+     * this wraps the buffer. A retried request subscribes again and gets a fresh view.
+     */
+    private final class BufferPublisher implements HttpRequest.BodyPublisher {
+        @Override
+        public long contentLength() {
+            return length;
+        }
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super ByteBuffer> subscriber) {
+            AtomicBoolean done = new AtomicBoolean();
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                    if (!done.compareAndSet(false, true)) {
+                        return;
+                    }
+                    if (n <= 0) {
+                        subscriber.onError(new IllegalArgumentException("Non-positive request: " + n));
+                        return;
+                    }
+                    if (length > 0) {
+                        subscriber.onNext(ByteBuffer.wrap(buffer, 0, length).asReadOnlyBuffer());
+                    }
+                    subscriber.onComplete();
+                }
+
+                @Override
+                public void cancel() {
+                    done.set(true);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package dev.valhal.minecraft.plugin.EventNotifications.core.http;
+
+import dev.valhal.minecraft.plugin.EventNotifications.core.notification.NotificationResult;
+
+/**
+ * Told about every HTTP request a {@link HttpTransport} sends, once per request, including
+ * a batch carrying several notifications and each retry of one.
+ */
+public interface RequestListener {
+    void onRequestStarted(String targetName);
+
+    /**
+     * @param elapsedNanos time from sending the request to its result
+     */
+    void onRequestCompleted(String targetName, NotificationResult result, long elapsedNanos);
+}
@@ -0,0 +1,123 @@
+package dev.valhal.minecraft.plugin.EventNotifications.core.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with log-linear buckets, in the style of HdrHistogram.
+ * Values are kept in microseconds. Each power of two is split into 8 linear sub-buckets,
+ * so a reported percentile is within 12.5% of the true value; values below 8 microseconds are exact.
+ * Recording is one atomic increment and one LongAdder add, plus, rarely, a CAS on the maximum.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // Values above about 19 hours land in the last bucket
+    private static final int MAX_EXPONENT = 36;
+    private static final long MAX_TRACKABLE_MICROS = (1L << MAX_EXPONENT) - 1;
+    private static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong maxMicros = new AtomicLong();
+    private final LongAdder sumMicros = new LongAdder();
+
+    /**
+     * Percentiles of a histogram at one point in time, in microseconds.
+     */
+    public record Snapshot(long count, long p50Micros, long p90Micros, long p99Micros, long maxMicros) {
+    }
+
+    public void record(long elapsedNanos) {
+        long micros = Math.min(MAX_TRACKABLE_MICROS, Math.max(0, TimeUnit.NANOSECONDS.toMicros(elapsedNanos)));
+        counts.incrementAndGet(indexOf(micros));
+        sumMicros.add(micros);
+        if (micros > maxMicros.get()) {
+            maxMicros.accumulateAndGet(micros, Math::max);
+        }
+    }
+
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            copy[i] = counts.get(i);
+            total += copy[i];
+        }
+        long max = maxMicros.get();
+        return new Snapshot(total,
+                valueAtPercentile(copy, total, 50, max),
+                valueAtPercentile(copy, total, 90, max),
+                valueAtPercentile(copy, total, 99, max),
+                max);
+    }
+
+    /**
+     * Counts the recorded values at or below each bound, e.g. for Prometheus histogram buckets.
+     * A bucket that straddles a bound is not counted for it, so counts can be low by up to 12.5%
+     * of the bound, never high.
+     *
+     * @param boundsMicros Ascending upper bounds in microseconds
+     * @return Cumulative counts per bound, followed by the total count
+     */
+    public long[] cumulativeCounts(long[] boundsMicros) {
+        long[] result = new long[boundsMicros.length + 1];
+        int bound = 0;
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long highest = highestValueIn(i);
+            while (bound < boundsMicros.length && highest > boundsMicros[bound]) {
+                result[bound++] = seen;
+            }
+            seen += counts.get(i);
+        }
+        while (bound < boundsMicros.length) {
+            result[bound++] = seen;
+        }
+        result[boundsMicros.length] = seen;
+        return result;
+    }
+
+    /**
+     * Sum of all recorded values in microseconds.
+     */
+    public long getSumMicros() {
+        return sumMicros.sum();
+    }
+
+    private static long valueAtPercentile(long[] copy, long total, double percentile, long max) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < copy.length; i++) {
+            seen += copy[i];
+            if (seen >= rank) {
+                // The maximum is exact, so never report more than it
+                return Math.min(highestValueIn(i), max);
+            }
+        }
+        return max;
+    }
+
+    static int indexOf(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        int subBucket = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long highestValueIn(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        int subBucket = index % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return ((long) (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS)) + width - 1;
+    }
+}
@@ -0,0 +1,62 @@
+package dev.valhal.minecraft.plugin.EventNotifications.core.metrics;
+
+import dev.valhal.minecraft.plugin.EventNotifications.core.event.GameEventType;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters for the whole notification pipeline, from captured events to per-target deliveries.
+ * Everything is recorded with LongAdders and atomics, so recording never takes a lock.
+ * Target metrics are kept by name and survive reloads.
+ */
+public class MetricsRegistry {
+    private static final GameEventType[] TYPES = GameEventType.values();
+
+    private final LongAdder[] eventsCaptured = new LongAdder[TYPES.length];
+    private final LongAdder payloadsRendered = new LongAdder();
+    private final Map<String, TargetMetrics> targets = new ConcurrentHashMap<>();
+    private final long startedAtMillis = System.currentTimeMillis();
+
+    public MetricsRegistry() {
+        for (int i = 0; i < eventsCaptured.length; i++) {
+            eventsCaptured[i] = new LongAdder();
+        }
+    }
+
+    public void onEventCaptured(GameEventType type) {
+        eventsCaptured[type.ordinal()].increment();
+    }
+
+    public void onPayloadRendered() {
+        payloadsRendered.increment();
+    }
+
+    /**
+     * Gets the metrics for a target, creating them on first use.
+     */
+    public TargetMetrics target(String targetName) {
+        return targets.computeIfAbsent(targetName, name -> new TargetMetrics());
+    }
+
+    public long getEventsCaptured(GameEventType type) {
+        return eventsCaptured[type.ordinal()].sum();
+    }
+
+    public long getPayloadsRendered() {
+        return payloadsRendered.sum();
+    }
+
+    /**
+     * Metrics of every target that has sent anything, sorted by name.
+     */
+    public Map<String, TargetMetrics> getTargets() {
+        return new TreeMap<>(targets);
+    }
+
+    public long getStartedAtMillis() {
+        return startedAtMillis;
+    }
+}
@@ -0,0 +1,272 @@
+package dev.valhal.minecraft.plugin.EventNotifications.core.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import dev.valhal.minecraft.plugin.EventNotifications.core.config.GeneralConfig;
+import dev.valhal.minecraft.plugin.EventNotifications.core.delivery.DeliveryDispatcher;
+import dev.valhal.minecraft.plugin.EventNotifications.core.delivery.DeliveryExecutor;
+import dev.valhal.minecraft.plugin.EventNotifications.core.event.EventBus;
+import dev.valhal.minecraft.plugin.EventNotifications.core.event.GameEventType;
+import dev.valhal.minecraft.plugin.EventNotifications.core.notification.NotificationService;
+import dev.valhal.minecraft.plugin.EventNotifications.core.notification.NotificationTarget;
+import dev.valhal.minecraft.plugin.EventNotifications.core.notification.RateLimiter;
+import dev.valhal.minecraft.plugin.EventNotifications.core.notification.RateLimits;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Serves the delivery metrics in Prometheus text format at /metrics.
+ * Every scrape reads counters, atomics and lock-free queue sizes only, so scraping never
+ * blocks or slows down the delivery path. The endpoint has no authentication and is
+ * meant to be bound to a local or otherwise firewalled address.
+ */
+public class PrometheusExporter {
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    private static final String PREFIX = "eventnotifications_";
+
+    // Latency histogram buckets, matching the usual Prometheus defaults for HTTP clients
+    private static final String[] LATENCY_BUCKET_LABELS =
+            {"0.005", "0.01", "0.025", "0.05", "0.1", "0.25", "0.5", "1", "2.5", "5", "10", "30"};
+    private static final long[] LATENCY_BUCKET_MICROS =
+            {5_000, 10_000, 25_000, 50_000, 100_000, 250_000, 500_000, 1_000_000, 2_500_000, 5_000_000,
+                    10_000_000, 30_000_000};
+
+    private final GeneralConfig config;
+    private final NotificationService notificationService;
+    private final DeliveryExecutor executor;
+    private final Consumer<String> logger;
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+
+    public PrometheusExporter(GeneralConfig config, NotificationService notificationService,
+                              DeliveryExecutor executor, Consumer<String> logger) {
+        this.config = config;
+        this.notificationService = notificationService;
+        this.executor = executor;
+        this.logger = logger;
+    }
+
+    /**
+     * Starts the endpoint if metrics_enabled is set. A failure to bind is logged, not thrown,
+     * so a port conflict never keeps notifications from working.
+     */
+    public synchronized void start() {
+        if (!config.metricsEnabled() || server != null) {
+            return;
+        }
+        InetSocketAddress address = new InetSocketAddress(config.metricsAddress(), config.metricsPort());
+        try {
+            server = HttpServer.create(address, 0);
+        } catch (IOException e) {
+            logger.accept("Failed to start metrics endpoint on " + config.metricsAddress() + ":"
+                    + config.metricsPort() + ": " + e.getMessage());
+            return;
+        }
+        serverExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "EventNotifications-Metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(serverExecutor);
+        server.createContext("/metrics", this::handle);
+        server.start();
+        logger.accept("Serving metrics at http://" + config.metricsAddress() + ":"
+                + server.getAddress().getPort() + "/metrics");
+    }
+
+    public synchronized void stop() {
+        if (server == null) {
+            return;
+        }
+        server.stop(0);
+        serverExecutor.shutdownNow();
+        server = null;
+        serverExecutor = null;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String method = exchange.getRequestMethod();
+            if (!method.equals("GET") && !method.equals("HEAD")) {
+                exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            if (!exchange.getRequestURI().getPath().equals("/metrics")) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            byte[] body = scrape().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            if (method.equals("HEAD")) {
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    /**
+     * Renders all metrics in Prometheus text exposition format.
+     */
+    public String scrape() {
+        StringBuilder out = new StringBuilder(4096);
+        MetricsRegistry metrics = notificationService.getMetrics();
+        DeliveryDispatcher dispatcher = notificationService.getDispatcher();
+
+        header(out, "events_captured_total", "counter", "Game events captured, by type");
+        for (GameEventType type : GameEventType.values()) {
+            sample(out, "events_captured_total", "event", type.getConfigKey(), metrics.getEventsCaptured(type));
+        }
+        header(out, "payloads_rendered_total", "counter", "Notifications rendered from templates");
+        sample(out, "payloads_rendered_total", metrics.getPayloadsRendered());
+        EventBus eventBus = notificationService.getEventBus();
+        if (eventBus != null) {
+            header(out, "events_pending", "gauge", "Game events waiting for the event handlers");
+            sample(out, "events_pending", eventBus.getPendingCount());
+            header(out, "events_dropped_total", "counter", "Game events dropped because the event buffer was full");
+            sample(out, "events_dropped_total", eventBus.getDroppedCount());
+        }
+
+        header(out, "queue_depth", "gauge", "Notifications waiting in the delivery queue");
+        sample(out, "queue_depth", dispatcher.getQueueDepth());
+        header(out, "queue_capacity", "gauge", "Capacity of the delivery queue");
+        sample(out, "queue_capacity", dispatcher.getQueueCapacity());
+        header(out, "submitted_total", "counter", "Notifications offered to the delivery queue");
+        sample(out, "submitted_total", dispatcher.getSubmittedCount());
+        header(out, "queue_dropped_total", "counter", "Notifications dropped because the queue was full");
+        sample(out, "queue_dropped_total", dispatcher.getDroppedCount());
+        header(out, "delivered_total", "counter", "Notifications delivered");
+        sample(out, "delivered_total", dispatcher.getDeliveredCount());
+        header(out, "failed_total", "counter", "Notifications given up on after all attempts");
+        sample(out, "failed_total", dispatcher.getFailedCount());
+        header(out, "retried_total", "counter", "Requests scheduled for another attempt");
+        sample(out, "retried_total", dispatcher.getRetriedCount());
+        header(out, "pending_retries", "gauge", "Notifications waiting for their next attempt");
+        sample(out, "pending_retries", dispatcher.getPendingRetries());
+        header(out, "short_circuited_total", "counter", "Notifications refused by an open circuit breaker");
+        sample(out, "short_circuited_total", dispatcher.getShortCircuitedCount());
+        header(out, "held_back", "gauge", "Spooled notifications waiting for a circuit breaker to close");
+        sample(out, "held_back", dispatcher.getHeldBackCount());
+
+        header(out, "in_flight", "gauge", "Requests being sent");
+        sample(out, "in_flight", dispatcher.getInFlight());
+        header(out, "max_in_flight", "gauge", "Maximum number of requests sent at the same time");
+        sample(out, "max_in_flight", dispatcher.getMaxInFlight());
+        header(out, "executor_active_tasks", "gauge", "Tasks running on the delivery executor");
+        sample(out, "executor_active_tasks", executor.getActiveTasks());
+        header(out, "executor_queued_tasks", "gauge", "Tasks waiting for a delivery worker thread");
+        sample(out, "executor_queued_tasks", executor.getQueuedTasks());
+        header(out, "executor_pool_size", "gauge", "Delivery worker threads, 0 when using virtual threads");
+        sample(out, "executor_pool_size", executor.getPoolSize());
+
+        RateLimits rateLimits = notificationService.getRateLimits();
+        header(out, "event_rate_limit_tokens", "gauge", "Tokens left in the rate limit bucket of each event type");
+        for (Map.Entry<GameEventType, RateLimiter> entry : rateLimits.getEventLimiters().entrySet()) {
+            sample(out, "event_rate_limit_tokens", "event", entry.getKey().getConfigKey(),
+                    entry.getValue().getAvailableTokens());
+        }
+        header(out, "event_rate_limit_capacity", "gauge", "Size of the rate limit bucket of each event type");
+        for (Map.Entry<GameEventType, RateLimiter> entry : rateLimits.getEventLimiters().entrySet()) {
+            sample(out, "event_rate_limit_capacity", "event", entry.getKey().getConfigKey(),
+                    entry.getValue().getMaxTokens());
+        }
+        Map<String, RateLimiter> targetLimiters = new TreeMap<>();
+        for (NotificationTarget target : notificationService.getTargets()) {
+            RateLimiter limiter = rateLimits.getTargetLimiter(target.getName());
+            if (limiter != null) {
+                targetLimiters.put(target.getName(), limiter);
+            }
+        }
+        header(out, "target_rate_limit_tokens", "gauge", "Tokens left in the rate limit bucket of each target");
+        targetLimiters.forEach((name, limiter) -> sample(out, "target_rate_limit_tokens", "target", name,
+                limiter.getAvailableTokens()));
+        header(out, "target_rate_limit_capacity", "gauge", "Size of the rate limit bucket of each target");
+        targetLimiters.forEach((name, limiter) -> sample(out, "target_rate_limit_capacity", "target", name,
+                limiter.getMaxTokens()));
+
+        writeTargets(out, metrics.getTargets());
+
+        header(out, "start_time_seconds", "gauge", "Time the metrics started being recorded, in unix seconds");
+        sample(out, "start_time_seconds", metrics.getStartedAtMillis() / 1000);
+        return out.toString();
+    }
+
+    private static void writeTargets(StringBuilder out, Map<String, TargetMetrics> targets) {
+        header(out, "target_requests_total", "counter", "HTTP requests sent to each target");
+        targets.forEach((name, target) -> sample(out, "target_requests_total", "target", name,
+                target.getRequestCount()));
+        header(out, "target_delivered_total", "counter", "Notifications delivered to each target");
+        targets.forEach((name, target) -> sample(out, "target_delivered_total", "target", name,
+                target.getDeliveredCount()));
+        header(out, "target_failed_total", "counter", "Notifications each target failed after all attempts");
+        targets.forEach((name, target) -> sample(out, "target_failed_total", "target", name,
+                target.getFailedCount()));
+        header(out, "target_dropped_total", "counter", "Notifications for each target dropped before sending");
+        targets.forEach((name, target) -> sample(out, "target_dropped_total", "target", name,
+                target.getDroppedCount()));
+        header(out, "target_rate_limited_total", "counter", "Notifications for each target refused by a rate limit");
+        targets.forEach((name, target) -> sample(out, "target_rate_limited_total", "target", name,
+                target.getRateLimitedCount()));
+        header(out, "target_in_flight", "gauge", "Requests being sent to each target");
+        targets.forEach((name, target) -> sample(out, "target_in_flight", "target", name,
+                target.getInFlight()));
+
+        String histogram = "target_request_duration_seconds";
+        header(out, histogram, "histogram", "Time from sending a request to each target until its response");
+        targets.forEach((name, target) -> {
+            LatencyHistogram latency = target.getLatency();
+            long[] counts = latency.cumulativeCounts(LATENCY_BUCKET_MICROS);
+            String label = escape(name);
+            for (int i = 0; i < LATENCY_BUCKET_LABELS.length; i++) {
+                bucket(out, histogram, label, LATENCY_BUCKET_LABELS[i], counts[i]);
+            }
+            long count = counts[counts.length - 1];
+            bucket(out, histogram, label, "+Inf", count);
+            out.append(PREFIX).append(histogram).append("_sum{target=\"").append(label).append("\"} ")
+                    .append(latency.getSumMicros() / 1_000_000.0).append('\n');
+            out.append(PREFIX).append(histogram).append("_count{target=\"").append(label).append("\"} ")
+                    .append(count).append('\n');
+        });
+    }
+
+    private static void header(StringBuilder out, String name, String type, String help) {
+        out.append("# HELP ").append(PREFIX).append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(PREFIX).append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, long value) {
+        out.append(PREFIX).append(name).append(' ').append(value).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, String labelName, String labelValue, long value) {
+        out.append(PREFIX).append(name).append('{').append(labelName).append("=\"").append(escape(labelValue))
+                .append("\"} ").append(value).append('\n');
+    }
+
+    private static void bucket(StringBuilder out, String name, String escapedTarget, String le, long count) {
+        out.append(PREFIX).append(name).append("_bucket{target=\"").append(escapedTarget)
+                .append("\",le=\"").append(le).append("\"} ").append(count).append('\n');
+    }
+
+    /**
+     * Escapes a label value: backslash, double quote and line feed.
+     */
+    private static String escape(String value) {
+        if (value.indexOf('\\') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
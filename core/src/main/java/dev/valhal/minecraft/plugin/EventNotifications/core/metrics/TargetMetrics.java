@@ -0,0 +1,74 @@
+package dev.valhal.minecraft.plugin.EventNotifications.core.metrics;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Delivery counters and send latency for one target.
+ * Requests are single HTTP attempts; delivered, failed and dropped count notifications
+ * once they are done, after any retries. Rate limited counts notifications refused by the
+ * event or target rate limit, which were never sent.
+ */
+public class TargetMetrics {
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder rateLimited = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    public void onRequestStarted() {
+        inFlight.incrementAndGet();
+        requests.increment();
+    }
+
+    public void onRequestCompleted(long elapsedNanos) {
+        inFlight.decrementAndGet();
+        latency.record(elapsedNanos);
+    }
+
+    public void onDelivered() {
+        delivered.increment();
+    }
+
+    public void onFailed() {
+        failed.increment();
+    }
+
+    public void onDropped() {
+        dropped.increment();
+    }
+
+    public void onRateLimited() {
+        rateLimited.increment();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    public long getDeliveredCount() {
+        return delivered.sum();
+    }
+
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public long getRateLimitedCount() {
+        return rateLimited.sum();
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+}
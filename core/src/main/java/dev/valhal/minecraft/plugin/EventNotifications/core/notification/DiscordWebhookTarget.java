@@ -1,33 +1,51 @@
 package dev.valhal.minecraft.plugin.EventNotifications.core.notification;
 
 import dev.valhal.minecraft.plugin.EventNotifications.core.config.AuthConfig;
+import dev.valhal.minecraft.plugin.EventNotifications.core.config.BatchConfig;
+import dev.valhal.minecraft.plugin.EventNotifications.core.delivery.PayloadBatcher;
+import dev.valhal.minecraft.plugin.EventNotifications.core.http.HttpTransport;
+import dev.valhal.minecraft.plugin.EventNotifications.core.http.JsonWriter;
+import dev.valhal.minecraft.plugin.EventNotifications.core.http.RequestBody;
 
-import java.net.URI;
-import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
-import java.time.Duration;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
 
 public class DiscordWebhookTarget implements NotificationTarget {
+    // Discord webhook limits, see https://discord.com/developers/docs/resources/message#embed-object-embed-limits
+    public static final int MAX_EMBEDS = 10;
+    private static final int MAX_EMBED_CHARACTERS = 6000;
+    private static final int MAX_TITLE_CHARACTERS = 256;
+    private static final int MAX_DESCRIPTION_CHARACTERS = 4096;
+    private static final int MAX_CONTENT_CHARACTERS = 2000;
+    // "**" + "**\n" around the title, "\n\n" between messages
+    private static final int CONTENT_MARKUP_CHARACTERS = 7;
+
     private final String name;
     private final boolean enabled;
     private final String webhookUrl;
     private final boolean useEmbeds;
     private final String icon;
     private final AuthConfig auth;
-    private final HttpClient httpClient;
+    private final HttpTransport transport;
+    private final PayloadBatcher batcher;
 
-    public DiscordWebhookTarget(String name, boolean enabled, String webhookUrl, boolean useEmbeds, String icon, AuthConfig auth) {
+    public DiscordWebhookTarget(String name, boolean enabled, String webhookUrl, boolean useEmbeds, String icon, AuthConfig auth, HttpTransport transport,
+                                BatchConfig batch, RateLimiter rateLimiter, ScheduledExecutorService scheduler) {
         this.name = name;
         this.enabled = enabled;
         this.webhookUrl = webhookUrl;
         this.useEmbeds = useEmbeds;
         this.icon = icon;
         this.auth = auth != null ? auth : AuthConfig.none();
-        this.httpClient = HttpClient.newBuilder()
-                .connectTimeout(Duration.ofSeconds(10))
-                .build();
+        this.transport = transport;
+        // Batched payloads are packed into one message: embeds share the embed limit, plain messages the content limit
+        this.batcher = batch != null && batch.enabled()
+                ? new PayloadBatcher(name, batch,
+                        useEmbeds ? MAX_EMBED_CHARACTERS : MAX_CONTENT_CHARACTERS,
+                        this::getBatchWeight, this::sendBatch, rateLimiter, scheduler)
+                : null;
     }
 
     @Override
@@ -53,11 +71,58 @@ public class DiscordWebhookTarget implements NotificationTarget {
             );
         }
 
-        String jsonBody = buildJsonBody(payload);
+        if (batcher != null) {
+            return batcher.add(payload);
+        }
+
+        RequestBody body = encodeBody(payload);
+        return send(payload, body).whenComplete((result, error) -> body.release());
+    }
+
+    @Override
+    public boolean isBatching() {
+        return batcher != null;
+    }
+
+    @Override
+    public void flush() {
+        if (batcher != null) {
+            batcher.flush();
+        }
+    }
+
+    @Override
+    public String getBodyKey() {
+        // Batched bodies depend on what else is queued, so they are never shared
+        if (batcher != null) {
+            return null;
+        }
+        return "discord:" + useEmbeds + ":" + (icon != null ? icon : "");
+    }
+
+    @Override
+    public RequestBody encodeBody(NotificationPayload payload) {
+        return buildJsonBody(payload);
+    }
+
+    @Override
+    public CompletableFuture<NotificationResult> send(NotificationPayload payload, RequestBody jsonBody) {
+        if (!enabled) {
+            return CompletableFuture.completedFuture(
+                    NotificationResult.failure(name, "Target is disabled")
+            );
+        }
+
+        return post(jsonBody);
+    }
+
+    private CompletableFuture<NotificationResult> sendBatch(List<NotificationPayload> payloads) {
+        RequestBody body = buildJsonBody(payloads);
+        return post(body).whenComplete((result, error) -> body.release());
+    }
 
-        HttpRequest.Builder requestBuilder = HttpRequest.newBuilder()
-                .uri(URI.create(webhookUrl))
-                .timeout(Duration.ofSeconds(30))
+    private CompletableFuture<NotificationResult> post(RequestBody jsonBody) {
+        HttpRequest.Builder requestBuilder = transport.newRequest(webhookUrl)
                 .header("Content-Type", "application/json");
 
         // Add authentication header if configured
@@ -66,44 +131,93 @@ public class DiscordWebhookTarget implements NotificationTarget {
         }
 
         HttpRequest request = requestBuilder
-                .POST(HttpRequest.BodyPublishers.ofString(jsonBody))
+                .POST(jsonBody.publisher())
                 .build();
 
-        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
-                .thenApply(response -> {
-                    if (response.statusCode() >= 200 && response.statusCode() < 300) {
-                        return NotificationResult.success(name);
-                    } else {
-                        return NotificationResult.failure(name,
-                                "HTTP " + response.statusCode() + ": " + response.body());
-                    }
-                })
-                .exceptionally(e -> NotificationResult.failure(name, e.getMessage()));
+        return transport.send(name, request);
     }
 
-    private String buildJsonBody(NotificationPayload payload) {
-        StringBuilder json = new StringBuilder("{");
+    private RequestBody buildJsonBody(NotificationPayload payload) {
+        return buildJsonBody(List.of(payload));
+    }
+
+    private RequestBody buildJsonBody(List<NotificationPayload> payloads) {
+        JsonWriter json = new JsonWriter().beginObject();
 
         // Add avatar_url if icon is configured
         if (icon != null && !icon.isBlank()) {
-            json.append("\"avatar_url\":\"").append(escapeJson(icon)).append("\",");
+            json.name("avatar_url").value(icon);
         }
 
         if (useEmbeds) {
-            int color = getColor(payload);
-            json.append(String.format(
-                    "\"embeds\":[{\"title\":\"%s\",\"description\":\"%s\",\"color\":%d}]",
-                    escapeJson(payload.title()),
-                    escapeJson(payload.message()),
-                    color
-            ));
+            // One embed per payload, up to MAX_EMBEDS per request
+            json.name("embeds").beginArray();
+            for (NotificationPayload payload : payloads) {
+                json.beginObject()
+                        .name("title").value(getTitle(payload))
+                        .name("description").value(getMessage(payload))
+                        .name("color").value(getColor(payload))
+                        .endObject();
+            }
+            json.endArray();
         } else {
-            String content = "**" + payload.title() + "**\n" + payload.message();
-            json.append(String.format("\"content\":\"%s\"", escapeJson(content)));
+            json.name("content").beginString();
+            for (int i = 0; i < payloads.size(); i++) {
+                NotificationPayload payload = payloads.get(i);
+                if (i > 0) {
+                    json.stringPart("\n\n");
+                }
+                json.stringPart("**").stringPart(getTitle(payload)).stringPart("**\n").stringPart(getMessage(payload));
+            }
+            json.endString();
         }
 
-        json.append("}");
-        return json.toString();
+        return json.endObject().toRequestBody();
+    }
+
+    /**
+     * Characters a payload adds to a batched message, counted against Discord's limits.
+     */
+    private int getBatchWeight(NotificationPayload payload) {
+        int length = length(getTitle(payload)) + length(getMessage(payload));
+        return useEmbeds ? length : length + CONTENT_MARKUP_CHARACTERS;
+    }
+
+    /**
+     * The title cut to Discord's embed title limit, which also keeps plain messages short.
+     */
+    private static String getTitle(NotificationPayload payload) {
+        return truncate(payload.title(), MAX_TITLE_CHARACTERS);
+    }
+
+    /**
+     * The message cut so a single notification always fits in one request on its own; a
+     * too long one would otherwise get the whole batch rejected with a 400.
+     */
+    private String getMessage(NotificationPayload payload) {
+        int maxLength = useEmbeds
+                ? MAX_DESCRIPTION_CHARACTERS
+                : MAX_CONTENT_CHARACTERS - CONTENT_MARKUP_CHARACTERS - length(getTitle(payload));
+        return truncate(payload.message(), maxLength);
+    }
+
+    private static int length(String text) {
+        return text != null ? text.length() : 0;
+    }
+
+    /**
+     * Shortens text to at most maxLength characters, ending in an ellipsis when cut.
+     */
+    private static String truncate(String text, int maxLength) {
+        if (text == null || text.length() <= maxLength) {
+            return text;
+        }
+        int end = Math.max(0, maxLength - 1);
+        // Never split a surrogate pair
+        if (end > 0 && Character.isHighSurrogate(text.charAt(end - 1))) {
+            end--;
+        }
+        return text.substring(0, end) + "\u2026";
     }
 
     private int getColor(NotificationPayload payload) {
@@ -143,14 +257,4 @@ public class DiscordWebhookTarget implements NotificationTarget {
             case MIN -> 9807270;      // Grey
         };
     }
-
-    private String escapeJson(String text) {
-        if (text == null) return "";
-        return text
-                .replace("\\", "\\\\")
-                .replace("\"", "\\\"")
-                .replace("\n", "\\n")
-                .replace("\r", "\\r")
-                .replace("\t", "\\t");
-    }
 }
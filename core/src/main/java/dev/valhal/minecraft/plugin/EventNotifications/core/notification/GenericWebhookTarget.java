@@ -1,12 +1,11 @@
 package dev.valhal.minecraft.plugin.EventNotifications.core.notification;
 
 import dev.valhal.minecraft.plugin.EventNotifications.core.config.AuthConfig;
+import dev.valhal.minecraft.plugin.EventNotifications.core.http.HttpTransport;
+import dev.valhal.minecraft.plugin.EventNotifications.core.http.JsonWriter;
+import dev.valhal.minecraft.plugin.EventNotifications.core.http.RequestBody;
 
-import java.net.URI;
-import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
-import java.time.Duration;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
@@ -17,18 +16,16 @@ public class GenericWebhookTarget implements NotificationTarget {
     private final String method;
     private final Map<String, String> headers;
     private final AuthConfig auth;
-    private final HttpClient httpClient;
+    private final HttpTransport transport;
 
-    public GenericWebhookTarget(String name, boolean enabled, String url, String method, Map<String, String> headers, AuthConfig auth) {
+    public GenericWebhookTarget(String name, boolean enabled, String url, String method, Map<String, String> headers, AuthConfig auth, HttpTransport transport) {
         this.name = name;
         this.enabled = enabled;
         this.url = url;
         this.method = method != null ? method.toUpperCase() : "POST";
         this.headers = headers != null ? headers : Map.of();
         this.auth = auth != null ? auth : AuthConfig.none();
-        this.httpClient = HttpClient.newBuilder()
-                .connectTimeout(Duration.ofSeconds(10))
-                .build();
+        this.transport = transport;
     }
 
     @Override
@@ -54,16 +51,35 @@ public class GenericWebhookTarget implements NotificationTarget {
             );
         }
 
-        String jsonBody = String.format(
-                "{\"title\":\"%s\",\"message\":\"%s\",\"priority\":\"%s\"}",
-                escapeJson(payload.title()),
-                escapeJson(payload.message()),
-                payload.getPriority().name().toLowerCase()
-        );
+        RequestBody body = encodeBody(payload);
+        return send(payload, body).whenComplete((result, error) -> body.release());
+    }
+
+    @Override
+    public String getBodyKey() {
+        return "webhook";
+    }
 
-        HttpRequest.Builder requestBuilder = HttpRequest.newBuilder()
-                .uri(URI.create(url))
-                .timeout(Duration.ofSeconds(30))
+    @Override
+    public RequestBody encodeBody(NotificationPayload payload) {
+        return new JsonWriter()
+                .beginObject()
+                .name("title").value(payload.title())
+                .name("message").value(payload.message())
+                .name("priority").value(payload.getPriority().name().toLowerCase())
+                .endObject()
+                .toRequestBody();
+    }
+
+    @Override
+    public CompletableFuture<NotificationResult> send(NotificationPayload payload, RequestBody jsonBody) {
+        if (!enabled) {
+            return CompletableFuture.completedFuture(
+                    NotificationResult.failure(name, "Target is disabled")
+            );
+        }
+
+        HttpRequest.Builder requestBuilder = transport.newRequest(url)
                 .header("Content-Type", "application/json");
 
         // Add authentication header if configured
@@ -76,29 +92,10 @@ public class GenericWebhookTarget implements NotificationTarget {
         }
 
         HttpRequest request = switch (method) {
-            case "PUT" -> requestBuilder.PUT(HttpRequest.BodyPublishers.ofString(jsonBody)).build();
-            default -> requestBuilder.POST(HttpRequest.BodyPublishers.ofString(jsonBody)).build();
+            case "PUT" -> requestBuilder.PUT(jsonBody.publisher()).build();
+            default -> requestBuilder.POST(jsonBody.publisher()).build();
         };
 
-        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
-                .thenApply(response -> {
-                    if (response.statusCode() >= 200 && response.statusCode() < 300) {
-                        return NotificationResult.success(name);
-                    } else {
-                        return NotificationResult.failure(name,
-                                "HTTP " + response.statusCode() + ": " + response.body());
-                    }
-                })
-                .exceptionally(e -> NotificationResult.failure(name, e.getMessage()));
-    }
-
-    private String escapeJson(String text) {
-        if (text == null) return "";
-        return text
-                .replace("\\", "\\\\")
-                .replace("\"", "\\\"")
-                .replace("\n", "\\n")
-                .replace("\r", "\\r")
-                .replace("\t", "\\t");
+        return transport.send(name, request);
     }
 }
@@ -1,10 +1,23 @@
 package dev.valhal.minecraft.plugin.EventNotifications.core.notification;
 
+/**
+ * Outcome of a single send attempt.
+ * statusCode is the HTTP status, or 0 if no response was received. retryable marks
+ * transient failures (429, 5xx, timeouts, refused connections) that are worth another
+ * attempt, and retryAfterMillis carries the delay the server asked for, or 0 if none.
+ */
 public record NotificationResult(
         boolean success,
         String targetName,
-        String message
+        String message,
+        int statusCode,
+        boolean retryable,
+        long retryAfterMillis
 ) {
+    public NotificationResult(boolean success, String targetName, String message) {
+        this(success, targetName, message, 0, false, 0);
+    }
+
     public static NotificationResult success(String targetName) {
         return new NotificationResult(true, targetName, "Notification sent successfully");
     }
@@ -12,4 +25,15 @@ public record NotificationResult(
     public static NotificationResult failure(String targetName, String error) {
         return new NotificationResult(false, targetName, error);
     }
+
+    public static NotificationResult retryableFailure(String targetName, String error, int statusCode, long retryAfterMillis) {
+        return new NotificationResult(false, targetName, error, statusCode, true, retryAfterMillis);
+    }
+
+    /**
+     * Copy of this result with a different message, keeping the retry information.
+     */
+    public NotificationResult withMessage(String newMessage) {
+        return new NotificationResult(success, targetName, newMessage, statusCode, retryable, retryAfterMillis);
+    }
 }
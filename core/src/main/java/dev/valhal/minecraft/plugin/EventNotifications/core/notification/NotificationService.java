@@ -1,61 +1,168 @@
 package dev.valhal.minecraft.plugin.EventNotifications.core.notification;
 
 import dev.valhal.minecraft.plugin.EventNotifications.core.config.AuthConfig;
+import dev.valhal.minecraft.plugin.EventNotifications.core.config.BatchConfig;
 import dev.valhal.minecraft.plugin.EventNotifications.core.config.PluginConfig;
 import dev.valhal.minecraft.plugin.EventNotifications.core.config.TargetConfig;
-import dev.valhal.minecraft.plugin.EventNotifications.core.config.TemplateConfig;
 import dev.valhal.minecraft.plugin.EventNotifications.core.config.TemplateLoader;
+import dev.valhal.minecraft.plugin.EventNotifications.core.delivery.Delivery;
+import dev.valhal.minecraft.plugin.EventNotifications.core.delivery.DeliveryDispatcher;
+import dev.valhal.minecraft.plugin.EventNotifications.core.delivery.DeliveryExecutor;
+import dev.valhal.minecraft.plugin.EventNotifications.core.delivery.DeliverySpool;
+import dev.valhal.minecraft.plugin.EventNotifications.core.delivery.ShutdownCoordinator;
 import dev.valhal.minecraft.plugin.EventNotifications.core.event.EventBus;
+import dev.valhal.minecraft.plugin.EventNotifications.core.event.EventHandler;
 import dev.valhal.minecraft.plugin.EventNotifications.core.event.GameEvent;
+import dev.valhal.minecraft.plugin.EventNotifications.core.event.GameEventType;
+import dev.valhal.minecraft.plugin.EventNotifications.core.http.HttpTransport;
+import dev.valhal.minecraft.plugin.EventNotifications.core.http.RequestBody;
+import dev.valhal.minecraft.plugin.EventNotifications.core.metrics.MetricsRegistry;
+import dev.valhal.minecraft.plugin.EventNotifications.core.template.CompiledEventTemplate;
+import dev.valhal.minecraft.plugin.EventNotifications.core.template.CompiledTemplate;
+import dev.valhal.minecraft.plugin.EventNotifications.core.template.PlaceholderResolver;
 import dev.valhal.minecraft.plugin.EventNotifications.core.template.TemplateEngine;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.function.Consumer;
 
 public class NotificationService {
-    private PluginConfig config;
+    // Replaced as a whole on reload, since events are handled on the event bus thread
+    private volatile PluginConfig config;
     private final TemplateLoader templateLoader;
     private final TemplateEngine templateEngine;
-    private final List<NotificationTarget> targets;
-    private final RateLimiter rateLimiter;
-    private final Executor executor;
+    private volatile List<NotificationTarget> targets;
+    private volatile RateLimits rateLimits;
+    private final DeliveryDispatcher dispatcher;
+    private final HttpTransport transport;
+    private final ScheduledExecutorService scheduler;
+    private final DeliverySpool spool;
+    private final MetricsRegistry metrics = new MetricsRegistry();
     private final Consumer<String> logger;
+    private volatile boolean accepting = true;
+    // Event types at least one enabled target has an enabled template for; recomputed with the targets
+    private volatile Set<GameEventType> interestedTypes;
+    private final EventHandler eventHandler = this::handleEvent;
+    private EventBus eventBus;
 
-    public NotificationService(PluginConfig config, TemplateLoader templateLoader, Executor executor, Consumer<String> logger) {
+    /**
+     * @param dataDir directory for runtime data; undelivered notifications are spooled to its "spool" subdirectory
+     */
+    public NotificationService(PluginConfig config, TemplateLoader templateLoader, Path dataDir,
+                               DeliveryExecutor executor, Consumer<String> logger) {
         this.config = config;
         this.templateLoader = templateLoader;
-        this.executor = executor;
         this.logger = logger;
         this.templateEngine = new TemplateEngine(config.serverName());
-        this.targets = new ArrayList<>();
-        this.rateLimiter = RateLimiter.perMinute(30);
+        this.rateLimits = new RateLimits(config.delivery(), config.targets());
+        // Timer for batch linger windows and retry backoff; never runs deliveries itself
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "EventNotifications-Scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.spool = openSpool(config, dataDir);
+        this.dispatcher = new DeliveryDispatcher(config.delivery(), executor, scheduler, spool, metrics, logger);
+        // Shared by all targets and kept across reloads; on virtual threads the client's callbacks run there too.
+        // The dispatcher hears about every request, so batched ones are counted and timed once
+        this.transport = new HttpTransport(executor.isVirtualThreads() ? executor : null,
+                config.delivery().errorBodyMaxBytes(), dispatcher);
+
+        this.targets = createTargets(config);
+        this.interestedTypes = computeInterestedTypes(targets);
+        resendSpooledDeliveries();
+    }
 
-        initializeTargets(config);
+    private DeliverySpool openSpool(PluginConfig pluginConfig, Path dataDir) {
+        if (!pluginConfig.delivery().spoolEnabled() || dataDir == null) {
+            return null;
+        }
+        try {
+            long maxBytes = (long) pluginConfig.delivery().spoolMaxSizeMb() * 1024 * 1024;
+            return DeliverySpool.open(dataDir.resolve("spool"), maxBytes,
+                    pluginConfig.delivery().spoolWriteDelayMs(), logger);
+        } catch (IOException e) {
+            logger.accept("Failed to open the delivery spool, notifications will not survive a restart: " + e.getMessage());
+            return null;
+        }
     }
 
-    private void initializeTargets(PluginConfig pluginConfig) {
+    /**
+     * Queues notifications that were still pending when the server last stopped.
+     * Deliveries for targets that no longer exist or are disabled are discarded.
+     */
+    private void resendSpooledDeliveries() {
+        if (spool == null) {
+            return;
+        }
+        for (DeliverySpool.SpooledDelivery spooled : spool.getRecovered()) {
+            Optional<NotificationTarget> target = getTarget(spooled.targetName());
+            if (target.isPresent() && target.get().isEnabled()) {
+                dispatcher.submit(new Delivery(target.get(), spooled.payload()).withSpoolId(spooled.id()));
+            } else {
+                spool.acknowledge(spooled.id());
+            }
+        }
+    }
+
+    /**
+     * Stops accepting events and flushes outstanding deliveries, urgent ones first, until
+     * they are sent or the configured shutdown timeout has elapsed. Then stops the timers and
+     * closes the spool. Deliveries that did not complete are sent again on the next startup.
+     * Call after the server shutdown event was published and before the executor is shut down.
+     */
+    public ShutdownCoordinator.ShutdownReport shutdown() {
+        accepting = false;
+        ShutdownCoordinator coordinator = new ShutdownCoordinator(dispatcher, targets, logger);
+        ShutdownCoordinator.ShutdownReport report =
+                coordinator.flush(Duration.ofMillis(config.delivery().shutdownTimeoutMs()));
+        close();
+        return report;
+    }
+
+    private void close() {
+        scheduler.shutdownNow();
+        if (spool != null) {
+            spool.close();
+        }
+    }
+
+    private List<NotificationTarget> createTargets(PluginConfig pluginConfig) {
+        List<NotificationTarget> created = new ArrayList<>();
         for (TargetConfig targetConfig : pluginConfig.targets()) {
             NotificationTarget target = createTarget(targetConfig);
             if (target != null) {
-                targets.add(target);
+                created.add(target);
             }
         }
+        return List.copyOf(created);
     }
 
     /**
      * Reloads targets from a new configuration.
-     * Clears existing targets and reinitializes from the provided config.
+     * Replaces the existing targets with new ones created from the provided config.
      */
     public void reloadTargets(PluginConfig newConfig) {
         this.config = newConfig;
-        targets.clear();
-        initializeTargets(newConfig);
+        // Batching targets take their bucket when created, so the buckets come first.
+        // Unchanged limits keep their bucket, so a reload does not hand out a fresh burst
+        rateLimits = new RateLimits(newConfig.delivery(), newConfig.targets(), rateLimits);
+        targets = createTargets(newConfig);
+        dispatcher.retainCircuitBreakers(targets.stream().map(NotificationTarget::getName).toList());
+        updateInterestedTypes();
 
         // Update server name in template engine if changed
         if (newConfig.serverName() != null && !newConfig.serverName().isBlank()) {
@@ -68,6 +175,9 @@ public class NotificationService {
     private NotificationTarget createTarget(TargetConfig config) {
         AuthConfig auth = AuthConfig.fromConfig(config);
         String icon = config.getString("icon");
+        HttpTransport targetTransport = transport.withTimeouts(
+                timeout(config, "connect_timeout_ms", HttpTransport.DEFAULT_CONNECT_TIMEOUT),
+                timeout(config, "request_timeout_ms", HttpTransport.DEFAULT_REQUEST_TIMEOUT));
 
         return switch (config.type().toLowerCase()) {
             case "ntfy" -> new NtfyTarget(
@@ -77,7 +187,8 @@ public class NotificationService {
                     config.getString("topic"),
                     config.getBoolean("markdown", true),
                     icon,
-                    auth
+                    auth,
+                    targetTransport
             );
             case "discord" -> new DiscordWebhookTarget(
                     config.name(),
@@ -85,7 +196,11 @@ public class NotificationService {
                     config.getString("webhook_url"),
                     config.getBoolean("use_embeds", true),
                     icon,
-                    auth
+                    auth,
+                    targetTransport,
+                    BatchConfig.fromConfig(config, DiscordWebhookTarget.MAX_EMBEDS),
+                    rateLimits.getTargetLimiter(config.name()),
+                    scheduler
             );
             case "slack" -> new SlackWebhookTarget(
                     config.name(),
@@ -93,7 +208,11 @@ public class NotificationService {
                     config.getString("webhook_url"),
                     config.getBoolean("use_attachments", true),
                     icon,
-                    auth
+                    auth,
+                    targetTransport,
+                    BatchConfig.fromConfig(config, SlackWebhookTarget.MAX_ATTACHMENTS),
+                    rateLimits.getTargetLimiter(config.name()),
+                    scheduler
             );
             case "webhook" -> new GenericWebhookTarget(
                     config.name(),
@@ -101,7 +220,8 @@ public class NotificationService {
                     config.getString("url"),
                     config.getString("method", "POST"),
                     null,
-                    auth
+                    auth,
+                    targetTransport
             );
             default -> {
                 logger.accept("Unknown target type: " + config.type());
@@ -110,57 +230,191 @@ public class NotificationService {
         };
     }
 
-    public void registerWithEventBus(EventBus eventBus) {
-        eventBus.subscribe(this::handleEvent);
+    private static Duration timeout(TargetConfig config, String key, Duration defaultTimeout) {
+        int millis = config.getInt(key, (int) defaultTimeout.toMillis());
+        return millis > 0 ? Duration.ofMillis(millis) : defaultTimeout;
     }
 
-    private void handleEvent(GameEvent event) {
-        if (!rateLimiter.tryAcquire()) {
+    /**
+     * Subscribes to the event types some target is interested in. The subscription follows
+     * the targets on reload, so adapters can check {@link EventBus#hasSubscribers} to skip
+     * capturing events no target would send.
+     */
+    public synchronized void registerWithEventBus(EventBus eventBus) {
+        this.eventBus = eventBus;
+        eventBus.resubscribe(interestedTypes, eventHandler);
+    }
+
+    private synchronized void updateInterestedTypes() {
+        interestedTypes = computeInterestedTypes(targets);
+        if (eventBus != null) {
+            eventBus.resubscribe(interestedTypes, eventHandler);
+        }
+    }
+
+    private Set<GameEventType> computeInterestedTypes(List<NotificationTarget> currentTargets) {
+        Set<GameEventType> interested = EnumSet.noneOf(GameEventType.class);
+        for (GameEventType type : GameEventType.values()) {
+            for (NotificationTarget target : currentTargets) {
+                if (target.isEnabled() && templateLoader.getCompiledTemplate(type, target.getType()).enabled()) {
+                    interested.add(type);
+                    break;
+                }
+            }
+        }
+        return Collections.unmodifiableSet(interested);
+    }
+
+    /**
+     * Gets the event types at least one enabled target would send a notification for.
+     */
+    public Set<GameEventType> getInterestedTypes() {
+        return interestedTypes;
+    }
+
+    /**
+     * Renders an event for every target that sends it and queues the deliveries.
+     * Normally called on the event bus consumer thread; benchmarks call it directly.
+     */
+    public void handleEvent(GameEvent event) {
+        if (!accepting) {
             return;
         }
+        metrics.onEventCaptured(event.getType());
+
+        // Each event type has its own bucket, so a flood of one type cannot starve the others
+        if (!rateLimits.tryAcquireEvent(event.getType())) {
+            countRateLimited(event.getType());
+            return;
+        }
+
+        // Targets resolving to the same template share one rendered payload
+        Map<CompiledEventTemplate, RenderedPayload> rendered = new IdentityHashMap<>();
 
         for (NotificationTarget target : targets) {
             if (!target.isEnabled()) {
                 continue;
             }
 
-            // Get template specific to this target type
-            TemplateConfig.EventTemplate template = templateLoader.getTemplate(event.getType(), target.getType());
+            // Get the precompiled template specific to this target type
+            CompiledEventTemplate template = templateLoader.getCompiledTemplate(event.getType(), target.getType());
 
             if (!template.enabled()) {
                 continue;
             }
 
-            String title = templateEngine.render(template.title(), event.getPlaceholders());
-            String message = templateEngine.render(template.message(), event.getPlaceholders());
+            // Respect the target's own limit without affecting other targets; batching targets
+            // charge it per request instead, so a burst is packed into batches rather than dropped
+            if (!target.isBatching() && !rateLimits.tryAcquireTarget(target)) {
+                metrics.target(target.getName()).onRateLimited();
+                continue;
+            }
 
-            // Render any string extras that might contain placeholders (e.g., tags with {{player_name}})
-            Map<String, Object> renderedExtras = new HashMap<>();
-            for (Map.Entry<String, Object> entry : template.extras().entrySet()) {
-                if (entry.getValue() instanceof String strValue) {
-                    renderedExtras.put(entry.getKey(), templateEngine.render(strValue, event.getPlaceholders()));
-                } else {
-                    renderedExtras.put(entry.getKey(), entry.getValue());
-                }
+            RenderedPayload payload = rendered.computeIfAbsent(template,
+                    t -> {
+                        metrics.onPayloadRendered();
+                        return new RenderedPayload(renderPayload(t, event));
+                    });
+
+            dispatcher.submit(new Delivery(target, payload.payload(), payload.bodyFor(target)));
+        }
+
+        // Each delivery holds its own reference, so the bodies are recycled once the last one completes
+        for (RenderedPayload payload : rendered.values()) {
+            payload.release();
+        }
+    }
+
+    /**
+     * Counts an event refused by its type's rate limit against every target that would have sent it.
+     */
+    private void countRateLimited(GameEventType type) {
+        for (NotificationTarget target : targets) {
+            if (target.isEnabled() && templateLoader.getCompiledTemplate(type, target.getType()).enabled()) {
+                metrics.target(target.getName()).onRateLimited();
             }
+        }
+    }
 
-            // Add priority to extras (used by ntfy)
-            renderedExtras.put("priority", template.priority().name().toLowerCase());
+    /**
+     * A payload rendered once for an event and template, plus the request bodies built from it.
+     * Targets with the same body key (e.g. several Discord webhooks with the same settings)
+     * reuse a single encoded body.
+     */
+    private record RenderedPayload(NotificationPayload payload, Map<String, RequestBody> bodies) {
+        RenderedPayload(NotificationPayload payload) {
+            this(payload, new HashMap<>(4));
+        }
 
-            NotificationPayload payload = new NotificationPayload(title, message, renderedExtras);
+        /**
+         * The shared body for a target, retained for the caller, or null if the target encodes its own.
+         */
+        RequestBody bodyFor(NotificationTarget target) {
+            String bodyKey = target.getBodyKey();
+            if (bodyKey == null) {
+                return null;
+            }
+            return bodies.computeIfAbsent(bodyKey, key -> target.encodeBody(payload)).retain();
+        }
 
-            CompletableFuture.runAsync(() -> {
-                target.send(payload).thenAccept(result -> {
-                    if (!result.success()) {
-                        logger.accept("Failed to send notification to " + result.targetName() + ": " + result.message());
-                    }
-                });
-            }, executor);
+        void release() {
+            for (RequestBody body : bodies.values()) {
+                body.release();
+            }
         }
     }
 
+    private NotificationPayload renderPayload(CompiledEventTemplate template, PlaceholderResolver placeholders) {
+        String title = templateEngine.render(template.title(), placeholders);
+        String message = templateEngine.render(template.message(), placeholders);
+
+        // Render any string extras that might contain placeholders (e.g., tags with {{player_name}})
+        Map<String, Object> renderedExtras = new HashMap<>(template.extras().size() + 1);
+        for (Map.Entry<String, Object> entry : template.extras().entrySet()) {
+            if (entry.getValue() instanceof CompiledTemplate compiled) {
+                renderedExtras.put(entry.getKey(), templateEngine.render(compiled, placeholders));
+            } else {
+                renderedExtras.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        // Add priority to extras (used by ntfy)
+        renderedExtras.put("priority", template.priority());
+
+        return new NotificationPayload(title, message, renderedExtras);
+    }
+
     public List<NotificationTarget> getTargets() {
-        return List.copyOf(targets);
+        return targets;
+    }
+
+    /**
+     * Gets the delivery stage, e.g. to inspect queue depth and drop counts.
+     */
+    public DeliveryDispatcher getDispatcher() {
+        return dispatcher;
+    }
+
+    /**
+     * Gets the pipeline metrics: captured events, rendered payloads and per-target deliveries.
+     */
+    public MetricsRegistry getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Gets the event bus this service is registered with, or null before registration.
+     */
+    public synchronized EventBus getEventBus() {
+        return eventBus;
+    }
+
+    /**
+     * Gets the rate limit buckets currently in use. A reload replaces only the buckets
+     * whose limits changed.
+     */
+    public RateLimits getRateLimits() {
+        return rateLimits;
     }
 
     public void updateServerName(String serverName) {
@@ -187,6 +441,12 @@ public class NotificationService {
 
         NotificationTarget target = targetOpt.get();
 
+        if (!accepting) {
+            return CompletableFuture.completedFuture(
+                    NotificationResult.failure(targetName, "Server is shutting down")
+            );
+        }
+
         if (!target.isEnabled()) {
             return CompletableFuture.completedFuture(
                     NotificationResult.failure(targetName, "Target is disabled")
@@ -194,27 +454,23 @@ public class NotificationService {
         }
 
         // Use message template
-        TemplateConfig.EventTemplate template = templateLoader.getMessageTemplate();
+        CompiledEventTemplate template = templateLoader.getCompiledMessageTemplate();
 
-        // Create placeholders map with the message content
-        Map<String, String> placeholders = Map.of("message", message);
+        // The message content is the only placeholder
+        PlaceholderResolver placeholders = key -> key.equals("message") ? message : null;
 
         // Render title and message using template
         String title = templateEngine.render(template.title(), placeholders);
         String renderedMessage = templateEngine.render(template.message(), placeholders);
 
         // Build extras from template
-        Map<String, Object> extras = new HashMap<>(template.extras());
+        Map<String, Object> extras = new HashMap<>(template.source().extras());
 
         NotificationPayload payload = new NotificationPayload(title, renderedMessage, extras);
 
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                return target.send(payload).join();
-            } catch (Exception e) {
-                return NotificationResult.failure(targetName, e.getMessage());
-            }
-        }, executor);
+        Delivery delivery = new Delivery(target, payload);
+        dispatcher.submit(delivery);
+        return delivery.result();
     }
 
     /**
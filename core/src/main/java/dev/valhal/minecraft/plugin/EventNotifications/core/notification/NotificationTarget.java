@@ -1,5 +1,7 @@
 package dev.valhal.minecraft.plugin.EventNotifications.core.notification;
 
+import dev.valhal.minecraft.plugin.EventNotifications.core.http.RequestBody;
+
 import java.util.concurrent.CompletableFuture;
 
 public interface NotificationTarget {
@@ -10,4 +12,45 @@ public interface NotificationTarget {
     boolean isEnabled();
 
     CompletableFuture<NotificationResult> send(NotificationPayload payload);
+
+    /**
+     * Identifies the request body this target builds for a payload. Targets returning the
+     * same key build identical bodies, so one encoded body can be shared between them.
+     *
+     * @return the body key, or null if this target's bodies are never shared
+     */
+    default String getBodyKey() {
+        return null;
+    }
+
+    /**
+     * Builds the request body for a payload. The caller owns the returned body and releases it.
+     * Only called on targets that return a non-null {@link #getBodyKey()}.
+     */
+    default RequestBody encodeBody(NotificationPayload payload) {
+        throw new UnsupportedOperationException("Target " + getName() + " does not share request bodies");
+    }
+
+    /**
+     * Sends a payload using a body that was built by {@link #encodeBody(NotificationPayload)}
+     * on a target with the same body key. The caller keeps the body retained until the
+     * returned future completes.
+     */
+    default CompletableFuture<NotificationResult> send(NotificationPayload payload, RequestBody body) {
+        return send(payload);
+    }
+
+    /**
+     * Whether this target packs several payloads into one request. A batching target charges
+     * its rate limit once per request it sends rather than once per payload.
+     */
+    default boolean isBatching() {
+        return false;
+    }
+
+    /**
+     * Sends anything the target is holding back, such as a pending batch, right away.
+     */
+    default void flush() {
+    }
 }
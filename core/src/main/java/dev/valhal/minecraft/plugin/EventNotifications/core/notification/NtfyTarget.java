@@ -1,12 +1,10 @@
 package dev.valhal.minecraft.plugin.EventNotifications.core.notification;
 
 import dev.valhal.minecraft.plugin.EventNotifications.core.config.AuthConfig;
+import dev.valhal.minecraft.plugin.EventNotifications.core.http.HttpTransport;
+import dev.valhal.minecraft.plugin.EventNotifications.core.http.RequestBody;
 
-import java.net.URI;
-import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
-import java.time.Duration;
 import java.util.concurrent.CompletableFuture;
 
 public class NtfyTarget implements NotificationTarget {
@@ -19,9 +17,9 @@ public class NtfyTarget implements NotificationTarget {
     private final boolean markdown;
     private final String icon;
     private final AuthConfig auth;
-    private final HttpClient httpClient;
+    private final HttpTransport transport;
 
-    public NtfyTarget(String name, boolean enabled, String server, String topic, boolean markdown, String icon, AuthConfig auth) {
+    public NtfyTarget(String name, boolean enabled, String server, String topic, boolean markdown, String icon, AuthConfig auth, HttpTransport transport) {
         this.name = name;
         this.enabled = enabled;
         this.server = server != null && !server.isBlank() ? server : DEFAULT_SERVER;
@@ -29,9 +27,7 @@ public class NtfyTarget implements NotificationTarget {
         this.markdown = markdown;
         this.icon = icon;
         this.auth = auth != null ? auth : AuthConfig.none();
-        this.httpClient = HttpClient.newBuilder()
-                .connectTimeout(Duration.ofSeconds(10))
-                .build();
+        this.transport = transport;
     }
 
     @Override
@@ -57,10 +53,38 @@ public class NtfyTarget implements NotificationTarget {
             );
         }
 
+        RequestBody body = encodeBody(payload);
+        return send(payload, body).whenComplete((result, error) -> body.release());
+    }
+
+    @Override
+    public String getBodyKey() {
+        // The body is just the message; everything else goes in headers
+        return "ntfy";
+    }
+
+    @Override
+    public RequestBody encodeBody(NotificationPayload payload) {
+        return RequestBody.of(payload.message());
+    }
+
+    @Override
+    public CompletableFuture<NotificationResult> send(NotificationPayload payload, RequestBody body) {
+        if (!enabled) {
+            return CompletableFuture.completedFuture(
+                    NotificationResult.failure(name, "Target is disabled")
+            );
+        }
+
+        return transport.send(name, buildRequest(payload, body));
+    }
+
+    /**
+     * Builds the ntfy request: the body is the message, everything else goes in headers.
+     */
+    public HttpRequest buildRequest(NotificationPayload payload, RequestBody body) {
         String url = server + "/" + topic;
-        HttpRequest.Builder requestBuilder = HttpRequest.newBuilder()
-                .uri(URI.create(url))
-                .timeout(Duration.ofSeconds(30))
+        HttpRequest.Builder requestBuilder = transport.newRequest(url)
                 .header("Title", payload.title())
                 .header("Priority", String.valueOf(payload.getPriority().getLevel()));
 
@@ -85,19 +109,8 @@ public class NtfyTarget implements NotificationTarget {
             requestBuilder.header("Icon", icon);
         }
 
-        HttpRequest request = requestBuilder
-                .POST(HttpRequest.BodyPublishers.ofString(payload.message()))
+        return requestBuilder
+                .POST(body.publisher())
                 .build();
-
-        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
-                .thenApply(response -> {
-                    if (response.statusCode() >= 200 && response.statusCode() < 300) {
-                        return NotificationResult.success(name);
-                    } else {
-                        return NotificationResult.failure(name,
-                                "HTTP " + response.statusCode() + ": " + response.body());
-                    }
-                })
-                .exceptionally(e -> NotificationResult.failure(name, e.getMessage()));
     }
 }
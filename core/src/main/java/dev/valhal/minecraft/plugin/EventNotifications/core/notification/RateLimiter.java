@@ -1,53 +1,145 @@
 package dev.valhal.minecraft.plugin.EventNotifications.core.notification;
 
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Lock-free rate limiter using the generic cell rate algorithm (GCRA).
+ * <p>
+ * Instead of a token count it keeps the theoretical arrival time: the moment the limiter would be
+ * back to a full burst if nothing else were taken. Taking {@code n} permits pushes it
+ * {@code n} emission intervals into the future, and a request is refused when that would put it
+ * more than a full burst ahead of now. The whole state is one {@code long} updated with CAS on
+ * {@link System#nanoTime()}, so rates above one per millisecond and fractional refill work, and
+ * refused requests never write.
+ */
 public class RateLimiter {
-    private final long maxTokens;
-    private final long refillIntervalMs;
-    private final AtomicLong tokens;
-    private final AtomicLong lastRefillTime;
+    // Keeps theoretical arrival times well within the range where nanoTime differences are valid
+    private static final long MAX_TOLERANCE_NANOS = Long.MAX_VALUE / 4;
 
-    public RateLimiter(long maxTokens, long refillIntervalMs) {
-        this.maxTokens = maxTokens;
-        this.refillIntervalMs = refillIntervalMs;
-        this.tokens = new AtomicLong(maxTokens);
-        this.lastRefillTime = new AtomicLong(System.currentTimeMillis());
+    private final long burst;
+    private final long emissionIntervalNanos;
+    private final long toleranceNanos;
+    private final AtomicLong theoreticalArrival;
+
+    private RateLimiter(long burst, long emissionIntervalNanos) {
+        if (burst < 1) {
+            throw new IllegalArgumentException("burst must be at least 1: " + burst);
+        }
+        if (emissionIntervalNanos < 1) {
+            throw new IllegalArgumentException("interval must be at least 1ns: " + emissionIntervalNanos);
+        }
+        this.burst = burst;
+        this.emissionIntervalNanos = emissionIntervalNanos;
+        this.toleranceNanos = burst > MAX_TOLERANCE_NANOS / emissionIntervalNanos
+                ? MAX_TOLERANCE_NANOS
+                : burst * emissionIntervalNanos;
+        // Starts with a full burst available
+        this.theoreticalArrival = new AtomicLong(System.nanoTime());
     }
 
-    public static RateLimiter perMinute(int maxRequests) {
-        return new RateLimiter(maxRequests, 60_000L / maxRequests);
+    /**
+     * A limiter granting one permit per interval, with up to {@code burst} at once.
+     */
+    public static RateLimiter of(long burst, long interval, TimeUnit unit) {
+        return new RateLimiter(burst, unit.toNanos(interval));
     }
 
-    public static RateLimiter perSecond(int maxRequests) {
-        return new RateLimiter(maxRequests, 1000L / maxRequests);
+    /**
+     * A limiter allowing {@code permits} per minute, all of which may be used at once.
+     */
+    public static RateLimiter perMinute(double permits) {
+        return perMinute(permits, burstFor(permits));
     }
 
-    public synchronized boolean tryAcquire() {
-        refill();
-        long currentTokens = tokens.get();
-        if (currentTokens > 0) {
-            tokens.decrementAndGet();
-            return true;
+    public static RateLimiter perMinute(double permits, long burst) {
+        return new RateLimiter(burst, intervalNanos(TimeUnit.MINUTES, permits));
+    }
+
+    /**
+     * A limiter allowing {@code permits} per second, all of which may be used at once.
+     */
+    public static RateLimiter perSecond(double permits) {
+        return perSecond(permits, burstFor(permits));
+    }
+
+    public static RateLimiter perSecond(double permits, long burst) {
+        return new RateLimiter(burst, intervalNanos(TimeUnit.SECONDS, permits));
+    }
+
+    private static long intervalNanos(TimeUnit period, double permits) {
+        if (!(permits > 0)) {
+            throw new IllegalArgumentException("permits must be positive: " + permits);
         }
-        return false;
+        return Math.max(1, Math.round(period.toNanos(1) / permits));
     }
 
-    private void refill() {
-        long now = System.currentTimeMillis();
-        long lastRefill = lastRefillTime.get();
-        long elapsed = now - lastRefill;
+    private static long burstFor(double permits) {
+        return Math.max(1, (long) Math.ceil(permits));
+    }
 
-        if (elapsed >= refillIntervalMs) {
-            long tokensToAdd = elapsed / refillIntervalMs;
-            long newTokens = Math.min(maxTokens, tokens.get() + tokensToAdd);
-            tokens.set(newTokens);
-            lastRefillTime.set(now);
+    public boolean tryAcquire() {
+        return tryAcquire(1);
+    }
+
+    /**
+     * Takes {@code permits} at once, or none of them.
+     *
+     * @return true if the permits were taken
+     * @throws IllegalArgumentException if permits is not between 1 and the burst size
+     */
+    public boolean tryAcquire(long permits) {
+        long cost = cost(permits);
+        long now = System.nanoTime();
+        long arrival = theoreticalArrival.get();
+        while (true) {
+            long next = Math.max(arrival - now, 0) + cost;
+            if (next > toleranceNanos) {
+                return false;
+            }
+            long witness = theoreticalArrival.compareAndExchange(arrival, now + next);
+            if (witness == arrival) {
+                return true;
+            }
+            // Lost the race to another thread; retry against its arrival time
+            arrival = witness;
+        }
+    }
+
+    /**
+     * Nanoseconds until {@link #tryAcquire(long)} for {@code permits} would succeed, or 0 if it
+     * would right now. Lets a caller defer work instead of dropping it; another thread may
+     * still take the permits first.
+     *
+     * @throws IllegalArgumentException if permits is not between 1 and the burst size
+     */
+    public long nanosUntilAvailable(long permits) {
+        long cost = cost(permits);
+        long backlog = Math.max(theoreticalArrival.get() - System.nanoTime(), 0);
+        return Math.max(backlog + cost - toleranceNanos, 0);
+    }
+
+    public long nanosUntilNextPermit() {
+        return nanosUntilAvailable(1);
+    }
+
+    private long cost(long permits) {
+        if (permits < 1 || permits > burst) {
+            throw new IllegalArgumentException("permits must be between 1 and " + burst + ": " + permits);
         }
+        return permits > toleranceNanos / emissionIntervalNanos ? toleranceNanos : permits * emissionIntervalNanos;
     }
 
+    /**
+     * Permits that could be taken right now. Only reads the state, so it never contends
+     * with {@link #tryAcquire()}.
+     */
     public long getAvailableTokens() {
-        refill();
-        return tokens.get();
+        long backlog = Math.max(theoreticalArrival.get() - System.nanoTime(), 0);
+        return Math.min(burst, Math.max(toleranceNanos - backlog, 0) / emissionIntervalNanos);
+    }
+
+    public long getMaxTokens() {
+        return burst;
     }
 }
@@ -0,0 +1,114 @@
+package dev.valhal.minecraft.plugin.EventNotifications.core.notification;
+
+import dev.valhal.minecraft.plugin.EventNotifications.core.config.DeliveryConfig;
+import dev.valhal.minecraft.plugin.EventNotifications.core.config.TargetConfig;
+import dev.valhal.minecraft.plugin.EventNotifications.core.event.GameEventType;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Independent rate limit buckets per event type and per target.
+ * A burst of one event type only exhausts that type's bucket, and a busy target
+ * only exhausts its own bucket, so neither can silence unrelated notifications.
+ */
+public class RateLimits {
+    /**
+     * Default limits per target type, matching each service's documented webhook limits.
+     */
+    private static final Map<String, Limit> DEFAULT_TARGET_LIMITS = Map.of(
+            "discord", new Limit(30, 5),   // 5 requests per 2s per webhook, 30 per minute per channel
+            "slack", new Limit(60, 3),     // ~1 message per second per webhook, short bursts allowed
+            "ntfy", new Limit(12, 60),     // ntfy.sh: burst of 60, then one request per 5 seconds
+            "webhook", new Limit(0, 0)     // Unlimited unless configured
+    );
+
+    private final Map<GameEventType, Bucket> eventBuckets = new EnumMap<>(GameEventType.class);
+    private final Map<String, Bucket> targetBuckets = new HashMap<>();
+
+    public RateLimits(DeliveryConfig delivery, List<TargetConfig> targets) {
+        this(delivery, targets, null);
+    }
+
+    /**
+     * Builds the buckets for a new configuration, keeping each bucket of {@code previous} whose
+     * rate and burst did not change. Reloading, or enabling or disabling a target, then leaves
+     * the other limits where they were instead of refilling every bucket.
+     *
+     * @param previous the buckets in use so far, or null
+     */
+    public RateLimits(DeliveryConfig delivery, List<TargetConfig> targets, RateLimits previous) {
+        for (GameEventType type : GameEventType.values()) {
+            int perMinute = delivery.eventRateLimits().getOrDefault(type, delivery.eventRateLimit());
+            if (perMinute > 0) {
+                Limit limit = new Limit(perMinute, perMinute);
+                eventBuckets.put(type, Bucket.reuse(previous != null ? previous.eventBuckets.get(type) : null, limit));
+            }
+        }
+
+        for (TargetConfig target : targets) {
+            Limit defaults = DEFAULT_TARGET_LIMITS.getOrDefault(target.type().toLowerCase(), new Limit(0, 0));
+            int perMinute = target.getInt("rate_limit", defaults.perMinute());
+            int burst = target.getInt("rate_limit_burst", defaults.burst());
+            if (perMinute > 0) {
+                String key = target.name().toLowerCase();
+                Limit limit = new Limit(perMinute, burst > 0 ? burst : perMinute);
+                targetBuckets.put(key, Bucket.reuse(previous != null ? previous.targetBuckets.get(key) : null, limit));
+            }
+        }
+    }
+
+    /**
+     * Takes a token from the bucket for the given event type.
+     *
+     * @return true if the event may be sent, false if its type is over the limit
+     */
+    public boolean tryAcquireEvent(GameEventType type) {
+        Bucket bucket = eventBuckets.get(type);
+        return bucket == null || bucket.limiter().tryAcquire();
+    }
+
+    /**
+     * Takes a token from the bucket for the given target. Batching targets are handed their
+     * bucket instead and take one token per request they send.
+     *
+     * @return true if the target may be sent to, false if it is over the limit
+     */
+    public boolean tryAcquireTarget(NotificationTarget target) {
+        Bucket bucket = targetBuckets.get(target.getName().toLowerCase());
+        return bucket == null || bucket.limiter().tryAcquire();
+    }
+
+    /**
+     * Buckets of the event types that have a limit.
+     */
+    public Map<GameEventType, RateLimiter> getEventLimiters() {
+        Map<GameEventType, RateLimiter> limiters = new EnumMap<>(GameEventType.class);
+        eventBuckets.forEach((type, bucket) -> limiters.put(type, bucket.limiter()));
+        return Collections.unmodifiableMap(limiters);
+    }
+
+    /**
+     * Gets the bucket of a target.
+     *
+     * @return the bucket, or null if the target has no limit
+     */
+    public RateLimiter getTargetLimiter(String targetName) {
+        Bucket bucket = targetBuckets.get(targetName.toLowerCase());
+        return bucket != null ? bucket.limiter() : null;
+    }
+
+    private record Limit(int perMinute, int burst) {}
+
+    private record Bucket(Limit limit, RateLimiter limiter) {
+        static Bucket reuse(Bucket previous, Limit limit) {
+            if (previous != null && previous.limit().equals(limit)) {
+                return previous;
+            }
+            return new Bucket(limit, RateLimiter.perMinute(limit.perMinute(), limit.burst()));
+        }
+    }
+}
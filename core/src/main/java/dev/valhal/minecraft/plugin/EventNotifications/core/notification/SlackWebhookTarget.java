@@ -1,33 +1,48 @@
 package dev.valhal.minecraft.plugin.EventNotifications.core.notification;
 
 import dev.valhal.minecraft.plugin.EventNotifications.core.config.AuthConfig;
+import dev.valhal.minecraft.plugin.EventNotifications.core.config.BatchConfig;
+import dev.valhal.minecraft.plugin.EventNotifications.core.delivery.PayloadBatcher;
+import dev.valhal.minecraft.plugin.EventNotifications.core.http.HttpTransport;
+import dev.valhal.minecraft.plugin.EventNotifications.core.http.JsonWriter;
+import dev.valhal.minecraft.plugin.EventNotifications.core.http.RequestBody;
 
-import java.net.URI;
-import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
-import java.time.Duration;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
 
 public class SlackWebhookTarget implements NotificationTarget {
+    // Slack recommends at most 20 attachments per message and truncates text after 40,000 characters
+    public static final int MAX_ATTACHMENTS = 20;
+    private static final int MAX_TEXT_CHARACTERS = 40_000;
+    // Titles are meant to be one line; the cap leaves the message all of the remaining room
+    private static final int MAX_TITLE_CHARACTERS = 256;
+    // "*" + "*\n" around the title, "\n\n" between messages
+    private static final int TEXT_MARKUP_CHARACTERS = 5;
+
     private final String name;
     private final boolean enabled;
     private final String webhookUrl;
     private final boolean useAttachments;
     private final String icon;
     private final AuthConfig auth;
-    private final HttpClient httpClient;
+    private final HttpTransport transport;
+    private final PayloadBatcher batcher;
 
-    public SlackWebhookTarget(String name, boolean enabled, String webhookUrl, boolean useAttachments, String icon, AuthConfig auth) {
+    public SlackWebhookTarget(String name, boolean enabled, String webhookUrl, boolean useAttachments, String icon, AuthConfig auth, HttpTransport transport,
+                              BatchConfig batch, RateLimiter rateLimiter, ScheduledExecutorService scheduler) {
         this.name = name;
         this.enabled = enabled;
         this.webhookUrl = webhookUrl;
         this.useAttachments = useAttachments;
         this.icon = icon;
         this.auth = auth != null ? auth : AuthConfig.none();
-        this.httpClient = HttpClient.newBuilder()
-                .connectTimeout(Duration.ofSeconds(10))
-                .build();
+        this.transport = transport;
+        // Batched payloads become one message with several attachments, or one combined text
+        this.batcher = batch != null && batch.enabled()
+                ? new PayloadBatcher(name, batch, MAX_TEXT_CHARACTERS, this::getBatchWeight, this::sendBatch, rateLimiter, scheduler)
+                : null;
     }
 
     @Override
@@ -53,11 +68,58 @@ public class SlackWebhookTarget implements NotificationTarget {
             );
         }
 
-        String jsonBody = buildJsonBody(payload);
+        if (batcher != null) {
+            return batcher.add(payload);
+        }
+
+        RequestBody body = encodeBody(payload);
+        return send(payload, body).whenComplete((result, error) -> body.release());
+    }
+
+    @Override
+    public boolean isBatching() {
+        return batcher != null;
+    }
+
+    @Override
+    public void flush() {
+        if (batcher != null) {
+            batcher.flush();
+        }
+    }
+
+    @Override
+    public String getBodyKey() {
+        // Batched bodies depend on what else is queued, so they are never shared
+        if (batcher != null) {
+            return null;
+        }
+        return "slack:" + useAttachments + ":" + (icon != null ? icon : "");
+    }
+
+    @Override
+    public RequestBody encodeBody(NotificationPayload payload) {
+        return buildJsonBody(payload);
+    }
+
+    @Override
+    public CompletableFuture<NotificationResult> send(NotificationPayload payload, RequestBody jsonBody) {
+        if (!enabled) {
+            return CompletableFuture.completedFuture(
+                    NotificationResult.failure(name, "Target is disabled")
+            );
+        }
+
+        return post(jsonBody);
+    }
+
+    private CompletableFuture<NotificationResult> sendBatch(List<NotificationPayload> payloads) {
+        RequestBody body = buildJsonBody(payloads);
+        return post(body).whenComplete((result, error) -> body.release());
+    }
 
-        HttpRequest.Builder requestBuilder = HttpRequest.newBuilder()
-                .uri(URI.create(webhookUrl))
-                .timeout(Duration.ofSeconds(30))
+    private CompletableFuture<NotificationResult> post(RequestBody jsonBody) {
+        HttpRequest.Builder requestBuilder = transport.newRequest(webhookUrl)
                 .header("Content-Type", "application/json");
 
         if (auth.hasAuth()) {
@@ -65,43 +127,85 @@ public class SlackWebhookTarget implements NotificationTarget {
         }
 
         HttpRequest request = requestBuilder
-                .POST(HttpRequest.BodyPublishers.ofString(jsonBody))
+                .POST(jsonBody.publisher())
                 .build();
 
-        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
-                .thenApply(response -> {
-                    if (response.statusCode() >= 200 && response.statusCode() < 300) {
-                        return NotificationResult.success(name);
-                    } else {
-                        return NotificationResult.failure(name,
-                                "HTTP " + response.statusCode() + ": " + response.body());
-                    }
-                })
-                .exceptionally(e -> NotificationResult.failure(name, e.getMessage()));
+        return transport.send(name, request);
+    }
+
+    private RequestBody buildJsonBody(NotificationPayload payload) {
+        return buildJsonBody(List.of(payload));
     }
 
-    private String buildJsonBody(NotificationPayload payload) {
-        StringBuilder json = new StringBuilder("{");
+    private RequestBody buildJsonBody(List<NotificationPayload> payloads) {
+        JsonWriter json = new JsonWriter().beginObject();
 
         if (icon != null && !icon.isBlank()) {
-            json.append("\"icon_url\":\"").append(escapeJson(icon)).append("\",");
+            json.name("icon_url").value(icon);
         }
 
         if (useAttachments) {
-            String color = getColor(payload);
-            json.append(String.format(
-                    "\"attachments\":[{\"color\":\"%s\",\"title\":\"%s\",\"text\":\"%s\"}]",
-                    color,
-                    escapeJson(payload.title()),
-                    escapeJson(payload.message())
-            ));
+            // One attachment per payload, so each keeps its own color
+            json.name("attachments").beginArray();
+            for (NotificationPayload payload : payloads) {
+                json.beginObject()
+                        .name("color").value(getColor(payload))
+                        .name("title").value(getTitle(payload))
+                        .name("text").value(getMessage(payload))
+                        .endObject();
+            }
+            json.endArray();
         } else {
-            String text = "*" + payload.title() + "*\n" + payload.message();
-            json.append(String.format("\"text\":\"%s\"", escapeJson(text)));
+            json.name("text").beginString();
+            for (int i = 0; i < payloads.size(); i++) {
+                NotificationPayload payload = payloads.get(i);
+                if (i > 0) {
+                    json.stringPart("\n\n");
+                }
+                json.stringPart("*").stringPart(getTitle(payload)).stringPart("*\n").stringPart(getMessage(payload));
+            }
+            json.endString();
         }
 
-        json.append("}");
-        return json.toString();
+        return json.endObject().toRequestBody();
+    }
+
+    /**
+     * Characters a payload adds to a batched message, counted against Slack's message length limit.
+     */
+    private int getBatchWeight(NotificationPayload payload) {
+        int length = length(getTitle(payload)) + length(getMessage(payload));
+        return useAttachments ? length : length + TEXT_MARKUP_CHARACTERS;
+    }
+
+    private static String getTitle(NotificationPayload payload) {
+        return truncate(payload.title(), MAX_TITLE_CHARACTERS);
+    }
+
+    /**
+     * The message cut so a single notification always fits in one message on its own.
+     */
+    private static String getMessage(NotificationPayload payload) {
+        return truncate(payload.message(), MAX_TEXT_CHARACTERS - TEXT_MARKUP_CHARACTERS - length(getTitle(payload)));
+    }
+
+    private static int length(String text) {
+        return text != null ? text.length() : 0;
+    }
+
+    /**
+     * Shortens text to at most maxLength characters, ending in an ellipsis when cut.
+     */
+    private static String truncate(String text, int maxLength) {
+        if (text == null || text.length() <= maxLength) {
+            return text;
+        }
+        int end = Math.max(0, maxLength - 1);
+        // Never split a surrogate pair
+        if (end > 0 && Character.isHighSurrogate(text.charAt(end - 1))) {
+            end--;
+        }
+        return text.substring(0, end) + "\u2026";
     }
 
     private String getColor(NotificationPayload payload) {
@@ -121,14 +225,4 @@ public class SlackWebhookTarget implements NotificationTarget {
             case MIN -> "#95a5a6";     // Grey
         };
     }
-
-    private String escapeJson(String text) {
-        if (text == null) return "";
-        return text
-                .replace("\\", "\\\\")
-                .replace("\"", "\\\"")
-                .replace("\n", "\\n")
-                .replace("\r", "\\r")
-                .replace("\t", "\\t");
-    }
 }
@@ -0,0 +1,45 @@
+package dev.valhal.minecraft.plugin.EventNotifications.core.template;
+
+import dev.valhal.minecraft.plugin.EventNotifications.core.config.TemplateConfig;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * An event template with its title, message and string extras compiled ahead of time.
+ * Built when templates are loaded, so rendering never has to parse template text.
+ */
+public record CompiledEventTemplate(
+        TemplateConfig.EventTemplate source,
+        CompiledTemplate title,
+        CompiledTemplate message,
+        Map<String, Object> extras,
+        String priority
+) {
+    /**
+     * Compiles a template. String extras become {@link CompiledTemplate}s so they can
+     * contain placeholders (e.g. tags with {{player_name}}); other values are kept as-is.
+     */
+    public static CompiledEventTemplate compile(TemplateConfig.EventTemplate template) {
+        Map<String, Object> extras = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> entry : template.extras().entrySet()) {
+            if (entry.getValue() instanceof String strValue) {
+                extras.put(entry.getKey(), CompiledTemplate.compile(strValue));
+            } else {
+                extras.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        return new CompiledEventTemplate(
+                template,
+                CompiledTemplate.compile(template.title()),
+                CompiledTemplate.compile(template.message()),
+                Map.copyOf(extras),
+                template.priority().name().toLowerCase()
+        );
+    }
+
+    public boolean enabled() {
+        return source.enabled();
+    }
+}
@@ -0,0 +1,131 @@
+package dev.valhal.minecraft.plugin.EventNotifications.core.template;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A template string parsed once into literal chunks and placeholder slots.
+ * Accepts the same syntax as before: {@code {{ key }}} where key is
+ * {@code [a-zA-Z_][a-zA-Z0-9_]*}, with optional whitespace inside the braces.
+ */
+public final class CompiledTemplate {
+    private static final int PLACEHOLDER_SIZE_ESTIMATE = 16;
+
+    private final String source;
+    private final Segment[] segments;
+    private final int sizeEstimate;
+    private final boolean hasPlaceholders;
+
+    private CompiledTemplate(String source, Segment[] segments, int sizeEstimate) {
+        this.source = source;
+        this.segments = segments;
+        this.sizeEstimate = sizeEstimate;
+        boolean placeholders = false;
+        for (Segment segment : segments) {
+            placeholders |= segment instanceof Segment.Placeholder;
+        }
+        this.hasPlaceholders = placeholders;
+    }
+
+    public sealed interface Segment {
+        record Literal(String text) implements Segment {}
+
+        record Placeholder(String key) implements Segment {}
+    }
+
+    public static CompiledTemplate compile(String template) {
+        if (template == null || template.isEmpty()) {
+            return new CompiledTemplate(template, new Segment[0], 0);
+        }
+
+        List<Segment> segments = new ArrayList<>();
+        int sizeEstimate = 0;
+        int literalStart = 0;
+        int i = 0;
+
+        while (i < template.length()) {
+            int open = template.indexOf("{{", i);
+            if (open < 0) {
+                break;
+            }
+
+            int keyStart = skipWhitespace(template, open + 2);
+            int keyEnd = scanIdentifier(template, keyStart);
+            int close = skipWhitespace(template, keyEnd);
+
+            if (keyEnd > keyStart && template.startsWith("}}", close)) {
+                if (open > literalStart) {
+                    segments.add(new Segment.Literal(template.substring(literalStart, open)));
+                    sizeEstimate += open - literalStart;
+                }
+                segments.add(new Segment.Placeholder(template.substring(keyStart, keyEnd)));
+                sizeEstimate += PLACEHOLDER_SIZE_ESTIMATE;
+                i = close + 2;
+                literalStart = i;
+            } else {
+                // Not a placeholder, keep scanning from the next character
+                i = open + 1;
+            }
+        }
+
+        if (literalStart < template.length()) {
+            segments.add(new Segment.Literal(template.substring(literalStart)));
+            sizeEstimate += template.length() - literalStart;
+        }
+
+        return new CompiledTemplate(template, segments.toArray(new Segment[0]), sizeEstimate);
+    }
+
+    private static int skipWhitespace(String text, int index) {
+        while (index < text.length() && isWhitespace(text.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    private static int scanIdentifier(String text, int index) {
+        if (index >= text.length() || !isIdentifierStart(text.charAt(index))) {
+            return index;
+        }
+        index++;
+        while (index < text.length() && isIdentifierPart(text.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    // Same character classes as the old \s and [a-zA-Z_][a-zA-Z0-9_]* regex
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    private static boolean isIdentifierStart(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_';
+    }
+
+    private static boolean isIdentifierPart(char c) {
+        return isIdentifierStart(c) || (c >= '0' && c <= '9');
+    }
+
+    /**
+     * The original template text.
+     */
+    public String getSource() {
+        return source;
+    }
+
+    Segment[] getSegments() {
+        return segments;
+    }
+
+    /**
+     * Expected length of the rendered output, used to pre-size the output buffer.
+     */
+    public int getSizeEstimate() {
+        return sizeEstimate;
+    }
+
+    public boolean hasPlaceholders() {
+        return hasPlaceholders;
+    }
+}
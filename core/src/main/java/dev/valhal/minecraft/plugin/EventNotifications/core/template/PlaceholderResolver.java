@@ -0,0 +1,21 @@
+package dev.valhal.minecraft.plugin.EventNotifications.core.template;
+
+import java.util.Map;
+
+/**
+ * Looks up placeholder values by key while a template is rendered.
+ * Implementations resolve values on demand, so rendering needs no placeholder map.
+ */
+@FunctionalInterface
+public interface PlaceholderResolver {
+    PlaceholderResolver EMPTY = key -> null;
+
+    /**
+     * @return the value for the key, or null if this resolver does not know it
+     */
+    String resolve(String key);
+
+    static PlaceholderResolver of(Map<String, String> placeholders) {
+        return placeholders::get;
+    }
+}
@@ -1,41 +1,65 @@
 package dev.valhal.minecraft.plugin.EventNotifications.core.template;
 
-import java.util.HashMap;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class TemplateEngine {
-    private static final Pattern PLACEHOLDER_PATTERN = Pattern.compile("\\{\\{\\s*([a-zA-Z_][a-zA-Z0-9_]*)\\s*}}");
-
-    private final Map<String, String> globalPlaceholders = new HashMap<>();
+    private final Map<String, String> globalPlaceholders = new ConcurrentHashMap<>();
 
     public TemplateEngine(String serverName) {
-        globalPlaceholders.put("server_name", serverName);
+        setGlobalPlaceholder("server_name", serverName);
     }
 
+    /**
+     * Renders a template that has not been compiled ahead of time.
+     * Prefer {@link #render(CompiledTemplate, Map)} for templates that are rendered repeatedly.
+     */
     public String render(String template, Map<String, String> eventPlaceholders) {
         if (template == null || template.isEmpty()) {
             return template;
         }
+        return render(CompiledTemplate.compile(template), PlaceholderResolver.of(eventPlaceholders));
+    }
 
-        Map<String, String> allPlaceholders = new HashMap<>(globalPlaceholders);
-        allPlaceholders.putAll(eventPlaceholders);
-
-        Matcher matcher = PLACEHOLDER_PATTERN.matcher(template);
-        StringBuilder result = new StringBuilder();
+    public String render(CompiledTemplate template, Map<String, String> eventPlaceholders) {
+        return render(template, PlaceholderResolver.of(eventPlaceholders));
+    }
 
-        while (matcher.find()) {
-            String key = matcher.group(1);
-            String replacement = allPlaceholders.getOrDefault(key, "{{" + key + "}}");
-            matcher.appendReplacement(result, Matcher.quoteReplacement(replacement));
+    /**
+     * Renders a compiled template, asking the resolver for each placeholder as it is reached.
+     * Event placeholders take precedence over global ones, and unknown placeholders are left
+     * in the output as {@code {{key}}}.
+     */
+    public String render(CompiledTemplate template, PlaceholderResolver eventPlaceholders) {
+        if (!template.hasPlaceholders()) {
+            return template.getSource();
         }
-        matcher.appendTail(result);
 
+        StringBuilder result = new StringBuilder(template.getSizeEstimate());
+        for (CompiledTemplate.Segment segment : template.getSegments()) {
+            if (segment instanceof CompiledTemplate.Segment.Literal literal) {
+                result.append(literal.text());
+            } else if (segment instanceof CompiledTemplate.Segment.Placeholder placeholder) {
+                String key = placeholder.key();
+                String value = eventPlaceholders.resolve(key);
+                if (value == null) {
+                    value = globalPlaceholders.get(key);
+                }
+                if (value != null) {
+                    result.append(value);
+                } else {
+                    result.append("{{").append(key).append("}}");
+                }
+            }
+        }
         return result.toString();
     }
 
     public void setGlobalPlaceholder(String key, String value) {
-        globalPlaceholders.put(key, value);
+        if (value != null) {
+            globalPlaceholders.put(key, value);
+        } else {
+            globalPlaceholders.remove(key);
+        }
     }
 }
@@ -0,0 +1,136 @@
+package dev.valhal.minecraft.plugin.EventNotifications.core.delivery;
+
+import dev.valhal.minecraft.plugin.EventNotifications.core.notification.NotificationResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakerTest {
+    private static final long OPEN_MS = 300;
+    private static final long SLOW_CALL_MS = 1_000;
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(SLOW_CALL_MS);
+
+    private static final NotificationResult SUCCESS = NotificationResult.success("target");
+    private static final NotificationResult FAILURE = NotificationResult.retryableFailure("target", "HTTP 503", 503, 0);
+    private static final NotificationResult TOO_MANY_REQUESTS =
+            NotificationResult.retryableFailure("target", "HTTP 429", 429, 1000);
+
+    private final List<String> log = new ArrayList<>();
+
+    // Window of 4 requests, looked at from 2 on
+    private final CircuitBreaker breaker = new CircuitBreaker("target",
+            new CircuitBreakerPolicy(true, 4, 50, SLOW_CALL_MS, 80, OPEN_MS), log::add);
+
+    private void send(NotificationResult result, long elapsedNanos) {
+        assertTrue(breaker.tryAcquire(), "request was refused");
+        breaker.onResult(result, elapsedNanos);
+    }
+
+    private void open() {
+        send(FAILURE, FAST);
+        send(FAILURE, FAST);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void staysClosedBelowTheMinimumNumberOfCalls() {
+        send(FAILURE, FAST);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(0, breaker.getRetryDelayMillis());
+    }
+
+    @Test
+    void staysClosedBelowTheFailureRate() {
+        send(SUCCESS, FAST);
+        send(SUCCESS, FAST);
+        send(FAILURE, FAST);
+        send(SUCCESS, FAST);
+        send(SUCCESS, FAST);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void opensAtTheFailureRateAndRefusesRequests() {
+        open();
+        assertFalse(breaker.tryAcquire());
+        long delay = breaker.getRetryDelayMillis();
+        assertTrue(delay > 0 && delay <= OPEN_MS, "retry delay was " + delay);
+        assertEquals(1, log.size());
+    }
+
+    @Test
+    void opensWhenTooManyRequestsAreSlow() {
+        send(SUCCESS, SLOW);
+        send(SUCCESS, SLOW);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void ignoresRateLimitedResponses() {
+        for (int i = 0; i < 10; i++) {
+            send(TOO_MANY_REQUESTS, FAST);
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void closesAfterTheProbesSucceed() throws InterruptedException {
+        open();
+        Thread.sleep(OPEN_MS + 50);
+
+        assertTrue(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+        // Only two probes at a time
+        assertFalse(breaker.tryAcquire());
+
+        breaker.onResult(SUCCESS, FAST);
+        breaker.onResult(SUCCESS, FAST);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    void reopensWhenAProbeFails() throws InterruptedException {
+        open();
+        Thread.sleep(OPEN_MS + 50);
+
+        assertTrue(breaker.tryAcquire());
+        breaker.onResult(FAILURE, FAST);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    void releasedProbePermitLetsAnotherRequestThrough() throws InterruptedException {
+        open();
+        Thread.sleep(OPEN_MS + 50);
+
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+
+        // e.g. handed to a batch, which reports its own request
+        breaker.release();
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    void judgesOnlyTheLastWindowOfRequests() {
+        for (int i = 0; i < 8; i++) {
+            send(SUCCESS, FAST);
+        }
+        send(FAILURE, FAST);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        // 2 of the last 4 failed, although only 2 of all 10 did
+        send(FAILURE, FAST);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+}
@@ -0,0 +1,182 @@
+package dev.valhal.minecraft.plugin.EventNotifications.core.delivery;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DeliveryQueueTest {
+    private final List<Integer> dropped = new ArrayList<>();
+
+    private DeliveryQueue<Integer> queue(int capacity, OverflowPolicy policy, long blockTimeoutMs) {
+        return new DeliveryQueue<>(capacity, policy, blockTimeoutMs, dropped::add);
+    }
+
+    @Test
+    void pollsInOfferOrder() {
+        DeliveryQueue<Integer> queue = queue(4, OverflowPolicy.DROP_OLDEST, 0);
+        for (int i = 1; i <= 4; i++) {
+            assertTrue(queue.offer(i));
+        }
+        assertEquals(4, queue.size());
+        for (int i = 1; i <= 4; i++) {
+            assertEquals(Integer.valueOf(i), queue.poll());
+        }
+        assertNull(queue.poll());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    void wrapsAroundTheRing() {
+        DeliveryQueue<Integer> queue = queue(3, OverflowPolicy.DROP_NEWEST, 0);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(queue.offer(i));
+            assertEquals(Integer.valueOf(i), queue.poll());
+        }
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    void dropOldestEvictsTheOldestItem() {
+        DeliveryQueue<Integer> queue = queue(2, OverflowPolicy.DROP_OLDEST, 0);
+        queue.offer(1);
+        queue.offer(2);
+        assertTrue(queue.offer(3));
+
+        assertEquals(List.of(1), dropped);
+        assertEquals(Integer.valueOf(2), queue.poll());
+        assertEquals(Integer.valueOf(3), queue.poll());
+        assertEquals(1, queue.getDroppedCount());
+        assertEquals(3, queue.getOfferedCount());
+    }
+
+    @Test
+    void dropNewestRefusesTheNewItem() {
+        DeliveryQueue<Integer> queue = queue(2, OverflowPolicy.DROP_NEWEST, 0);
+        queue.offer(1);
+        queue.offer(2);
+        assertFalse(queue.offer(3));
+
+        assertEquals(List.of(3), dropped);
+        assertEquals(Integer.valueOf(1), queue.poll());
+        assertEquals(Integer.valueOf(2), queue.poll());
+    }
+
+    @Test
+    void blockWaitsForTheTimeoutThenDrops() {
+        DeliveryQueue<Integer> queue = queue(1, OverflowPolicy.BLOCK, 30);
+        queue.offer(1);
+
+        long start = System.nanoTime();
+        assertFalse(queue.offer(2));
+        long waitedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(waitedMillis >= 25, "waited only " + waitedMillis + "ms");
+        assertEquals(List.of(2), dropped);
+    }
+
+    @Test
+    void blockTakesSpaceFreedWhileWaiting() throws InterruptedException {
+        DeliveryQueue<Integer> queue = queue(1, OverflowPolicy.BLOCK, 5_000);
+        queue.offer(1);
+
+        Thread consumer = new Thread(() -> {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            queue.poll();
+        });
+        consumer.start();
+        assertTrue(queue.offer(2));
+        consumer.join();
+
+        assertEquals(Integer.valueOf(2), queue.poll());
+        assertTrue(dropped.isEmpty());
+    }
+
+    @Test
+    void blockEvictsTheOldestWhenNotAllowedToWait() {
+        DeliveryQueue<Integer> queue = queue(1, OverflowPolicy.BLOCK, 5_000);
+        queue.offer(1);
+
+        long start = System.nanoTime();
+        assertTrue(queue.offer(2, false));
+
+        assertTrue(System.nanoTime() - start < 1_000_000_000L, "offer waited for space");
+        assertEquals(List.of(1), dropped);
+        assertEquals(Integer.valueOf(2), queue.poll());
+    }
+
+    @Test
+    void rejectsCapacityBelowOne() {
+        assertThrows(IllegalArgumentException.class, () -> queue(0, OverflowPolicy.DROP_OLDEST, 0));
+    }
+
+    @Test
+    void concurrentProducersAndConsumersLoseNothing() throws InterruptedException {
+        int producers = 4;
+        int itemsPerProducer = 20_000;
+        LongAdder droppedCount = new LongAdder();
+        DeliveryQueue<Long> queue = new DeliveryQueue<>(64, OverflowPolicy.DROP_OLDEST, 0,
+                item -> droppedCount.increment());
+        AtomicLong consumedCount = new AtomicLong();
+        AtomicBoolean producing = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            threads.add(new Thread(() -> {
+                awaitQuietly(start);
+                for (long i = 0; i < itemsPerProducer; i++) {
+                    queue.offer(i);
+                }
+            }));
+        }
+        List<Thread> consumers = new ArrayList<>();
+        for (int c = 0; c < 2; c++) {
+            consumers.add(new Thread(() -> {
+                awaitQuietly(start);
+                while (producing.get() || !queue.isEmpty()) {
+                    if (queue.poll() != null) {
+                        consumedCount.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        consumers.forEach(Thread::start);
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        producing.set(false);
+        for (Thread thread : consumers) {
+            thread.join();
+        }
+
+        long offered = (long) producers * itemsPerProducer;
+        assertEquals(offered, queue.getOfferedCount());
+        assertEquals(offered, consumedCount.get() + droppedCount.sum());
+        assertEquals(droppedCount.sum(), queue.getDroppedCount());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
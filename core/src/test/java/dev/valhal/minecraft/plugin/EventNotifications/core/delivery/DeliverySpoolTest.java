@@ -0,0 +1,138 @@
+package dev.valhal.minecraft.plugin.EventNotifications.core.delivery;
+
+import dev.valhal.minecraft.plugin.EventNotifications.core.notification.NotificationPayload;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DeliverySpoolTest {
+    private static final long MAX_BYTES = 1024 * 1024;
+    // Long enough that nothing is written before close() unless a test waits for it
+    private static final long LONG_WRITE_DELAY_MS = 60_000;
+
+    @TempDir
+    Path directory;
+
+    private final List<String> log = new ArrayList<>();
+
+    private DeliverySpool open(long writeDelayMs) throws IOException {
+        return DeliverySpool.open(directory, MAX_BYTES, writeDelayMs, log::add);
+    }
+
+    @Test
+    void unacknowledgedDeliveriesSurviveARestart() throws IOException {
+        DeliverySpool spool = open(LONG_WRITE_DELAY_MS);
+        long first = spool.append("discord", new NotificationPayload("First", "one",
+                Map.of("color", "#ff0000", "priority", 4L, "markdown", true, "ratio", 0.5)));
+        long second = spool.append("ntfy", new NotificationPayload("Second", "two"));
+        long third = spool.append("slack", new NotificationPayload("Third", "three"));
+        spool.acknowledge(second);
+        assertEquals(2, spool.getPendingCount());
+        spool.close();
+
+        DeliverySpool reopened = open(LONG_WRITE_DELAY_MS);
+        List<DeliverySpool.SpooledDelivery> recovered = reopened.getRecovered();
+        assertEquals(2, recovered.size());
+        assertEquals(first, recovered.get(0).id());
+        assertEquals("discord", recovered.get(0).targetName());
+        assertEquals("First", recovered.get(0).payload().title());
+        assertEquals("one", recovered.get(0).payload().message());
+        assertEquals(Map.of("color", "#ff0000", "priority", 4L, "markdown", true, "ratio", 0.5),
+                recovered.get(0).payload().extras());
+        assertEquals(third, recovered.get(1).id());
+        assertEquals("slack", recovered.get(1).targetName());
+        reopened.close();
+    }
+
+    @Test
+    void deliveriesAcknowledgedBeforeTheWriteDelayNeverTouchTheDisk() throws IOException, InterruptedException {
+        DeliverySpool spool = open(200);
+        for (int i = 0; i < 50; i++) {
+            spool.acknowledge(spool.append("discord", new NotificationPayload("Title " + i, "message")));
+        }
+        Thread.sleep(400);
+
+        assertEquals(0, spool.getDiskUsage());
+        assertEquals(0, spool.getPendingCount());
+        spool.close();
+        assertTrue(open(LONG_WRITE_DELAY_MS).getRecovered().isEmpty());
+    }
+
+    @Test
+    void pendingDeliveriesAreWrittenAfterTheWriteDelay() throws IOException, InterruptedException {
+        DeliverySpool spool = open(0);
+        spool.append("discord", new NotificationPayload("Title", "message"));
+
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (spool.getDiskUsage() == 0 && System.nanoTime() - deadline < 0) {
+            Thread.sleep(10);
+        }
+        assertTrue(spool.getDiskUsage() > 0, "nothing was written");
+        spool.close();
+    }
+
+    @Test
+    void idsKeepIncreasingAcrossRestarts() throws IOException {
+        DeliverySpool spool = open(LONG_WRITE_DELAY_MS);
+        long first = spool.append("discord", new NotificationPayload("Title", "message"));
+        spool.close();
+
+        DeliverySpool reopened = open(LONG_WRITE_DELAY_MS);
+        long next = reopened.append("discord", new NotificationPayload("Title", "message"));
+        assertTrue(next > first, next + " is not after " + first);
+        reopened.close();
+    }
+
+    @Test
+    void closedSpoolRefusesNewDeliveries() throws IOException {
+        DeliverySpool spool = open(LONG_WRITE_DELAY_MS);
+        spool.close();
+        assertEquals(0, spool.append("discord", new NotificationPayload("Title", "message")));
+    }
+
+    @Test
+    void emptySpoolLeavesNoSegmentsBehind() throws IOException {
+        DeliverySpool spool = open(LONG_WRITE_DELAY_MS);
+        spool.acknowledge(spool.append("discord", new NotificationPayload("Title", "message")));
+        spool.close();
+
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void truncatedRecordIsDroppedAndTheRestRecovered() throws IOException {
+        DeliverySpool spool = open(LONG_WRITE_DELAY_MS);
+        spool.append("discord", new NotificationPayload("Kept", "message"));
+        spool.append("discord", new NotificationPayload("Torn", "message"));
+        spool.close();
+
+        // Cut into the last record, as a crash in the middle of a write would
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.findFirst().orElseThrow();
+        }
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        DeliverySpool reopened = open(LONG_WRITE_DELAY_MS);
+        List<DeliverySpool.SpooledDelivery> recovered = reopened.getRecovered();
+        assertEquals(1, recovered.size());
+        assertEquals("Kept", recovered.get(0).payload().title());
+        reopened.close();
+    }
+}
@@ -0,0 +1,100 @@
+package dev.valhal.minecraft.plugin.EventNotifications.core.delivery;
+
+import dev.valhal.minecraft.plugin.EventNotifications.core.config.BatchConfig;
+import dev.valhal.minecraft.plugin.EventNotifications.core.notification.NotificationPayload;
+import dev.valhal.minecraft.plugin.EventNotifications.core.notification.NotificationResult;
+import dev.valhal.minecraft.plugin.EventNotifications.core.notification.RateLimiter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PayloadBatcherTest {
+    // Long enough that only the rate limit decides when a batch goes out
+    private static final BatchConfig BATCH_OF_FIVE = new BatchConfig(true, 5, 60_000);
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final List<Integer> sentBatchSizes = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    void shutDownScheduler() {
+        scheduler.shutdownNow();
+    }
+
+    private PayloadBatcher batcher(RateLimiter rateLimiter) {
+        return new PayloadBatcher("target", BATCH_OF_FIVE, Integer.MAX_VALUE, payload -> 1,
+                payloads -> {
+                    sentBatchSizes.add(payloads.size());
+                    return CompletableFuture.completedFuture(NotificationResult.success("target"));
+                },
+                rateLimiter, scheduler);
+    }
+
+    private static List<CompletableFuture<NotificationResult>> add(PayloadBatcher batcher, int count) {
+        List<CompletableFuture<NotificationResult>> results = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            results.add(batcher.add(new NotificationPayload("Title " + i, "message")));
+        }
+        return results;
+    }
+
+    @Test
+    void sendsFullBatchesWhilePermitsLast() {
+        PayloadBatcher batcher = batcher(RateLimiter.of(3, 1, TimeUnit.HOURS));
+        List<CompletableFuture<NotificationResult>> results = add(batcher, 15);
+
+        assertEquals(List.of(5, 5, 5), sentBatchSizes);
+        for (CompletableFuture<NotificationResult> result : results) {
+            assertTrue(result.join().success());
+        }
+    }
+
+    @Test
+    void fullBatchesWaitUpToTheBucketSize() {
+        PayloadBatcher batcher = batcher(RateLimiter.of(2, 1, TimeUnit.HOURS));
+        List<CompletableFuture<NotificationResult>> results = add(batcher, 20);
+
+        // Two went out with the bucket's permits, two more may wait for the next ones
+        assertEquals(List.of(5, 5), sentBatchSizes);
+        assertEquals(10, batcher.getPendingCount());
+        for (CompletableFuture<NotificationResult> result : results.subList(10, 20)) {
+            assertFalse(result.isDone());
+        }
+    }
+
+    @Test
+    void defersTheOldestBatchPastTheBucketSizeForARetry() {
+        PayloadBatcher batcher = batcher(RateLimiter.of(1, 1, TimeUnit.HOURS));
+        List<CompletableFuture<NotificationResult>> results = add(batcher, 15);
+
+        assertEquals(List.of(5), sentBatchSizes);
+        for (CompletableFuture<NotificationResult> result : results.subList(5, 10)) {
+            NotificationResult deferred = result.join();
+            assertFalse(deferred.success());
+            assertTrue(deferred.retryable(), "a deferred batch must be retried, not lost");
+            assertEquals(429, deferred.statusCode());
+            assertTrue(deferred.retryAfterMillis() > TimeUnit.MINUTES.toMillis(59));
+        }
+        assertEquals(5, batcher.getPendingCount());
+    }
+
+    @Test
+    void flushSendsWaitingAndOpenBatchesRightAway() {
+        PayloadBatcher batcher = batcher(RateLimiter.of(1, 1, TimeUnit.HOURS));
+        add(batcher, 8);
+        batcher.flush();
+
+        assertEquals(List.of(5, 3), sentBatchSizes);
+        assertEquals(0, batcher.getPendingCount());
+    }
+}
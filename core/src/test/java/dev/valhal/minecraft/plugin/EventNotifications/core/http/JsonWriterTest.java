@@ -0,0 +1,104 @@
+package dev.valhal.minecraft.plugin.EventNotifications.core.http;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JsonWriterTest {
+
+    private static String write(JsonWriter writer) {
+        return new String(writer.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void insertsCommasBetweenMembersAndElements() {
+        JsonWriter writer = new JsonWriter()
+                .beginObject()
+                .name("title").value("Hello")
+                .name("count").value(3)
+                .name("ok").value(true)
+                .name("none").value((String) null)
+                .name("items").beginArray()
+                .beginObject().name("a").value(1).endObject()
+                .beginObject().endObject()
+                .beginArray().endArray()
+                .endArray()
+                .endObject();
+
+        assertEquals("{\"title\":\"Hello\",\"count\":3,\"ok\":true,\"none\":null,"
+                + "\"items\":[{\"a\":1},{},[]]}", write(writer));
+    }
+
+    @Test
+    void escapesQuotesBackslashesAndControlCharacters() {
+        String text = "a\"b\\c\n\r\t\b\f\u0001\u001f/";
+        assertEquals("\"a\\\"b\\\\c\\n\\r\\t\\b\\f\\u0001\\u001f/\"", write(new JsonWriter().value(text)));
+    }
+
+    @Test
+    void encodesNonAsciiAsUtf8() {
+        String text = "caf\u00e9 \u20ac \ud83d\ude00";
+        byte[] expected = ("\"" + text + "\"").getBytes(StandardCharsets.UTF_8);
+        assertArrayEquals(expected, new JsonWriter().value(text).toByteArray());
+    }
+
+    @Test
+    void escapesUnpairedSurrogates() {
+        assertEquals("\"\\ud800x\\udc00\"", write(new JsonWriter().value("\ud800x\udc00")));
+    }
+
+    @Test
+    void writesStringsInParts() {
+        JsonWriter writer = new JsonWriter()
+                .beginObject()
+                .name("text").beginString().stringPart("**").stringPart("Steve").stringPart(null).endString()
+                .endObject();
+        assertEquals("{\"text\":\"**Stevenull\"}", write(writer));
+    }
+
+    @Test
+    void growsPastThePooledBufferSizes() {
+        String large = "x\u00e9".repeat(100_000);
+        JsonWriter writer = new JsonWriter().beginArray().value(large).value(large).endArray();
+
+        String expected = "[\"" + large + "\",\"" + large + "\"]";
+        assertEquals(expected.getBytes(StandardCharsets.UTF_8).length, writer.size());
+        assertEquals(expected, write(writer));
+    }
+
+    @Test
+    void requestBodyHandsOverTheDocumentAndStartsANewOne() {
+        JsonWriter writer = new JsonWriter();
+        RequestBody first = writer.beginObject().name("n").value(1).endObject().toRequestBody();
+        RequestBody second = writer.beginArray().value("two").endArray().toRequestBody();
+
+        assertEquals("{\"n\":1}", first.toString());
+        assertEquals(7, first.length());
+        assertEquals("[\"two\"]", second.toString());
+        first.release();
+        second.release();
+    }
+
+    @Test
+    void resetDiscardsTheDocument() {
+        JsonWriter writer = new JsonWriter().beginObject().name("a");
+        writer.reset();
+        assertEquals("[]", write(writer.beginArray().endArray()));
+    }
+
+    @Test
+    void rejectsUnbalancedAndTooDeepDocuments() {
+        assertThrows(IllegalStateException.class, () -> new JsonWriter().endObject());
+
+        JsonWriter writer = new JsonWriter();
+        assertThrows(IllegalStateException.class, () -> {
+            for (int i = 0; i < 100; i++) {
+                writer.beginArray();
+            }
+        });
+    }
+}
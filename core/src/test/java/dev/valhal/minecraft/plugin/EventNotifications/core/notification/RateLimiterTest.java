@@ -0,0 +1,123 @@
+package dev.valhal.minecraft.plugin.EventNotifications.core.notification;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimiterTest {
+
+    @Test
+    void startsWithAFullBurst() {
+        RateLimiter limiter = RateLimiter.of(5, 1, TimeUnit.HOURS);
+        assertEquals(5, limiter.getAvailableTokens());
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        assertFalse(limiter.tryAcquire());
+        assertEquals(0, limiter.getAvailableTokens());
+        assertEquals(5, limiter.getMaxTokens());
+    }
+
+    @Test
+    void takesSeveralPermitsAllOrNothing() {
+        RateLimiter limiter = RateLimiter.of(5, 1, TimeUnit.HOURS);
+        assertTrue(limiter.tryAcquire(3));
+        assertFalse(limiter.tryAcquire(3));
+        assertTrue(limiter.tryAcquire(2));
+        assertFalse(limiter.tryAcquire());
+    }
+
+    @Test
+    void rejectsPermitCountsOutsideTheBurst() {
+        RateLimiter limiter = RateLimiter.of(5, 1, TimeUnit.HOURS);
+        assertThrows(IllegalArgumentException.class, () -> limiter.tryAcquire(0));
+        assertThrows(IllegalArgumentException.class, () -> limiter.tryAcquire(6));
+        assertThrows(IllegalArgumentException.class, () -> limiter.nanosUntilAvailable(6));
+    }
+
+    @Test
+    void rejectsInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> RateLimiter.of(0, 1, TimeUnit.SECONDS));
+        assertThrows(IllegalArgumentException.class, () -> RateLimiter.of(1, 0, TimeUnit.SECONDS));
+        assertThrows(IllegalArgumentException.class, () -> RateLimiter.perMinute(0));
+        assertThrows(IllegalArgumentException.class, () -> RateLimiter.perSecond(Double.NaN));
+    }
+
+    @Test
+    void refillsOnePermitPerInterval() throws InterruptedException {
+        RateLimiter limiter = RateLimiter.of(1, 50, TimeUnit.MILLISECONDS);
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+
+        Thread.sleep(80);
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+    }
+
+    @Test
+    void reportsWhenTheNextPermitIsAvailable() {
+        RateLimiter limiter = RateLimiter.of(2, 1, TimeUnit.HOURS);
+        assertEquals(0, limiter.nanosUntilNextPermit());
+
+        limiter.tryAcquire(2);
+        long wait = limiter.nanosUntilNextPermit();
+        assertTrue(wait > TimeUnit.MINUTES.toNanos(59) && wait <= TimeUnit.HOURS.toNanos(1), "wait was " + wait);
+        assertTrue(limiter.nanosUntilAvailable(2) > TimeUnit.MINUTES.toNanos(119));
+    }
+
+    @Test
+    void perMinuteAllowsTheWholeRateAtOnceByDefault() {
+        RateLimiter limiter = RateLimiter.perMinute(30);
+        assertEquals(30, limiter.getMaxTokens());
+
+        RateLimiter withBurst = RateLimiter.perMinute(30, 5);
+        assertEquals(5, withBurst.getMaxTokens());
+        assertTrue(withBurst.tryAcquire(5));
+        assertFalse(withBurst.tryAcquire());
+    }
+
+    @Test
+    void fractionalRatesRoundTheBurstUp() {
+        assertEquals(1, RateLimiter.perSecond(0.5).getMaxTokens());
+        assertEquals(3, RateLimiter.perSecond(2.5).getMaxTokens());
+    }
+
+    @Test
+    void concurrentCallersNeverExceedTheBurst() throws InterruptedException {
+        RateLimiter limiter = RateLimiter.of(1_000, 1, TimeUnit.HOURS);
+        LongAdder granted = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 500; i++) {
+                    if (limiter.tryAcquire()) {
+                        granted.increment();
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(1_000, granted.sum());
+    }
+}
@@ -0,0 +1,49 @@
+package dev.valhal.minecraft.plugin.EventNotifications.core.notification;
+
+import dev.valhal.minecraft.plugin.EventNotifications.core.config.DeliveryConfig;
+import dev.valhal.minecraft.plugin.EventNotifications.core.config.TargetConfig;
+import dev.valhal.minecraft.plugin.EventNotifications.core.event.GameEventType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class RateLimitsTest {
+    private static final DeliveryConfig DELIVERY = DeliveryConfig.defaults();
+
+    private static TargetConfig discord(String name, boolean enabled) {
+        return new TargetConfig(name, "discord", enabled, Map.of("webhook_url", "http://localhost/hook"));
+    }
+
+    @Test
+    void appliesTheDefaultLimitsOfTheTargetType() {
+        RateLimits limits = new RateLimits(DELIVERY, List.of(discord("alerts", true),
+                new TargetConfig("hook", "webhook", true, Map.of())));
+
+        assertEquals(5, limits.getTargetLimiter("Alerts").getMaxTokens());
+        assertNull(limits.getTargetLimiter("hook"));
+    }
+
+    @Test
+    void keepsUnchangedBucketsAcrossAReload() {
+        RateLimits before = new RateLimits(DELIVERY, List.of(discord("alerts", true), discord("chat", true)));
+        RateLimiter alerts = before.getTargetLimiter("alerts");
+        RateLimiter connects = before.getEventLimiters().get(GameEventType.PLAYER_CONNECT);
+        for (int i = 0; i < 5; i++) {
+            alerts.tryAcquire();
+        }
+
+        RateLimits after = new RateLimits(DELIVERY, List.of(discord("alerts", true), discord("chat", false)
+                .withProperty("rate_limit", 10)), before);
+
+        assertSame(alerts, after.getTargetLimiter("alerts"));
+        assertEquals(0, after.getTargetLimiter("alerts").getAvailableTokens());
+        assertSame(connects, after.getEventLimiters().get(GameEventType.PLAYER_CONNECT));
+        assertNotSame(before.getTargetLimiter("chat"), after.getTargetLimiter("chat"));
+    }
+}
@@ -0,0 +1,81 @@
+package dev.valhal.minecraft.plugin.EventNotifications.core.template;
+
+import dev.valhal.minecraft.plugin.EventNotifications.core.template.CompiledTemplate.Segment;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompiledTemplateTest {
+
+    private static List<Segment> segments(String template) {
+        return List.of(CompiledTemplate.compile(template).getSegments());
+    }
+
+    @Test
+    void splitsLiteralsAndPlaceholders() {
+        assertEquals(List.of(
+                new Segment.Literal("**"),
+                new Segment.Placeholder("player_name"),
+                new Segment.Literal("** joined "),
+                new Segment.Placeholder("server_name")
+        ), segments("**{{player_name}}** joined {{server_name}}"));
+    }
+
+    @Test
+    void allowsWhitespaceInsideTheBraces() {
+        assertEquals(List.of(new Segment.Placeholder("reason")), segments("{{ reason\t}}"));
+    }
+
+    @Test
+    void keepsInvalidPlaceholdersAsLiteralText() {
+        String template = "{{}} {{1st}} {{ two words }} {{unclosed";
+        CompiledTemplate compiled = CompiledTemplate.compile(template);
+
+        assertFalse(compiled.hasPlaceholders());
+        assertEquals(List.of(new Segment.Literal(template)), segments(template));
+    }
+
+    @Test
+    void findsAPlaceholderInsideExtraBraces() {
+        assertEquals(List.of(
+                new Segment.Literal("{"),
+                new Segment.Placeholder("name"),
+                new Segment.Literal("}")
+        ), segments("{{{name}}}"));
+    }
+
+    @Test
+    void handlesEmptyAndNullTemplates() {
+        CompiledTemplate empty = CompiledTemplate.compile("");
+        assertEquals("", empty.getSource());
+        assertEquals(0, empty.getSegments().length);
+
+        CompiledTemplate none = CompiledTemplate.compile(null);
+        assertNull(none.getSource());
+        assertFalse(none.hasPlaceholders());
+    }
+
+    @Test
+    void estimatesTheRenderedSize() {
+        CompiledTemplate compiled = CompiledTemplate.compile("Hello {{player_name}}!");
+        assertTrue(compiled.hasPlaceholders());
+        assertTrue(compiled.getSizeEstimate() >= "Hello !".length());
+    }
+
+    @Test
+    void rendersEventGlobalAndUnknownPlaceholders() {
+        TemplateEngine engine = new TemplateEngine("Survival");
+        CompiledTemplate compiled = CompiledTemplate.compile("{{server_name}}: {{ player_name }} {{missing}}");
+
+        assertEquals("Survival: Steve {{missing}}", engine.render(compiled, Map.of("player_name", "Steve")));
+        // Event placeholders win over global ones
+        assertEquals("Creative: Steve {{missing}}",
+                engine.render(compiled, Map.of("server_name", "Creative", "player_name", "Steve")));
+    }
+}
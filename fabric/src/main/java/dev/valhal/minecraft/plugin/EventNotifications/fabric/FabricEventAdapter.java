@@ -47,6 +47,9 @@ public class FabricEventAdapter {
 
         // Player connection events
         ServerPlayConnectionEvents.JOIN.register((handler, sender, server) -> {
+            if (!eventBus.hasSubscribers(GameEventType.PLAYER_CONNECT)) {
+                return;
+            }
             var player = handler.getPlayer();
             eventBus.publish(new PlayerConnectEvent(
                     player.getUUID(),
@@ -55,6 +58,9 @@ public class FabricEventAdapter {
         });
 
         ServerPlayConnectionEvents.DISCONNECT.register((handler, server) -> {
+            if (!eventBus.hasSubscribers(GameEventType.PLAYER_DISCONNECT)) {
+                return;
+            }
             var player = handler.getPlayer();
             eventBus.publish(new PlayerDisconnectEvent(
                     player.getUUID(),
@@ -64,7 +70,7 @@ public class FabricEventAdapter {
 
         // Player death event - use ALLOW_DEATH to capture message before tracker is cleared
         ServerLivingEntityEvents.ALLOW_DEATH.register((entity, damageSource, damageAmount) -> {
-            if (entity instanceof ServerPlayer player) {
+            if (entity instanceof ServerPlayer player && eventBus.hasSubscribers(GameEventType.PLAYER_DEATH)) {
                 // Use CombatTracker to get the same message that's sent to chat
                 String deathMessage = player.getCombatTracker().getDeathMessage().getString();
                 eventBus.publish(new PlayerDeathEvent(
@@ -77,6 +83,14 @@ public class FabricEventAdapter {
         });
     }
 
+    /**
+     * Whether any target wants events of the given type. Mixins check this before
+     * collecting anything for the event.
+     */
+    public boolean isInterested(GameEventType type) {
+        return eventBus.hasSubscribers(type);
+    }
+
     // Methods to be called from mixins
     public void onPlayerBanned(String playerName, java.util.UUID playerUuid, String reason, String bannedBy) {
         eventBus.publish(new PlayerBannedEvent(playerUuid, playerName, reason, bannedBy));
@@ -5,11 +5,14 @@ import dev.valhal.minecraft.plugin.EventNotifications.core.config.ConfigLoader;
 import dev.valhal.minecraft.plugin.EventNotifications.core.config.ConfigManager;
 import dev.valhal.minecraft.plugin.EventNotifications.core.config.PluginConfig;
 import dev.valhal.minecraft.plugin.EventNotifications.core.config.TemplateLoader;
+import dev.valhal.minecraft.plugin.EventNotifications.core.delivery.DeliveryExecutor;
 import dev.valhal.minecraft.plugin.EventNotifications.core.event.EventBus;
+import dev.valhal.minecraft.plugin.EventNotifications.core.metrics.PrometheusExporter;
 import dev.valhal.minecraft.plugin.EventNotifications.core.notification.NotificationService;
 import dev.valhal.minecraft.plugin.EventNotifications.fabric.command.FabricCommandAdapter;
 import net.fabricmc.api.DedicatedServerModInitializer;
 import net.fabricmc.api.ModInitializer;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
 import net.fabricmc.loader.api.FabricLoader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -32,7 +35,8 @@ public class FabricMod implements ModInitializer, DedicatedServerModInitializer
     private static boolean initialized = false;
     private EventBus eventBus;
     private NotificationService notificationService;
-    private FabricAsyncExecutor asyncExecutor;
+    private DeliveryExecutor asyncExecutor;
+    private PrometheusExporter metricsExporter;
     private ConfigManager configManager;
     private CommandHandler commandHandler;
 
@@ -64,12 +68,16 @@ public class FabricMod implements ModInitializer, DedicatedServerModInitializer
             TemplateLoader templateLoader = new TemplateLoader(templatesDir);
             templateLoader.load();
 
-            eventBus = new EventBus();
-            asyncExecutor = new FabricAsyncExecutor();
+            eventBus = new EventBus(msg -> log(msg));
+            asyncExecutor = new DeliveryExecutor(config.delivery());
 
-            notificationService = new NotificationService(config, templateLoader, asyncExecutor, msg -> log(msg));
+            notificationService = new NotificationService(config, templateLoader, configDir, asyncExecutor, msg -> log(msg));
             notificationService.registerWithEventBus(eventBus);
 
+            // Serves /metrics only if metrics_enabled is set
+            metricsExporter = new PrometheusExporter(config.general(), notificationService, asyncExecutor, msg -> log(msg));
+            metricsExporter.start();
+
             // Register commands if enabled in config
             if (config.commandsEnabled()) {
                 commandHandler = new CommandHandler(configManager, notificationService, msg -> log(msg));
@@ -90,10 +98,32 @@ public class FabricMod implements ModInitializer, DedicatedServerModInitializer
             });
             eventAdapter.register();
 
+            // Runs after SERVER_STOPPING published the shutdown event
+            ServerLifecycleEvents.SERVER_STOPPED.register(server -> shutdown());
+
             log("Loaded with {} notification targets", notificationService.getTargets().size());
 
         } catch (Exception e) {
             logError("Failed to initialize", e);
         }
     }
+
+    /**
+     * Flushes the shutdown notification and anything still queued, then stops the executor.
+     */
+    private void shutdown() {
+        if (metricsExporter != null) {
+            metricsExporter.stop();
+        }
+        // Let the handlers process the shutdown event before flushing
+        if (eventBus != null) {
+            eventBus.close();
+        }
+        if (notificationService != null) {
+            notificationService.shutdown();
+        }
+        if (asyncExecutor != null) {
+            asyncExecutor.shutdown();
+        }
+    }
 }
@@ -50,6 +50,11 @@ public class FabricCommandAdapter {
                                 .then(Commands.argument("target", StringArgumentType.word())
                                         .suggests(suggestTargets())
                                         .executes(this::executeInfo)))
+                        .then(Commands.literal("stats")
+                                .executes(this::executeStats)
+                                .then(Commands.argument("target", StringArgumentType.word())
+                                        .suggests(suggestTargets())
+                                        .executes(this::executeTargetStats)))
                         .then(Commands.literal("enable")
                                 .then(Commands.argument("target", StringArgumentType.word())
                                         .suggests(suggestTargets())
@@ -129,6 +134,19 @@ public class FabricCommandAdapter {
         return result instanceof CommandResult.Error ? 0 : 1;
     }
 
+    private int executeStats(CommandContext<CommandSourceStack> context) {
+        CommandResult result = commandHandler.stats(null);
+        sendResult(context.getSource(), result);
+        return 1;
+    }
+
+    private int executeTargetStats(CommandContext<CommandSourceStack> context) {
+        String targetName = StringArgumentType.getString(context, "target");
+        CommandResult result = commandHandler.stats(targetName);
+        sendResult(context.getSource(), result);
+        return result instanceof CommandResult.Error ? 0 : 1;
+    }
+
     private int executeEnable(CommandContext<CommandSourceStack> context) {
         String targetName = StringArgumentType.getString(context, "target");
         CommandResult result = commandHandler.enable(targetName);
@@ -184,8 +202,12 @@ public class FabricCommandAdapter {
                     source.sendSuccess(() -> Component.literal("Notification Targets:"), false);
                     for (CommandResult.TargetList.TargetSummary target : list.targets()) {
                         String status = target.enabled() ? "\u00a7a[ON]" : "\u00a7c[OFF]";
+                        // Only call out breakers that are holding deliveries back
+                        String circuit = target.circuitState() != null && !target.circuitState().equals("closed")
+                                ? " \u00a7ecircuit " + target.circuitState()
+                                : "";
                         source.sendSuccess(() -> Component.literal(
-                                "  " + status + " \u00a7r" + target.name() + " \u00a77(" + target.type() + ")"
+                                "  " + status + " \u00a7r" + target.name() + " \u00a77(" + target.type() + ")" + circuit
                         ), false);
                     }
                 }
@@ -195,6 +217,9 @@ public class FabricCommandAdapter {
                 source.sendSuccess(() -> Component.literal("\u00a7lTarget: \u00a7r" + info.name()), false);
                 source.sendSuccess(() -> Component.literal("  Type: " + info.type()), false);
                 source.sendSuccess(() -> Component.literal("  Status: " + status), false);
+                if (info.circuit() != null) {
+                    source.sendSuccess(() -> Component.literal("  Circuit: " + info.circuit()), false);
+                }
                 if (!info.properties().isEmpty()) {
                     source.sendSuccess(() -> Component.literal("  Properties:"), false);
                     for (var entry : info.properties().entrySet()) {
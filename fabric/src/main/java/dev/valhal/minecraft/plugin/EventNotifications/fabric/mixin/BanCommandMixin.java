@@ -1,6 +1,7 @@
 package dev.valhal.minecraft.plugin.EventNotifications.fabric.mixin;
 
 import com.mojang.authlib.GameProfile;
+import dev.valhal.minecraft.plugin.EventNotifications.core.event.GameEventType;
 import dev.valhal.minecraft.plugin.EventNotifications.fabric.FabricEventAdapter;
 import dev.valhal.minecraft.plugin.EventNotifications.fabric.FabricMod;
 import net.minecraft.commands.CommandSourceStack;
@@ -20,7 +21,7 @@ public class BanCommandMixin {
     private static void onBan(CommandSourceStack source, Collection<GameProfile> targets, @Nullable Component reason, CallbackInfoReturnable<Integer> cir) {
         try {
             FabricEventAdapter adapter = FabricEventAdapter.getInstance();
-            if (adapter == null) return;
+            if (adapter == null || !adapter.isInterested(GameEventType.PLAYER_BANNED)) return;
 
             String bannedBy = source.getTextName();
             String reasonStr = reason != null ? reason.getString() : "No reason given";
@@ -1,5 +1,6 @@
 package dev.valhal.minecraft.plugin.EventNotifications.fabric.mixin;
 
+import dev.valhal.minecraft.plugin.EventNotifications.core.event.GameEventType;
 import dev.valhal.minecraft.plugin.EventNotifications.fabric.FabricEventAdapter;
 import net.minecraft.commands.CommandSourceStack;
 import net.minecraft.network.chat.Component;
@@ -18,7 +19,7 @@ public class KickCommandMixin {
     private static void onKick(CommandSourceStack source, Collection<ServerPlayer> targets, Component reason, CallbackInfoReturnable<Integer> cir) {
         try {
             FabricEventAdapter adapter = FabricEventAdapter.getInstance();
-            if (adapter == null) return;
+            if (adapter == null || !adapter.isInterested(GameEventType.PLAYER_KICKED)) return;
 
             String reasonStr = reason != null ? reason.getString() : "Kicked by operator";
 
@@ -1,6 +1,7 @@
 package dev.valhal.minecraft.plugin.EventNotifications.fabric.mixin;
 
 import com.mojang.authlib.GameProfile;
+import dev.valhal.minecraft.plugin.EventNotifications.core.event.GameEventType;
 import dev.valhal.minecraft.plugin.EventNotifications.fabric.FabricEventAdapter;
 import dev.valhal.minecraft.plugin.EventNotifications.fabric.FabricMod;
 import net.minecraft.commands.CommandSourceStack;
@@ -18,7 +19,7 @@ public class OpCommandMixin {
     private static void onOp(CommandSourceStack source, Collection<GameProfile> targets, CallbackInfoReturnable<Integer> cir) {
         try {
             FabricEventAdapter adapter = FabricEventAdapter.getInstance();
-            if (adapter == null) return;
+            if (adapter == null || !adapter.isInterested(GameEventType.PLAYER_OP)) return;
 
             for (GameProfile profile : targets) {
                 if (profile.id() == null || profile.name() == null) continue;
@@ -1,5 +1,6 @@
 package dev.valhal.minecraft.plugin.EventNotifications.fabric.mixin;
 
+import dev.valhal.minecraft.plugin.EventNotifications.core.event.GameEventType;
 import dev.valhal.minecraft.plugin.EventNotifications.fabric.FabricEventAdapter;
 import dev.valhal.minecraft.plugin.EventNotifications.fabric.FabricMod;
 import net.minecraft.advancements.AdvancementHolder;
@@ -29,6 +30,9 @@ public abstract class PlayerAdvancementTrackerMixin {
             // Only proceed if the criterion was actually granted
             if (!cir.getReturnValue()) return;
 
+            FabricEventAdapter adapter = FabricEventAdapter.getInstance();
+            if (adapter == null || !adapter.isInterested(GameEventType.PLAYER_ADVANCEMENT)) return;
+
             // Check if the advancement is now complete
             AdvancementProgress advProgress = this.progress.get(advancement);
             if (advProgress == null || !advProgress.isDone()) return;
@@ -41,9 +45,6 @@ public abstract class PlayerAdvancementTrackerMixin {
             // Only announce if configured to show in chat
             if (!display.shouldAnnounceChat()) return;
 
-            FabricEventAdapter adapter = FabricEventAdapter.getInstance();
-            if (adapter == null) return;
-
             String title = display.getTitle().getString();
             String description = display.getDescription().getString();
             String chatMessage = display.getType().createAnnouncement(advancement, player).getString();
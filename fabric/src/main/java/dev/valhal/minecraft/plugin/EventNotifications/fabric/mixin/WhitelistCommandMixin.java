@@ -1,6 +1,7 @@
 package dev.valhal.minecraft.plugin.EventNotifications.fabric.mixin;
 
 import com.mojang.authlib.GameProfile;
+import dev.valhal.minecraft.plugin.EventNotifications.core.event.GameEventType;
 import dev.valhal.minecraft.plugin.EventNotifications.fabric.FabricEventAdapter;
 import dev.valhal.minecraft.plugin.EventNotifications.fabric.FabricMod;
 import net.minecraft.commands.CommandSourceStack;
@@ -18,7 +19,7 @@ public class WhitelistCommandMixin {
     private static void onWhitelistAdd(CommandSourceStack source, Collection<GameProfile> targets, CallbackInfoReturnable<Integer> cir) {
         try {
             FabricEventAdapter adapter = FabricEventAdapter.getInstance();
-            if (adapter == null) return;
+            if (adapter == null || !adapter.isInterested(GameEventType.PLAYER_WHITELISTED)) return;
 
             for (GameProfile profile : targets) {
                 if (profile.id() == null || profile.name() == null) continue;
@@ -33,7 +34,7 @@ public class WhitelistCommandMixin {
     private static void onWhitelistRemove(CommandSourceStack source, Collection<GameProfile> targets, CallbackInfoReturnable<Integer> cir) {
         try {
             FabricEventAdapter adapter = FabricEventAdapter.getInstance();
-            if (adapter == null) return;
+            if (adapter == null || !adapter.isInterested(GameEventType.PLAYER_UNWHITELISTED)) return;
 
             for (GameProfile profile : targets) {
                 if (profile.id() == null || profile.name() == null) continue;
@@ -48,7 +49,7 @@ public class WhitelistCommandMixin {
     private static void onWhitelistOn(CommandSourceStack source, CallbackInfoReturnable<Integer> cir) {
         try {
             FabricEventAdapter adapter = FabricEventAdapter.getInstance();
-            if (adapter == null) return;
+            if (adapter == null || !adapter.isInterested(GameEventType.SERVER_WHITELIST_ON)) return;
             adapter.onWhitelistOn();
         } catch (Exception e) {
             FabricMod.log("WhitelistCommandMixin on error: {}", e.getMessage());
@@ -59,7 +60,7 @@ public class WhitelistCommandMixin {
     private static void onWhitelistOff(CommandSourceStack source, CallbackInfoReturnable<Integer> cir) {
         try {
             FabricEventAdapter adapter = FabricEventAdapter.getInstance();
-            if (adapter == null) return;
+            if (adapter == null || !adapter.isInterested(GameEventType.SERVER_WHITELIST_OFF)) return;
             adapter.onWhitelistOff();
         } catch (Exception e) {
             FabricMod.log("WhitelistCommandMixin off error: {}", e.getMessage());
@@ -38,6 +38,9 @@ public class NeoForgeEventAdapter {
 
     @SubscribeEvent
     public void onPlayerJoin(PlayerEvent.PlayerLoggedInEvent event) {
+        if (!eventBus.hasSubscribers(GameEventType.PLAYER_CONNECT)) {
+            return;
+        }
         if (event.getEntity() instanceof ServerPlayer player) {
             eventBus.publish(new PlayerConnectEvent(
                     player.getUUID(),
@@ -48,6 +51,9 @@ public class NeoForgeEventAdapter {
 
     @SubscribeEvent
     public void onPlayerLeave(PlayerEvent.PlayerLoggedOutEvent event) {
+        if (!eventBus.hasSubscribers(GameEventType.PLAYER_DISCONNECT)) {
+            return;
+        }
         if (event.getEntity() instanceof ServerPlayer player) {
             eventBus.publish(new PlayerDisconnectEvent(
                     player.getUUID(),
@@ -58,6 +64,9 @@ public class NeoForgeEventAdapter {
 
     @SubscribeEvent
     public void onPlayerDeath(LivingDeathEvent event) {
+        if (!eventBus.hasSubscribers(GameEventType.PLAYER_DEATH)) {
+            return;
+        }
         if (event.getEntity() instanceof ServerPlayer player) {
             String deathMessage = player.getCombatTracker().getDeathMessage().getString();
             eventBus.publish(new PlayerDeathEvent(
@@ -70,6 +79,9 @@ public class NeoForgeEventAdapter {
 
     @SubscribeEvent
     public void onAdvancement(AdvancementEvent.AdvancementEarnEvent event) {
+        if (!eventBus.hasSubscribers(GameEventType.PLAYER_ADVANCEMENT)) {
+            return;
+        }
         if (event.getEntity() instanceof ServerPlayer player) {
             var advancement = event.getAdvancement();
             var display = advancement.value().display().orElse(null);
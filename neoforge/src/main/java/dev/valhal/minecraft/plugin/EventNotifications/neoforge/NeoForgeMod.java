@@ -5,13 +5,16 @@ import dev.valhal.minecraft.plugin.EventNotifications.core.config.ConfigLoader;
 import dev.valhal.minecraft.plugin.EventNotifications.core.config.ConfigManager;
 import dev.valhal.minecraft.plugin.EventNotifications.core.config.PluginConfig;
 import dev.valhal.minecraft.plugin.EventNotifications.core.config.TemplateLoader;
+import dev.valhal.minecraft.plugin.EventNotifications.core.delivery.DeliveryExecutor;
 import dev.valhal.minecraft.plugin.EventNotifications.core.event.EventBus;
+import dev.valhal.minecraft.plugin.EventNotifications.core.metrics.PrometheusExporter;
 import dev.valhal.minecraft.plugin.EventNotifications.core.notification.NotificationService;
 import dev.valhal.minecraft.plugin.EventNotifications.neoforge.command.NeoForgeCommandAdapter;
 import net.neoforged.bus.api.IEventBus;
 import net.neoforged.fml.common.Mod;
 import net.neoforged.fml.loading.FMLPaths;
 import net.neoforged.neoforge.common.NeoForge;
+import net.neoforged.neoforge.event.server.ServerStoppedEvent;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -24,7 +27,8 @@ public class NeoForgeMod {
 
     private EventBus eventBus;
     private NotificationService notificationService;
-    private NeoForgeAsyncExecutor asyncExecutor;
+    private DeliveryExecutor asyncExecutor;
+    private PrometheusExporter metricsExporter;
     private ConfigManager configManager;
     private CommandHandler commandHandler;
 
@@ -41,12 +45,16 @@ public class NeoForgeMod {
             TemplateLoader templateLoader = new TemplateLoader(templatesDir);
             templateLoader.load();
 
-            eventBus = new EventBus();
-            asyncExecutor = new NeoForgeAsyncExecutor();
+            eventBus = new EventBus(msg -> log(msg));
+            asyncExecutor = new DeliveryExecutor(config.delivery());
 
-            notificationService = new NotificationService(config, templateLoader, asyncExecutor, msg -> log(msg));
+            notificationService = new NotificationService(config, templateLoader, configDir, asyncExecutor, msg -> log(msg));
             notificationService.registerWithEventBus(eventBus);
 
+            // Serves /metrics only if metrics_enabled is set
+            metricsExporter = new PrometheusExporter(config.general(), notificationService, asyncExecutor, msg -> log(msg));
+            metricsExporter.start();
+
             // Register commands if enabled in config
             if (config.commandsEnabled()) {
                 commandHandler = new CommandHandler(configManager, notificationService, msg -> log(msg));
@@ -67,6 +75,8 @@ public class NeoForgeMod {
             });
 
             NeoForge.EVENT_BUS.register(eventAdapter);
+            // Runs after ServerStoppingEvent published the shutdown event
+            NeoForge.EVENT_BUS.addListener(this::onServerStopped);
 
             log("Loaded with {} notification targets", notificationService.getTargets().size());
 
@@ -75,6 +85,25 @@ public class NeoForgeMod {
         }
     }
 
+    /**
+     * Flushes the shutdown notification and anything still queued, then stops the executor.
+     */
+    private void onServerStopped(ServerStoppedEvent event) {
+        if (metricsExporter != null) {
+            metricsExporter.stop();
+        }
+        // Let the handlers process the shutdown event before flushing
+        if (eventBus != null) {
+            eventBus.close();
+        }
+        if (notificationService != null) {
+            notificationService.shutdown();
+        }
+        if (asyncExecutor != null) {
+            asyncExecutor.shutdown();
+        }
+    }
+
     public static void log(String message, Object... args) {
         String formatted = message;
         for (Object arg : args) {
@@ -52,6 +52,11 @@ public class NeoForgeCommandAdapter {
                                 .then(argument("target", StringArgumentType.word())
                                         .suggests(suggestTargets())
                                         .executes(this::executeInfo)))
+                        .then(literal("stats")
+                                .executes(this::executeStats)
+                                .then(argument("target", StringArgumentType.word())
+                                        .suggests(suggestTargets())
+                                        .executes(this::executeTargetStats)))
                         .then(literal("enable")
                                 .then(argument("target", StringArgumentType.word())
                                         .suggests(suggestTargets())
@@ -121,6 +126,19 @@ public class NeoForgeCommandAdapter {
         return result instanceof CommandResult.Error ? 0 : 1;
     }
 
+    private int executeStats(CommandContext<CommandSourceStack> context) {
+        CommandResult result = commandHandler.stats(null);
+        sendResult(context.getSource(), result);
+        return 1;
+    }
+
+    private int executeTargetStats(CommandContext<CommandSourceStack> context) {
+        String targetName = StringArgumentType.getString(context, "target");
+        CommandResult result = commandHandler.stats(targetName);
+        sendResult(context.getSource(), result);
+        return result instanceof CommandResult.Error ? 0 : 1;
+    }
+
     private int executeEnable(CommandContext<CommandSourceStack> context) {
         String targetName = StringArgumentType.getString(context, "target");
         CommandResult result = commandHandler.enable(targetName);
@@ -176,8 +194,12 @@ public class NeoForgeCommandAdapter {
                     source.sendSystemMessage(Component.literal("Notification Targets:"));
                     for (CommandResult.TargetList.TargetSummary target : list.targets()) {
                         String status = target.enabled() ? "\u00a7a[ON]" : "\u00a7c[OFF]";
+                        // Only call out breakers that are holding deliveries back
+                        String circuit = target.circuitState() != null && !target.circuitState().equals("closed")
+                                ? " \u00a7ecircuit " + target.circuitState()
+                                : "";
                         source.sendSystemMessage(Component.literal(
-                                "  " + status + " \u00a7r" + target.name() + " \u00a77(" + target.type() + ")"
+                                "  " + status + " \u00a7r" + target.name() + " \u00a77(" + target.type() + ")" + circuit
                         ));
                     }
                 }
@@ -187,6 +209,9 @@ public class NeoForgeCommandAdapter {
                 source.sendSystemMessage(Component.literal("\u00a7lTarget: \u00a7r" + info.name()));
                 source.sendSystemMessage(Component.literal("  Type: " + info.type()));
                 source.sendSystemMessage(Component.literal("  Status: " + status));
+                if (info.circuit() != null) {
+                    source.sendSystemMessage(Component.literal("  Circuit: " + info.circuit()));
+                }
                 if (!info.properties().isEmpty()) {
                     source.sendSystemMessage(Component.literal("  Properties:"));
                     for (var entry : info.properties().entrySet()) {
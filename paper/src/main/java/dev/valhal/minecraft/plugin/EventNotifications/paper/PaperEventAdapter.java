@@ -58,6 +58,9 @@ public class PaperEventAdapter implements Listener {
 
     @EventHandler(priority = EventPriority.MONITOR)
     public void onPlayerJoin(PlayerJoinEvent event) {
+        if (!eventBus.hasSubscribers(GameEventType.PLAYER_CONNECT)) {
+            return;
+        }
         Player player = event.getPlayer();
         eventBus.publish(new PlayerConnectEvent(
                 player.getUniqueId(),
@@ -67,6 +70,9 @@ public class PaperEventAdapter implements Listener {
 
     @EventHandler(priority = EventPriority.MONITOR)
     public void onPlayerQuit(PlayerQuitEvent event) {
+        if (!eventBus.hasSubscribers(GameEventType.PLAYER_DISCONNECT)) {
+            return;
+        }
         Player player = event.getPlayer();
         eventBus.publish(new PlayerDisconnectEvent(
                 player.getUniqueId(),
@@ -76,6 +82,9 @@ public class PaperEventAdapter implements Listener {
 
     @EventHandler(priority = EventPriority.MONITOR)
     public void onPlayerDeath(PlayerDeathEvent event) {
+        if (!eventBus.hasSubscribers(GameEventType.PLAYER_DEATH)) {
+            return;
+        }
         Player player = event.getEntity();
         // Use Adventure API - deathMessage() returns a Component
         var deathMessageComponent = event.deathMessage();
@@ -91,13 +100,18 @@ public class PaperEventAdapter implements Listener {
 
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onPlayerKick(PlayerKickEvent event) {
+        // The ban list lookup is needed for either event, so skip it only if neither is wanted
+        if (!eventBus.hasSubscribers(GameEventType.PLAYER_KICKED) && !eventBus.hasSubscribers(GameEventType.PLAYER_BANNED)) {
+            return;
+        }
         Player player = event.getPlayer();
-        // Use Adventure API - reason() returns a Component
-        String reason = PLAIN_SERIALIZER.serialize(event.reason());
 
         // Check if this is a ban kick using the profile-based ban list
         ProfileBanList banList = Bukkit.getBanList(BanListType.PROFILE);
         if (banList.isBanned(player.getPlayerProfile())) {
+            if (!eventBus.hasSubscribers(GameEventType.PLAYER_BANNED)) {
+                return;
+            }
             var banEntry = banList.getBanEntry(player.getPlayerProfile());
             String banReason = banEntry != null && banEntry.getReason() != null ? banEntry.getReason() : "Banned";
             String bannedBy = banEntry != null && banEntry.getSource() != null ? banEntry.getSource() : "Server";
@@ -107,7 +121,9 @@ public class PaperEventAdapter implements Listener {
                     banReason,
                     bannedBy
             ));
-        } else {
+        } else if (eventBus.hasSubscribers(GameEventType.PLAYER_KICKED)) {
+            // Use Adventure API - reason() returns a Component
+            String reason = PLAIN_SERIALIZER.serialize(event.reason());
             eventBus.publish(new PlayerKickedEvent(
                     player.getUniqueId(),
                     player.getName(),
@@ -118,6 +134,9 @@ public class PaperEventAdapter implements Listener {
 
     @EventHandler(priority = EventPriority.MONITOR)
     public void onPlayerAdvancement(PlayerAdvancementDoneEvent event) {
+        if (!eventBus.hasSubscribers(GameEventType.PLAYER_ADVANCEMENT)) {
+            return;
+        }
         Advancement advancement = event.getAdvancement();
         Player player = event.getPlayer();
 
@@ -5,7 +5,9 @@ import dev.valhal.minecraft.plugin.EventNotifications.core.config.ConfigLoader;
 import dev.valhal.minecraft.plugin.EventNotifications.core.config.ConfigManager;
 import dev.valhal.minecraft.plugin.EventNotifications.core.config.PluginConfig;
 import dev.valhal.minecraft.plugin.EventNotifications.core.config.TemplateLoader;
+import dev.valhal.minecraft.plugin.EventNotifications.core.delivery.DeliveryExecutor;
 import dev.valhal.minecraft.plugin.EventNotifications.core.event.EventBus;
+import dev.valhal.minecraft.plugin.EventNotifications.core.metrics.PrometheusExporter;
 import dev.valhal.minecraft.plugin.EventNotifications.core.notification.NotificationService;
 import dev.valhal.minecraft.plugin.EventNotifications.paper.command.PaperCommandAdapter;
 import org.bukkit.command.PluginCommand;
@@ -18,7 +20,8 @@ public class PaperPlugin extends JavaPlugin {
 
     private EventBus eventBus;
     private NotificationService notificationService;
-    private PaperAsyncExecutor asyncExecutor;
+    private DeliveryExecutor asyncExecutor;
+    private PrometheusExporter metricsExporter;
     private PaperEventAdapter eventAdapter;
     private ConfigManager configManager;
     private CommandHandler commandHandler;
@@ -40,12 +43,16 @@ public class PaperPlugin extends JavaPlugin {
             TemplateLoader templateLoader = new TemplateLoader(templatesDir);
             templateLoader.load();
 
-            eventBus = new EventBus();
-            asyncExecutor = new PaperAsyncExecutor();
+            eventBus = new EventBus(msg -> log(msg));
+            asyncExecutor = new DeliveryExecutor(config.delivery());
 
-            notificationService = new NotificationService(config, templateLoader, asyncExecutor, msg -> log(msg));
+            notificationService = new NotificationService(config, templateLoader, configDir, asyncExecutor, msg -> log(msg));
             notificationService.registerWithEventBus(eventBus);
 
+            // Serves /metrics only if metrics_enabled is set
+            metricsExporter = new PrometheusExporter(config.general(), notificationService, asyncExecutor, msg -> log(msg));
+            metricsExporter.start();
+
             // Register commands if enabled in config
             if (config.commandsEnabled()) {
                 commandHandler = new CommandHandler(configManager, notificationService, msg -> log(msg));
@@ -84,6 +91,17 @@ public class PaperPlugin extends JavaPlugin {
         if (eventAdapter != null) {
             eventAdapter.onServerShutdown();
         }
+        if (metricsExporter != null) {
+            metricsExporter.stop();
+        }
+        // Let the handlers process the shutdown event before flushing
+        if (eventBus != null) {
+            eventBus.close();
+        }
+        // Flush the shutdown notification and anything still queued before the executor goes away
+        if (notificationService != null) {
+            notificationService.shutdown();
+        }
         if (asyncExecutor != null) {
             asyncExecutor.shutdown();
         }
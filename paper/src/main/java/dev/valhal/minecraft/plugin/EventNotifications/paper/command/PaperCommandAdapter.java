@@ -22,7 +22,7 @@ import java.util.List;
  */
 public class PaperCommandAdapter implements CommandExecutor, TabCompleter {
     private static final String PERMISSION = "eventnotifications.admin";
-    private static final List<String> SUBCOMMANDS = List.of("reload", "list", "info", "enable", "disable", "set", "message", "help");
+    private static final List<String> SUBCOMMANDS = List.of("reload", "list", "info", "stats", "enable", "disable", "set", "message", "help");
 
     private final CommandHandler commandHandler;
 
@@ -54,6 +54,7 @@ public class PaperCommandAdapter implements CommandExecutor, TabCompleter {
                 }
                 sendResult(sender, commandHandler.info(args[1]));
             }
+            case "stats" -> sendResult(sender, commandHandler.stats(args.length >= 2 ? args[1] : null));
             case "enable" -> {
                 if (args.length < 2) {
                     sender.sendMessage(Component.text("Usage: /" + label + " enable <target>", NamedTextColor.RED));
@@ -117,7 +118,7 @@ public class PaperCommandAdapter implements CommandExecutor, TabCompleter {
 
         if (args.length == 2) {
             // Suggest target names for commands that need them
-            if (List.of("info", "enable", "disable", "set", "message").contains(subCommand)) {
+            if (List.of("info", "stats", "enable", "disable", "set", "message").contains(subCommand)) {
                 return filterStartsWith(commandHandler.getTargetNames(), args[1]);
             }
         }
@@ -159,10 +160,15 @@ public class PaperCommandAdapter implements CommandExecutor, TabCompleter {
                         Component status = target.enabled()
                                 ? Component.text("[ON] ", NamedTextColor.GREEN)
                                 : Component.text("[OFF] ", NamedTextColor.RED);
-                        sender.sendMessage(Component.text("  ")
+                        Component line = Component.text("  ")
                                 .append(status)
                                 .append(Component.text(target.name(), NamedTextColor.WHITE))
-                                .append(Component.text(" (" + target.type() + ")", NamedTextColor.GRAY)));
+                                .append(Component.text(" (" + target.type() + ")", NamedTextColor.GRAY));
+                        // Only call out breakers that are holding deliveries back
+                        if (target.circuitState() != null && !target.circuitState().equals("closed")) {
+                            line = line.append(Component.text(" circuit " + target.circuitState(), NamedTextColor.YELLOW));
+                        }
+                        sender.sendMessage(line);
                     }
                 }
             }
@@ -174,6 +180,9 @@ public class PaperCommandAdapter implements CommandExecutor, TabCompleter {
                         .append(Component.text(info.name()).decoration(TextDecoration.BOLD, false)));
                 sender.sendMessage(Component.text("  Type: " + info.type()));
                 sender.sendMessage(Component.text("  Status: ").append(status));
+                if (info.circuit() != null) {
+                    sender.sendMessage(Component.text("  Circuit: " + info.circuit()));
+                }
                 if (!info.properties().isEmpty()) {
                     sender.sendMessage(Component.text("  Properties:"));
                     for (var entry : info.properties().entrySet()) {
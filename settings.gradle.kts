@@ -27,3 +27,9 @@ dependencyResolutionManagement {
 }
 
 include(":core", ":fabric", ":paper", ":neoforge")
+
+// The benchmarks need the JMH Gradle plugin, which is not available offline, so they are only
+// part of the build when asked for: ./gradlew -Pbenchmarks :benchmarks:jmh
+if (providers.gradleProperty("benchmarks").isPresent) {
+    include(":benchmarks")
+}